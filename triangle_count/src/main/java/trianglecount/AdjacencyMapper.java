@@ -0,0 +1,72 @@
+package trianglecount;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.apache.hadoop.io.IntWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.Mapper;
+
+/**
+ * AdjacencyMapper - In-mapper aggregation of out-neighbors (see AdjacencyShuffle)
+ * 
+ * Purpose: Replaces WedgeSeqMapper. Edges are buffered as packed longs; when the
+ *          buffer is full (and in cleanup) it is sorted and every run of equal
+ *          source vertices is emitted as one sorted neighbor block.
+ * 
+ * Input:  ((u, v), "") - edge from SequenceFile
+ * Output: (u, [v1, v2, ...]) - sorted out-neighbors of u seen since the last flush
+ */
+public class AdjacencyMapper extends Mapper<IntPairWritable, Text, IntWritable, AdjacencyWritable> {
+	
+	private IntWritable ok = new IntWritable();
+	private AdjacencyWritable ov = new AdjacencyWritable();
+	
+	private long[] buffer;
+	private int size;
+	private int[] run = new int[64];
+	
+	@Override
+	protected void setup(Context context) throws IOException, InterruptedException {
+		buffer = new long[context.getConfiguration().getInt(AdjacencyShuffle.BUFFER_KEY,
+				AdjacencyShuffle.DEFAULT_BUFFER_EDGES)];
+	}
+	
+	@Override
+	protected void map(IntPairWritable key, Text value, Context context)
+			throws IOException, InterruptedException {
+		add(key.getFirst(), key.getSecond(), context);
+	}
+	
+	/**
+	 * Buffer neighbor v of vertex u
+	 */
+	protected void add(int u, int v, Context context) throws IOException, InterruptedException {
+		if (size == buffer.length) {
+			flush(context);
+		}
+		buffer[size++] = IntPairKeySampler.pack(u, v);
+	}
+	
+	private void flush(Context context) throws IOException, InterruptedException {
+		Arrays.sort(buffer, 0, size);
+		int i = 0;
+		while (i < size) {
+			int u = IntPairKeySampler.first(buffer[i]);
+			int n = 0;
+			for (; i < size && IntPairKeySampler.first(buffer[i]) == u; i++) {
+				if (n == run.length) run = Arrays.copyOf(run, n * 2);
+				run[n++] = IntPairKeySampler.second(buffer[i]);
+			}
+			ok.set(u);
+			ov.set(run, 0, n);
+			context.write(ok, ov);
+		}
+		size = 0;
+	}
+	
+	@Override
+	protected void cleanup(Context context) throws IOException, InterruptedException {
+		flush(context);
+	}
+}
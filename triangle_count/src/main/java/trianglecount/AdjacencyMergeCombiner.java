@@ -0,0 +1,36 @@
+package trianglecount;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.apache.hadoop.io.IntWritable;
+import org.apache.hadoop.mapreduce.Reducer;
+
+/**
+ * AdjacencyMergeCombiner - Merge the neighbor blocks of one vertex into one sorted block
+ * 
+ * Input:  (x, [[y1, y2], [y3], ...]) - blocks from several flushes or spills
+ * Output: (x, [y1, y2, y3, ...]) - one sorted block
+ */
+public class AdjacencyMergeCombiner extends Reducer<IntWritable, AdjacencyWritable, IntWritable, AdjacencyWritable> {
+	
+	private AdjacencyWritable merged = new AdjacencyWritable();
+	private int[] neighbors = new int[64];
+	
+	@Override
+	protected void reduce(IntWritable key, Iterable<AdjacencyWritable> values, Context context)
+			throws IOException, InterruptedException {
+		int n = 0;
+		int blocks = 0;
+		for (AdjacencyWritable block : values) {
+			neighbors = block.copyTo(neighbors, n);
+			n += block.size();
+			blocks++;
+		}
+		if (blocks > 1) {
+			Arrays.sort(neighbors, 0, n);
+		}
+		merged.set(neighbors, 0, n);
+		context.write(key, merged);
+	}
+}
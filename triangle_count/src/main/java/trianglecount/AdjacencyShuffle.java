@@ -0,0 +1,50 @@
+package trianglecount;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.mapreduce.Job;
+
+/**
+ * AdjacencyShuffle - Shuffle neighbor blocks instead of single (vertex, neighbor) records
+ * 
+ * Enabled with -D adjacency.shuffle=true for the degree and wedge steps.
+ * Mappers buffer up to adjacency.buffer.edges edges (packed longs), sort them
+ * and emit one AdjacencyWritable per source vertex and flush; a combiner merges
+ * the blocks of one vertex across flushes and spills. Reducers produce exactly
+ * the output of DegreeReducer / WedgeReducer (and their Bloom, map-side join
+ * and count-only variants, see ClosingEdgeCheck).
+ * 
+ * - Degree step: DegreeAdjacencyMapper -> AdjacencyMergeCombiner -> DegreeAdjacencyReducer
+ * - Wedge step:  AdjacencyMapper -> AdjacencyMergeCombiner -> WedgeAdjacencyReducer
+ * Hub splitting (WedgeSkew) keeps its own record-per-edge mapper and takes precedence.
+ */
+public class AdjacencyShuffle {
+	
+	public static final String ENABLED_KEY = "adjacency.shuffle";
+	public static final String BUFFER_KEY = "adjacency.buffer.edges";
+	public static final int DEFAULT_BUFFER_EDGES = 1 << 20;  // 8 MB of packed longs
+	
+	public static boolean isEnabled(Configuration conf) {
+		return conf.getBoolean(ENABLED_KEY, false);
+	}
+	
+	/**
+	 * Switch a degree job (DegreeMapper -> DegreeReducer) to neighbor blocks
+	 */
+	public static void configureDegreeStep(Job job) {
+		job.setMapperClass(DegreeAdjacencyMapper.class);
+		job.setCombinerClass(AdjacencyMergeCombiner.class);
+		job.setReducerClass(DegreeAdjacencyReducer.class);
+		job.setMapOutputValueClass(AdjacencyWritable.class);
+	}
+	
+	/**
+	 * Switch a wedge job (WedgeSeqMapper -> Wedge*Reducer) to neighbor blocks.
+	 * Call after TriangleJoinMode.configureMapSide; output classes are kept.
+	 */
+	public static void configureWedgeStep(Job job) {
+		job.setMapperClass(AdjacencyMapper.class);
+		job.setCombinerClass(AdjacencyMergeCombiner.class);
+		job.setReducerClass(WedgeAdjacencyReducer.class);
+		job.setMapOutputValueClass(AdjacencyWritable.class);
+	}
+}
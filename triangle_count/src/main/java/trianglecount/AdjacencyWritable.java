@@ -0,0 +1,191 @@
+package trianglecount;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.apache.hadoop.io.WritableComparable;
+import org.apache.hadoop.io.WritableComparator;
+
+/**
+ * AdjacencyWritable - Neighbor list of one vertex as zig-zag delta varints
+ * 
+ * Purpose: Ship a block of neighbors as one shuffle record instead of one
+ *          (vertex, neighbor) record per edge (see AdjacencyShuffle).
+ * 
+ * Serialized form:
+ * - count as unsigned varint
+ * - each neighbor as zig-zag varint of (neighbor - previous), previous starting at 0
+ * Neighbors are expected in ascending order, so deltas are small and most take
+ * one or two bytes; unsorted or negative IDs still round-trip.
+ */
+public class AdjacencyWritable implements WritableComparable<AdjacencyWritable> {
+	
+	private int[] neighbors = new int[16];
+	private int size;
+	
+	public void set(int[] src, int from, int to) {
+		size = 0;
+		ensureCapacity(to - from);
+		System.arraycopy(src, from, neighbors, 0, to - from);
+		size = to - from;
+	}
+	
+	public int size() {
+		return size;
+	}
+	
+	public int get(int i) {
+		return neighbors[i];
+	}
+	
+	/**
+	 * Append all neighbors to dst at offset, growing it if needed
+	 * @return the (possibly new) destination array
+	 */
+	public int[] copyTo(int[] dst, int offset) {
+		if (offset + size > dst.length) {
+			dst = Arrays.copyOf(dst, Math.max(dst.length * 2, offset + size));
+		}
+		System.arraycopy(neighbors, 0, dst, offset, size);
+		return dst;
+	}
+	
+	private void ensureCapacity(int capacity) {
+		if (capacity > neighbors.length) {
+			neighbors = Arrays.copyOf(neighbors, Math.max(capacity, neighbors.length * 2));
+		}
+	}
+	
+	public void readFields(DataInput in) throws IOException {
+		int n = readVarInt(in);
+		size = 0;
+		ensureCapacity(n);
+		int prev = 0;
+		for (int i = 0; i < n; i++) {
+			prev += zigZagDecode(readVarInt(in));
+			neighbors[i] = prev;
+		}
+		size = n;
+	}
+	
+	public void write(DataOutput out) throws IOException {
+		writeVarInt(out, size);
+		int prev = 0;
+		for (int i = 0; i < size; i++) {
+			writeVarInt(out, zigZagEncode(neighbors[i] - prev));
+			prev = neighbors[i];
+		}
+	}
+	
+	/**
+	 * Element-wise order, then shorter list first
+	 */
+	public int compareTo(AdjacencyWritable o) {
+		int n = Math.min(size, o.size);
+		for (int i = 0; i < n; i++) {
+			if (neighbors[i] != o.neighbors[i]) {
+				return Integer.compare(neighbors[i], o.neighbors[i]);
+			}
+		}
+		return Integer.compare(size, o.size);
+	}
+	
+	@Override
+	public boolean equals(Object o) {
+		return o instanceof AdjacencyWritable && compareTo((AdjacencyWritable) o) == 0;
+	}
+	
+	@Override
+	public int hashCode() {
+		int h = size;
+		for (int i = 0; i < size; i++) {
+			h = h * 163 + neighbors[i];
+		}
+		return h;
+	}
+	
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < size; i++) {
+			if (i > 0) sb.append(',');
+			sb.append(neighbors[i]);
+		}
+		return sb.toString();
+	}
+	
+	static int zigZagEncode(int n) {
+		return (n << 1) ^ (n >> 31);
+	}
+	
+	static int zigZagDecode(int n) {
+		return (n >>> 1) ^ -(n & 1);
+	}
+	
+	static void writeVarInt(DataOutput out, int n) throws IOException {
+		while ((n & ~0x7F) != 0) {
+			out.writeByte((n & 0x7F) | 0x80);
+			n >>>= 7;
+		}
+		out.writeByte(n);
+	}
+	
+	static int readVarInt(DataInput in) throws IOException {
+		int n = 0;
+		for (int shift = 0; ; shift += 7) {
+			byte b = in.readByte();
+			n |= (b & 0x7F) << shift;
+			if (b >= 0) return n;
+		}
+	}
+	
+	/**
+	 * Raw comparator: decodes both varint streams in place, same order as compareTo
+	 */
+	public static class Comparator extends WritableComparator {
+		
+		public Comparator() {
+			super(AdjacencyWritable.class);
+		}
+		
+		@Override
+		public int compare(byte[] b1, int s1, int l1, byte[] b2, int s2, int l2) {
+			int n1 = readVarInt(b1, s1);
+			int n2 = readVarInt(b2, s2);
+			int p1 = s1 + varIntLength(b1, s1);
+			int p2 = s2 + varIntLength(b2, s2);
+			int v1 = 0;
+			int v2 = 0;
+			for (int i = 0, n = Math.min(n1, n2); i < n; i++) {
+				v1 += zigZagDecode(readVarInt(b1, p1));
+				v2 += zigZagDecode(readVarInt(b2, p2));
+				if (v1 != v2) {
+					return Integer.compare(v1, v2);
+				}
+				p1 += varIntLength(b1, p1);
+				p2 += varIntLength(b2, p2);
+			}
+			return Integer.compare(n1, n2);
+		}
+		
+		private static int readVarInt(byte[] b, int s) {
+			int n = 0;
+			for (int shift = 0; ; shift += 7) {
+				byte x = b[s++];
+				n |= (x & 0x7F) << shift;
+				if (x >= 0) return n;
+			}
+		}
+		
+		private static int varIntLength(byte[] b, int s) {
+			int len = 1;
+			while (b[s++] < 0) len++;
+			return len;
+		}
+	}
+	
+	static { // register raw comparator
+		WritableComparator.define(AdjacencyWritable.class, new Comparator());
+	}
+}
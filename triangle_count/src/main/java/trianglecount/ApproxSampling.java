@@ -0,0 +1,120 @@
+package trianglecount;
+
+import org.apache.hadoop.conf.Configuration;
+
+/**
+ * ApproxSampling - Edge and wedge sampling for approximate triangle counts
+ * 
+ * Settings (see ApproxTriangleDriver):
+ * - approx.edge.probability p (default 0.1): DOULION sparsification, each
+ *   distinct edge is kept with probability p, so a triangle survives with p^3
+ * - approx.wedge.probability q (default 1.0): each generated wedge is kept with
+ *   probability q. With degree orientation every triangle has exactly one wedge.
+ * - approx.seed: coin seed; trial i of a run uses seed + i
+ * The estimate is (triangles in the sample) / (p^3 * q). Smaller p and q mean
+ * less shuffle and more variance.
+ * 
+ * Coins are hashes of the edge (or wedge) and the seed, not random draws, so a
+ * duplicate edge in another task gets the same answer as the first copy.
+ */
+public class ApproxSampling {
+	
+	public static final String EDGE_PROBABILITY_KEY = "approx.edge.probability";
+	public static final String WEDGE_PROBABILITY_KEY = "approx.wedge.probability";
+	public static final String SEED_KEY = "approx.seed";
+	
+	public static final double DEFAULT_EDGE_PROBABILITY = 0.1;
+	public static final double DEFAULT_WEDGE_PROBABILITY = 1.0;
+	public static final long DEFAULT_SEED = 1;
+	
+	private final long edgeThreshold;
+	private final long wedgeThreshold;
+	private final long salt;
+	
+	public ApproxSampling(double edgeProbability, double wedgeProbability, long seed) {
+		this.edgeThreshold = threshold(edgeProbability);
+		this.wedgeThreshold = threshold(wedgeProbability);
+		this.salt = BlockedBloomFilter.mix(seed * 0x9E3779B97F4A7C15L + 1);
+	}
+	
+	public static ApproxSampling get(Configuration conf) {
+		return new ApproxSampling(edgeProbability(conf), wedgeProbability(conf), conf.getLong(SEED_KEY, DEFAULT_SEED));
+	}
+	
+	public static double edgeProbability(Configuration conf) {
+		return conf.getDouble(EDGE_PROBABILITY_KEY, DEFAULT_EDGE_PROBABILITY);
+	}
+	
+	public static double wedgeProbability(Configuration conf) {
+		return conf.getDouble(WEDGE_PROBABILITY_KEY, DEFAULT_WEDGE_PROBABILITY);
+	}
+	
+	/**
+	 * Keep the undirected edge u - v in the sparsified graph?
+	 */
+	public boolean keepEdge(int u, int v) {
+		return coin(BlockedBloomFilter.edgeKey(u, v) ^ salt, edgeThreshold);
+	}
+	
+	/**
+	 * Keep the wedge a - center - b?
+	 */
+	public boolean keepWedge(int a, int b, int center) {
+		long key = BlockedBloomFilter.edgeKey(a, b) ^ BlockedBloomFilter.mix(center ^ ~salt);
+		return coin(key, wedgeThreshold);
+	}
+	
+	/**
+	 * Probability p^3 * q that a triangle of the input is found in the sample
+	 */
+	public static double triangleProbability(double edgeProbability, double wedgeProbability) {
+		return edgeProbability * edgeProbability * edgeProbability * wedgeProbability;
+	}
+	
+	private static boolean coin(long key, long threshold) {
+		return threshold > (1L << 53) || (BlockedBloomFilter.mix(key) >>> 11) < threshold;
+	}
+	
+	private static long threshold(double probability) {
+		if (probability <= 0 || probability > 1) {
+			throw new IllegalArgumentException("Sampling probability must be in (0, 1]: " + probability);
+		}
+		return probability == 1 ? Long.MAX_VALUE : (long) (probability * (1L << 53));
+	}
+	
+	/**
+	 * Two-sided Student t quantile with df degrees of freedom, for intervals over
+	 * a few trials (Cornish-Fisher expansion around zScore, within 1% for df >= 3)
+	 */
+	public static double tScore(double confidence, int df) {
+		double z = zScore(confidence);
+		double z2 = z * z;
+		return z + z * (z2 + 1) / (4.0 * df)
+				+ z * ((5 * z2 + 16) * z2 + 3) / (96.0 * df * df)
+				+ z * (((3 * z2 + 19) * z2 + 17) * z2 - 15) / (384.0 * df * df * df);
+	}
+	
+	/**
+	 * Two-sided standard normal quantile for a confidence level, e.g. 0.95 -> 1.96
+	 * (Acklam's rational approximation, relative error < 1.2e-9)
+	 */
+	public static double zScore(double confidence) {
+		double p = (1 + confidence) / 2;
+		if (p <= 0.5 || p >= 1) {
+			throw new IllegalArgumentException("Confidence must be in (0, 1): " + confidence);
+		}
+		if (p <= 1 - 0.02425) {
+			double q = p - 0.5;
+			double r = q * q;
+			return (((((-3.969683028665376e+01 * r + 2.209460984245205e+02) * r - 2.759285104469687e+02) * r
+					+ 1.383577518672690e+02) * r - 3.066479806614716e+01) * r + 2.506628277459239e+00) * q
+					/ (((((-5.447609879822406e+01 * r + 1.615858368580409e+02) * r - 1.556989798598866e+02) * r
+					+ 6.680131188771972e+01) * r - 1.328068155288572e+01) * r + 1);
+		}
+		double q = Math.sqrt(-2 * Math.log(1 - p));
+		return -(((((-7.784894002430293e-03 * q - 3.223964580411365e-01) * q - 2.400758277161838e+00) * q
+				- 2.549732539343734e+00) * q + 4.374664141464968e+00) * q + 2.938163982698783e+00)
+				/ ((((7.784695709041462e-03 * q + 3.224671290700398e-01) * q + 2.445134137142996e+00) * q
+				+ 3.754408661907416e+00) * q + 1);
+	}
+}
@@ -0,0 +1,248 @@
+package trianglecount;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.conf.Configured;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.IntWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapred.FileAlreadyExistsException;
+import org.apache.hadoop.mapreduce.Job;
+import org.apache.hadoop.mapreduce.lib.input.FileInputFormat;
+import org.apache.hadoop.mapreduce.lib.input.MultipleInputs;
+import org.apache.hadoop.mapreduce.lib.input.SequenceFileInputFormat;
+import org.apache.hadoop.mapreduce.lib.output.FileOutputFormat;
+import org.apache.hadoop.mapreduce.lib.output.SequenceFileOutputFormat;
+import org.apache.hadoop.mapreduce.lib.output.TextOutputFormat;
+import org.apache.hadoop.util.Tool;
+import org.apache.hadoop.util.ToolRunner;
+
+/**
+ * ApproxTriangleDriver - Approximate triangle count with a confidence interval
+ * 
+ * Algorithm: per trial (seed approx.seed + i) on a sampled graph, see ApproxSampling
+ * - Ingest: Binary edge store (EdgeIngest), once for all trials
+ * - Step 1: Normalize + DOULION sparsification (SampledNormalizeSeqMapper -> NormalizeReducer)
+ * - Step 2: Degree table of the sampled graph (DegreeTable, see ReorientMode)
+ * - Step 3: Generate wedges (OrientingWedgeMapper -> WedgeReducer, SampledWedgeReducer if q < 1)
+ * - Step 4: Count triangles (EdgeMarkerSeqMapper + WedgeTallyMapper -> TriangleTallyReducer)
+ * Trial estimate: sampled triangles / (p^3 * q); the run reports the mean over trials.
+ * A trial's intermediate outputs (<input>.approx<i>.*) are deleted before it
+ * starts (left over from an interrupted run) and once its count is taken.
+ * 
+ * Confidence interval (approx.confidence, default 0.95):
+ * - approx.trials r >= 2: mean +- t(r-1) * s / sqrt(r), s = std. deviation of the trial estimates
+ * - r = 1: estimate +- z * sqrt(T * (1 - pi) / pi), pi = p^3 * q, the variance if
+ *          triangles were sampled independently. Triangles sharing an edge
+ *          raise the true variance, so this interval is optimistic on graphs
+ *          with much edge overlap; use r >= 2 there.
+ * 
+ * Runtime vs. error: -D approx.edge.probability=p (default 0.1),
+ *                    -D approx.wedge.probability=q (default 1.0), -D approx.trials=r
+ * 
+ * Output: <input>.out_approx/part-r-00000, "triangles	estimate" (rounded) first,
+ *         then estimate, ci_low, ci_high, confidence, p, q, trials and one
+ *         "trial_i	sampled	estimate" line per trial
+ * 
+ * Usage: hadoop jar triangle_count.jar trianglecount.ApproxTriangleDriver -D approx.edge.probability=0.1 <input>
+ */
+public class ApproxTriangleDriver extends Configured implements Tool {
+	
+	public static final String TRIALS_KEY = "approx.trials";
+	public static final String CONFIDENCE_KEY = "approx.confidence";
+	
+	public static void main(String[] args) throws Exception {
+		ToolRunner.run(new ApproxTriangleDriver(), args);
+	}
+	
+	public int run(String[] args) throws Exception {
+		
+		String inputPath = args[0];
+		String edgesPath = inputPath + ".edges";             // Binary edge store
+		String outputPath = inputPath + ".out_approx";       // Final report
+		
+		double p = ApproxSampling.edgeProbability(getConf());
+		double q = ApproxSampling.wedgeProbability(getConf());
+		int trials = Math.max(1, getConf().getInt(TRIALS_KEY, 1));
+		double confidence = getConf().getDouble(CONFIDENCE_KEY, 0.95);
+		long seed = getConf().getLong(ApproxSampling.SEED_KEY, ApproxSampling.DEFAULT_SEED);
+		double pi = ApproxSampling.triangleProbability(p, q);
+		
+		FileSystem fs = FileSystem.get(getConf());
+		Path output = new Path(outputPath);
+		if (fs.exists(output)) {
+			throw new FileAlreadyExistsException("Output directory " + output + " already exists");
+		}
+		
+		EdgeIngest.ingest(getConf(), inputPath, edgesPath);
+		
+		long[] sampled = new long[trials];
+		double[] estimates = new double[trials];
+		for (int i = 0; i < trials; i++) {
+			Configuration conf = new Configuration(getConf());
+			conf.setLong(ApproxSampling.SEED_KEY, seed + i);
+			
+			String trialPath = inputPath + ".approx" + i;
+			String normalizedPath = trialPath + ".normalized";   // Step 1 output
+			String degreeTablePath = trialPath + ".degreetable"; // Step 2 output
+			String wedgePath = trialPath + ".wedges";            // Step 3 output
+			String countPath = trialPath + ".count";             // Step 4 output
+			deleteTrialOutputs(fs, trialPath);
+			
+			runStep1_SampleAndNormalize(conf, edgesPath, normalizedPath);
+			DegreeTable.build(conf, normalizedPath, degreeTablePath);
+			runStep3_GenerateWedges(conf, normalizedPath, degreeTablePath, wedgePath);
+			sampled[i] = runStep4_CountTriangles(conf, normalizedPath, wedgePath, countPath);
+			estimates[i] = sampled[i] / pi;
+			deleteTrialOutputs(fs, trialPath);
+			System.out.println("Trial " + i + ": " + sampled[i] + " sampled triangles -> " + estimates[i]);
+		}
+		
+		double mean = 0;
+		for (double e : estimates) {
+			mean += e;
+		}
+		mean /= trials;
+		
+		double stdError;
+		if (trials >= 2) {
+			double squares = 0;
+			for (double e : estimates) {
+				squares += (e - mean) * (e - mean);
+			}
+			stdError = Math.sqrt(squares / (trials - 1) / trials);
+		} else {
+			stdError = Math.sqrt(mean * (1 - pi) / pi);
+		}
+		double z = trials >= 2 ? ApproxSampling.tScore(confidence, trials - 1) : ApproxSampling.zScore(confidence);
+		double low = Math.max(0, mean - z * stdError);
+		double high = mean + z * stdError;
+		
+		try (BufferedWriter out = new BufferedWriter(new OutputStreamWriter(
+				fs.create(new Path(output, "part-r-00000")), StandardCharsets.UTF_8))) {
+			out.write("triangles\t" + Math.round(mean)); out.newLine();
+			out.write("estimate\t" + mean); out.newLine();
+			out.write("ci_low\t" + low); out.newLine();
+			out.write("ci_high\t" + high); out.newLine();
+			out.write("confidence\t" + confidence); out.newLine();
+			out.write("p\t" + p); out.newLine();
+			out.write("q\t" + q); out.newLine();
+			out.write("trials\t" + trials); out.newLine();
+			for (int i = 0; i < trials; i++) {
+				out.write("trial_" + i + "\t" + sampled[i] + "\t" + estimates[i]);
+				out.newLine();
+			}
+		}
+		fs.create(new Path(output, "_SUCCESS")).close();
+		
+		System.out.println(String.format("Triangles: ~%d (%.0f%% CI %.0f - %.0f, p=%s, q=%s, %d trial(s))",
+				Math.round(mean), confidence * 100, low, high, p, q, trials));
+		return 0;
+	}
+	
+	/**
+	 * Delete all outputs of one trial: <trialPath>.*
+	 */
+	private static void deleteTrialOutputs(FileSystem fs, String trialPath) throws IOException {
+		FileStatus[] outputs = fs.globStatus(new Path(trialPath + ".*"));
+		if (outputs == null) return;
+		for (FileStatus status : outputs) {
+			fs.delete(status.getPath(), true);
+		}
+	}
+	
+	/**
+	 * Step 1: Sparsify and normalize edges (SampledNormalizeSeqMapper -> NormalizeReducer)
+	 */
+	private void runStep1_SampleAndNormalize(Configuration conf, String inputPath, String outputPath) throws Exception {
+		
+		Job job = Job.getInstance(conf);
+		job.setJobName("Approx-Step1-SampleAndNormalize");
+		job.setJarByClass(ApproxTriangleDriver.class);
+		
+		job.setMapperClass(SampledNormalizeSeqMapper.class);
+		job.setReducerClass(NormalizeReducer.class);
+		
+		job.setMapOutputKeyClass(IntPairWritable.class);
+		job.setMapOutputValueClass(IntWritable.class);
+		
+		job.setPartitionerClass(IntPairIntPartitioner.class);
+		
+		job.setOutputKeyClass(IntPairWritable.class);
+		job.setOutputValueClass(Text.class);
+		
+		job.setInputFormatClass(BinaryEdgeInputFormat.class);
+		job.setOutputFormatClass(SequenceFileOutputFormat.class);
+		
+		FileInputFormat.addInputPath(job, new Path(inputPath));
+		FileOutputFormat.setOutputPath(job, new Path(outputPath));
+		
+		JobMetrics.waitForCompletion(job);
+	}
+	
+	/**
+	 * Step 3: Generate wedges from edges oriented by the degree table
+	 * (OrientingWedgeMapper -> WedgeReducer, or SampledWedgeReducer for q < 1)
+	 */
+	private void runStep3_GenerateWedges(Configuration conf, String inputPath, String degreeTablePath,
+			String outputPath) throws Exception {
+		
+		Job job = Job.getInstance(conf);
+		job.setJobName("Approx-Step3-GenerateWedges");
+		job.setJarByClass(ApproxTriangleDriver.class);
+		
+		ReorientMode.configureWedgeStep(job, degreeTablePath);
+		job.setMapperClass(OrientingWedgeMapper.class);
+		job.setReducerClass(ApproxSampling.wedgeProbability(conf) < 1 ? SampledWedgeReducer.class : WedgeReducer.class);
+		
+		job.setMapOutputKeyClass(IntWritable.class);
+		job.setMapOutputValueClass(IntWritable.class);
+		
+		job.setOutputKeyClass(IntPairWritable.class);
+		job.setOutputValueClass(IntWritable.class);
+		
+		job.setInputFormatClass(SequenceFileInputFormat.class);
+		job.setOutputFormatClass(SequenceFileOutputFormat.class);
+		
+		FileInputFormat.addInputPath(job, new Path(inputPath));
+		FileOutputFormat.setOutputPath(job, new Path(outputPath));
+		
+		JobMetrics.waitForCompletion(job);
+	}
+	
+	/**
+	 * Step 4: Count triangles of the sampled graph (count-only join, see TriangleOutputMode)
+	 * @return number of triangles found in the sample
+	 */
+	private long runStep4_CountTriangles(Configuration conf, String normalizedPath, String wedgePath,
+			String outputPath) throws Exception {
+		
+		Job job = Job.getInstance(conf);
+		job.setJobName("Approx-Step4-CountTriangles");
+		job.setJarByClass(ApproxTriangleDriver.class);
+		
+		TriangleOutputMode.configureCountOnly(job);
+		
+		job.setMapOutputKeyClass(IntPairWritable.class);
+		job.setMapOutputValueClass(IntWritable.class);
+		
+		job.setPartitionerClass(IntPairIntPartitioner.class);
+		
+		job.setOutputFormatClass(TextOutputFormat.class);
+		
+		MultipleInputs.addInputPath(job, new Path(normalizedPath), SequenceFileInputFormat.class, EdgeMarkerSeqMapper.class);
+		MultipleInputs.addInputPath(job, new Path(wedgePath), SequenceFileInputFormat.class, WedgeTallyMapper.class);
+		
+		FileOutputFormat.setOutputPath(job, new Path(outputPath));
+		
+		JobMetrics.waitForCompletion(job);
+		
+		return job.getCounters().findCounter(PipelineCounter.TRIANGLES).getValue();
+	}
+}
@@ -27,6 +27,14 @@ import org.apache.hadoop.util.ToolRunner;
  * - Step 2: Wedge Generation (WedgeSeqMapper -> WedgeReducer)
  * - Step 3: Triangle Finding (normalized edges + wedges -> TriangleReducer)
  * 
+ * Count-only mode: -D triangle.output.mode=count (see TriangleOutputMode)
+ * Streaming join:  -D triangle.join.mode=secondary (see TriangleJoinMode)
+ * Map-side join:   -D triangle.join.mode=mapside (see TriangleJoinMode)
+ *                  Step 2 closes wedges against the shipped edge set, no Step 3
+ * Range partitions: -D partition.mode=range (see PartitionMode), Step 3 keys sampled
+ * Neighbor blocks:  -D adjacency.shuffle=true (see AdjacencyShuffle), Step 2
+ * Run report:       <input>.metrics.json (see PipelineReport), per-step times and counters
+ * 
  * Usage: hadoop jar triangle_count.jar trianglecount.BaselineDriver <input>
  */
 public class BaselineDriver extends Configured implements Tool {
@@ -38,14 +46,23 @@ public class BaselineDriver extends Configured implements Tool {
 	public int run(String[] args) throws Exception {
 		
 		String inputPath = args[0];
+		PipelineReport report = PipelineReport.begin(getConf(), "Baseline", inputPath);
 		String normalizedPath = inputPath + ".normalized";  // Task1 result (normalized edges)
 		String wedgePath = inputPath + ".wedges";           // Wedges
 		String outputPath = inputPath + ".out";             // Final output
+		String edgeSetPath = inputPath + ".edgeset";        // Map-side join only
 		
 		runStep1_Normalize(inputPath, normalizedPath);
-		runStep2_GenerateWedges(normalizedPath, wedgePath);
-		runStep3_FindTriangles(normalizedPath, wedgePath, outputPath);
-		
+		if (TriangleJoinMode.isMapSide(getConf())) {
+			TriangleJoinMode.writeEdgeSet(getConf(), normalizedPath, edgeSetPath);
+			runStep2_GenerateWedges(normalizedPath, outputPath, edgeSetPath);
+		}
+		else {
+			runStep2_GenerateWedges(normalizedPath, wedgePath, null);
+			runStep3_FindTriangles(normalizedPath, wedgePath, outputPath);
+		}
+		
+		report.write();
 		return 0;
 	}
 	
@@ -75,13 +92,14 @@ public class BaselineDriver extends Configured implements Tool {
 		FileInputFormat.addInputPath(job, new Path(inputPath));
 		FileOutputFormat.setOutputPath(job, new Path(outputPath));
 		
-		job.waitForCompletion(true);
+		JobMetrics.waitForCompletion(job);
 	}
 	
 	/**
 	 * Step 2: Generate wedges from normalized edges (SequenceFile input)
+	 * With an edge set: WedgeSeqMapper -> WedgeJoinReducer, writes triangles directly
 	 */
-	private void runStep2_GenerateWedges(String inputPath, String outputPath) throws Exception {
+	private void runStep2_GenerateWedges(String inputPath, String outputPath, String edgeSetPath) throws Exception {
 		
 		Job job = Job.getInstance(getConf());
 		job.setJobName("Baseline-Step2-GenerateWedges");
@@ -99,36 +117,64 @@ public class BaselineDriver extends Configured implements Tool {
 		job.setInputFormatClass(SequenceFileInputFormat.class);
 		job.setOutputFormatClass(SequenceFileOutputFormat.class);
 		
+		if (edgeSetPath != null) {
+			TriangleJoinMode.configureMapSide(job, edgeSetPath);
+		}
+		if (AdjacencyShuffle.isEnabled(getConf())) {
+			AdjacencyShuffle.configureWedgeStep(job);
+		}
+		
 		FileInputFormat.addInputPath(job, new Path(inputPath));
 		FileOutputFormat.setOutputPath(job, new Path(outputPath));
 		
-		job.waitForCompletion(true);
+		JobMetrics.waitForCompletion(job);
+		
+		if (edgeSetPath != null) {
+			TriangleOutputMode.reportTotal(job);
+		}
 	}
 
 	/**
 	 * Step 3: Find triangles (normalized edges + wedges)
+	 * Secondary-sort join: TaggedEdgeMapper + TaggedWedgeMapper -> StreamingTriangleReducer
 	 */
 	private void runStep3_FindTriangles(String normalizedPath, String wedgePath, String outputPath) throws Exception {
 		
+		boolean countOnly = TriangleOutputMode.isCountOnly(getConf());
+		
 		Job job = Job.getInstance(getConf());
 		job.setJobName("Baseline-Step3-FindTriangles");
 		job.setJarByClass(BaselineDriver.class);
 		
 		job.setReducerClass(TriangleReducer.class);
+		if (countOnly) {
+			TriangleOutputMode.configureCountOnly(job);
+		}
 		
 		job.setMapOutputKeyClass(IntPairWritable.class);
 		job.setMapOutputValueClass(IntWritable.class);
 		
 		job.setPartitionerClass(IntPairIntPartitioner.class);
+		PartitionMode.configureRange(job, wedgePath, wedgePath + ".splits");
 		
 		job.setOutputFormatClass(TextOutputFormat.class);
 		
-		// Normalized edges + Wedges (both SequenceFile)
-		MultipleInputs.addInputPath(job, new Path(normalizedPath), SequenceFileInputFormat.class, EdgeMarkerSeqMapper.class);
-		MultipleInputs.addInputPath(job, new Path(wedgePath), SequenceFileInputFormat.class, WedgeMarkerMapper.class);
+		if (TriangleJoinMode.isSecondarySort(getConf())) {
+			TriangleJoinMode.configureSecondarySort(job, normalizedPath, SequenceFileInputFormat.class, wedgePath);
+		}
+		else {
+			// Normalized edges + Wedges (both SequenceFile)
+			MultipleInputs.addInputPath(job, new Path(normalizedPath), SequenceFileInputFormat.class, EdgeMarkerSeqMapper.class);
+			MultipleInputs.addInputPath(job, new Path(wedgePath), SequenceFileInputFormat.class,
+					countOnly ? WedgeTallyMapper.class : WedgeMarkerMapper.class);
+		}
 		
 		FileOutputFormat.setOutputPath(job, new Path(outputPath));
 		
-		job.waitForCompletion(true);
+		JobMetrics.waitForCompletion(job);
+		
+		if (countOnly) {
+			TriangleOutputMode.reportTotal(job);
+		}
 	}
 }
@@ -0,0 +1,100 @@
+package trianglecount;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.InputSplit;
+import org.apache.hadoop.mapreduce.RecordReader;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+import org.apache.hadoop.mapreduce.lib.input.FileInputFormat;
+import org.apache.hadoop.mapreduce.lib.input.FileSplit;
+
+/**
+ * BinaryEdgeInputFormat - Read fixed-width binary edges (BinaryEdgeOutputFormat)
+ * 
+ * Splits are byte ranges as usual; each reader rounds both ends up to a
+ * multiple of 8, so every record belongs to exactly one split without any
+ * sync markers.
+ * 
+ * Records: ((u, v), "") - same key/value types as the normalized SequenceFiles,
+ *          so the existing *SeqMapper classes read it unchanged.
+ */
+public class BinaryEdgeInputFormat extends FileInputFormat<IntPairWritable, Text> {
+	
+	static final int RECORD_BYTES = 8;
+	
+	@Override
+	public RecordReader<IntPairWritable, Text> createRecordReader(InputSplit split, TaskAttemptContext context) {
+		return new EdgeRecordReader();
+	}
+	
+	static class EdgeRecordReader extends RecordReader<IntPairWritable, Text> {
+		
+		private final IntPairWritable key = new IntPairWritable();
+		private final Text value = new Text();
+		private DataInputStream in;
+		private long start;
+		private long end;
+		private long pos;
+		
+		@Override
+		public void initialize(InputSplit genericSplit, TaskAttemptContext context) throws IOException {
+			FileSplit split = (FileSplit) genericSplit;
+			Path file = split.getPath();
+			FileSystem fs = file.getFileSystem(context.getConfiguration());
+			long length = fs.getFileStatus(file).getLen();
+			if (length % RECORD_BYTES != 0) {
+				throw new IOException("Binary edge file is not a multiple of " + RECORD_BYTES + " bytes: " + file);
+			}
+			
+			start = alignUp(split.getStart());
+			end = Math.min(alignUp(split.getStart() + split.getLength()), length);
+			pos = start;
+			
+			FSDataInputStream stream = fs.open(file);
+			stream.seek(start);
+			in = new DataInputStream(new BufferedInputStream(stream, 64 * 1024));
+		}
+		
+		private static long alignUp(long offset) {
+			return (offset + RECORD_BYTES - 1) / RECORD_BYTES * RECORD_BYTES;
+		}
+		
+		@Override
+		public boolean nextKeyValue() throws IOException {
+			if (pos >= end) {
+				return false;
+			}
+			key.set(in.readInt(), in.readInt());
+			pos += RECORD_BYTES;
+			return true;
+		}
+		
+		@Override
+		public IntPairWritable getCurrentKey() {
+			return key;
+		}
+		
+		@Override
+		public Text getCurrentValue() {
+			return value;
+		}
+		
+		@Override
+		public float getProgress() {
+			return end == start ? 1.0f : (float) (pos - start) / (end - start);
+		}
+		
+		@Override
+		public void close() throws IOException {
+			if (in != null) {
+				in.close();
+			}
+		}
+	}
+}
@@ -0,0 +1,48 @@
+package trianglecount;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.mapreduce.RecordWriter;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+import org.apache.hadoop.mapreduce.lib.output.FileOutputFormat;
+
+/**
+ * BinaryEdgeOutputFormat - Write edges as fixed-width binary records
+ * 
+ * Format: 8 bytes per edge, u then v as big-endian ints, no header and no
+ *         per-record framing (read back with BinaryEdgeInputFormat).
+ *         Values are ignored.
+ */
+public class BinaryEdgeOutputFormat<V> extends FileOutputFormat<IntPairWritable, V> {
+	
+	@Override
+	public RecordWriter<IntPairWritable, V> getRecordWriter(TaskAttemptContext context) throws IOException {
+		Path file = getDefaultWorkFile(context, "");
+		FileSystem fs = file.getFileSystem(context.getConfiguration());
+		return new EdgeRecordWriter<>(new DataOutputStream(new BufferedOutputStream(fs.create(file, false), 64 * 1024)));
+	}
+	
+	static class EdgeRecordWriter<V> extends RecordWriter<IntPairWritable, V> {
+		
+		private final DataOutputStream out;
+		
+		EdgeRecordWriter(DataOutputStream out) {
+			this.out = out;
+		}
+		
+		@Override
+		public void write(IntPairWritable key, V value) throws IOException {
+			out.writeInt(key.getFirst());
+			out.writeInt(key.getSecond());
+		}
+		
+		@Override
+		public void close(TaskAttemptContext context) throws IOException {
+			out.close();
+		}
+	}
+}
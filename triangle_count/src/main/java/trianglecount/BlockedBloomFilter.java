@@ -0,0 +1,235 @@
+package trianglecount;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+
+/**
+ * BlockedBloomFilter - Cache-line blocked Bloom filter keyed on packed edges
+ *
+ * Purpose: Edge-existence pre-filter for wedge generation without per-probe
+ *          allocation. Replaces org.apache.hadoop.util.bloom.BloomFilter, which
+ *          needs a String, a byte[] and a Key per lookup.
+ *
+ * Layout:
+ * - The edge (min(u,v), max(u,v)) is packed into one long and mixed once (64-bit)
+ * - The high 32 bits of the mix pick one 512-bit block (= one 64-byte cache line)
+ * - All k bit positions are derived inside that block from a second multiply,
+ *   so a probe touches exactly one cache line
+ *
+ * File format (little-endian):
+ * - 64-byte header: magic, version, numHashes, numBlocks, zero padding
+ * - numBlocks * 64 bytes of bits
+ * The header is one cache line, so a memory-mapped filter keeps its blocks
+ * aligned. Readers map the file (off-heap) instead of deserializing it.
+ */
+public class BlockedBloomFilter {
+
+	static final int MAGIC = 0x46424254;  // "TBBF"
+	static final int VERSION = 1;
+	static final int HEADER_BYTES = 64;
+	static final int BLOCK_BYTES = 64;    // 512 bits per block
+
+	private final ByteBuffer bits;        // numBlocks * BLOCK_BYTES, little-endian
+	private final int numBlocks;
+	private final int numHashes;
+
+	/**
+	 * Empty filter backed by a direct (off-heap) buffer
+	 * @param numBits requested size, rounded up to whole 512-bit blocks
+	 */
+	public BlockedBloomFilter(long numBits, int numHashes) {
+		long blocks = Math.max(1, (numBits + 511) / 512);
+		if (blocks * BLOCK_BYTES > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Bloom filter too large: " + numBits + " bits");
+		}
+		this.numBlocks = (int) blocks;
+		this.numHashes = numHashes;
+		this.bits = ByteBuffer.allocateDirect(numBlocks * BLOCK_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	private BlockedBloomFilter(ByteBuffer bits, int numBlocks, int numHashes) {
+		this.bits = bits;
+		this.numBlocks = numBlocks;
+		this.numHashes = numHashes;
+	}
+
+	public int getNumHashes() {
+		return numHashes;
+	}
+
+	public long getNumBits() {
+		return (long) numBlocks * 512;
+	}
+
+	/**
+	 * Packed key of the undirected edge (u, v), smaller node first
+	 */
+	public static long edgeKey(int u, int v) {
+		return u < v ? ((long) u << 32) | (v & 0xFFFFFFFFL) : ((long) v << 32) | (u & 0xFFFFFFFFL);
+	}
+
+	public void add(int u, int v) {
+		add(edgeKey(u, v));
+	}
+
+	public boolean mightContain(int u, int v) {
+		return mightContain(edgeKey(u, v));
+	}
+
+	public void add(long key) {
+		long h = mix(key);
+		int base = blockOffset(h);
+		long h2 = h * 0x9E3779B97F4A7C15L;
+		int a = (int) h2;
+		int b = (int) (h2 >>> 32) | 1;
+		for (int i = 0; i < numHashes; i++) {
+			int bit = (a + i * b) >>> 23;  // 0..511
+			int index = base + ((bit >>> 6) << 3);
+			bits.putLong(index, bits.getLong(index) | (1L << bit));
+		}
+	}
+
+	public boolean mightContain(long key) {
+		long h = mix(key);
+		int base = blockOffset(h);
+		long h2 = h * 0x9E3779B97F4A7C15L;
+		int a = (int) h2;
+		int b = (int) (h2 >>> 32) | 1;
+		for (int i = 0; i < numHashes; i++) {
+			int bit = (a + i * b) >>> 23;
+			if ((bits.getLong(base + ((bit >>> 6) << 3)) & (1L << bit)) == 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Bitwise OR another filter of the same shape into this one
+	 */
+	public void or(BlockedBloomFilter other) {
+		if (other.numBlocks != numBlocks || other.numHashes != numHashes) {
+			throw new IllegalArgumentException("Bloom filters have different shapes");
+		}
+		orBytes(0, other.bits, 0, numBlocks * BLOCK_BYTES);
+	}
+
+	/**
+	 * OR length bytes of src (starting at srcOffset) into this filter's bits at offset
+	 */
+	void orBytes(int offset, ByteBuffer src, int srcOffset, int length) {
+		ByteBuffer in = src.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+		int i = 0;
+		for (; i + 8 <= length; i += 8) {
+			bits.putLong(offset + i, bits.getLong(offset + i) | in.getLong(srcOffset + i));
+		}
+		for (; i < length; i++) {
+			bits.put(offset + i, (byte) (bits.get(offset + i) | in.get(srcOffset + i)));
+		}
+	}
+
+	/**
+	 * Size of the bit array in bytes
+	 */
+	int numBytes() {
+		return numBlocks * BLOCK_BYTES;
+	}
+
+	/**
+	 * Copy length bytes of the bit array, starting at offset, into dst
+	 */
+	void getBytes(int offset, byte[] dst, int length) {
+		ByteBuffer src = bits.duplicate();
+		src.position(offset);
+		src.get(dst, 0, length);
+	}
+
+	/**
+	 * True if no bit is set in [offset, offset + length)
+	 */
+	boolean isClear(int offset, int length) {
+		int i = 0;
+		for (; i + 8 <= length; i += 8) {
+			if (bits.getLong(offset + i) != 0) return false;
+		}
+		for (; i < length; i++) {
+			if (bits.get(offset + i) != 0) return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Write header and bits in the file format described above
+	 */
+	public void write(OutputStream out) throws IOException {
+		WritableByteChannel channel = Channels.newChannel(out);
+		channel.write(header(numBlocks, numHashes));
+		ByteBuffer data = bits.duplicate();
+		data.clear();
+		while (data.hasRemaining()) {
+			channel.write(data);
+		}
+	}
+
+	static ByteBuffer header(int numBlocks, int numHashes) {
+		ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+		header.putInt(MAGIC).putInt(VERSION).putInt(numHashes).putInt(numBlocks);
+		header.clear();
+		return header;
+	}
+
+	/**
+	 * Memory-map a filter file from the local disk (read-only, off-heap)
+	 */
+	public static BlockedBloomFilter map(File file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())
+					.order(ByteOrder.LITTLE_ENDIAN);
+			if (mapped.limit() < HEADER_BYTES || mapped.getInt(0) != MAGIC) {
+				throw new IOException("Not a blocked Bloom filter file: " + file);
+			}
+			int numHashes = mapped.getInt(8);
+			int numBlocks = mapped.getInt(12);
+			if (mapped.limit() != HEADER_BYTES + (long) numBlocks * BLOCK_BYTES) {
+				throw new IOException("Truncated Bloom filter file: " + file);
+			}
+			mapped.position(HEADER_BYTES);
+			ByteBuffer data = mapped.slice().order(ByteOrder.LITTLE_ENDIAN);
+			return new BlockedBloomFilter(data, numBlocks, numHashes);
+		}
+	}
+
+	/**
+	 * Load a filter for a task (see CacheFiles.localFile) and memory-map it
+	 */
+	public static BlockedBloomFilter load(Configuration conf, Path path) throws IOException {
+		return map(CacheFiles.localFile(conf, path));
+	}
+
+	private int blockOffset(long h) {
+		// multiply-shift range reduction of the high 32 bits onto [0, numBlocks)
+		return (int) (((h >>> 32) * numBlocks) >>> 32) * BLOCK_BYTES;
+	}
+
+	/**
+	 * 64-bit finalizer (MurmurHash3 fmix64)
+	 */
+	static long mix(long key) {
+		key ^= key >>> 33;
+		key *= 0xff51afd7ed558ccdL;
+		key ^= key >>> 33;
+		key *= 0xc4ceb9fe1a85ec53L;
+		key ^= key >>> 33;
+		return key;
+	}
+}
@@ -1,27 +1,27 @@
 package trianglecount;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
 
-import org.apache.hadoop.conf.Configured;
+import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.BytesWritable;
 import org.apache.hadoop.io.IntWritable;
 import org.apache.hadoop.io.LongWritable;
-import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.io.SequenceFile;
 import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.InputFormat;
 import org.apache.hadoop.mapreduce.Job;
 import org.apache.hadoop.mapreduce.Mapper;
 import org.apache.hadoop.mapreduce.Reducer;
 import org.apache.hadoop.mapreduce.lib.input.FileInputFormat;
 import org.apache.hadoop.mapreduce.lib.input.TextInputFormat;
 import org.apache.hadoop.mapreduce.lib.output.FileOutputFormat;
-import org.apache.hadoop.mapreduce.lib.output.NullOutputFormat;
-import org.apache.hadoop.util.Tool;
-import org.apache.hadoop.util.ToolRunner;
-import org.apache.hadoop.util.bloom.BloomFilter;
-import org.apache.hadoop.util.bloom.Key;
-import org.apache.hadoop.util.hash.Hash;
+import org.apache.hadoop.mapreduce.lib.output.SequenceFileOutputFormat;
 
 /**
  * BloomFilterBuilder - Build Bloom Filter from all edges
@@ -30,108 +30,282 @@ import org.apache.hadoop.util.hash.Hash;
  *          This filter will be used to quickly check edge existence
  *          during wedge generation phase.
  * 
- * Output: Bloom Filter file saved to HDFS (distributed cache)
+ * Algorithm (parallel, only bit vectors cross the network):
+ * - Sizing: bits = -n * ln(p) / (ln(2)^2), hashes = bits / n * ln(2)
+ *   n = bloom.filter.expected.edges, or estimated from input size
+ *       (binary edge store: its raw record count, size / 8; duplicates are
+ *       only removed in Step 1, so this is an upper bound on distinct edges)
+ *   p = bloom.filter.fpr (default 1%)
+ * - Map: each mapper adds its edges to a partial filter and emits it
+ *        as fixed-size chunks (chunk index, bytes), skipping empty chunks
+ * - Combine/Reduce: bitwise OR of all partial chunks with the same index,
+ *        chunks spread over all reducers
+ * - Driver: concatenate the merged chunks into one BlockedBloomFilter file
+ * 
+ * Memory: every map task holds a full-size partial filter in direct memory,
+ * bits / 8 bytes (about 1.2 bytes per edge at 1%, e.g. 120 MB for 100M edges),
+ * and so does the driver while assembling. The map container and its
+ * -XX:MaxDirectMemorySize must leave room for it; a higher bloom.filter.fpr
+ * shrinks it. The driver prints the size before the job starts.
+ * 
+ * Output: BlockedBloomFilter file saved to HDFS (distributed cache)
  */
 public class BloomFilterBuilder {
 	
-	// Bloom Filter parameters
-	// For 28M edges with 1% false positive rate:
-	// vectorSize = -n * ln(p) / (ln(2)^2) ≈ 10 * n
-	public static final int VECTOR_SIZE = 300000000;  // 300M bits = 37.5 MB
-	public static final int NB_HASH = 7;  // optimal for 1% FP rate
+	// Bloom Filter parameters, sized per run from n edges and rate p (optimalNumBits):
+	// bits = -n * ln(p) / (ln(2)^2) ≈ 9.6 * n at p = 1%
+	public static final double DEFAULT_FPR = 0.01;
+	public static final int CHUNK_BYTES = 1 << 20;  // 8M bits per shuffled chunk
+	
+	public static final String EXPECTED_EDGES_KEY = "bloom.filter.expected.edges";
+	public static final String FPR_KEY = "bloom.filter.fpr";
+	public static final String FILTER_PATH_KEY = "bloom.filter.path";
+	static final String NUM_BITS_KEY = "bloom.filter.num.bits";
+	static final String NUM_HASHES_KEY = "bloom.filter.num.hashes";
 	
 	/**
-	 * Mapper: Emit each edge as (u, v) where u < v
+	 * Mapper: Add each edge (u, v), u < v, to a task-local partial filter
 	 */
-	public static class EdgeMapper extends Mapper<LongWritable, Text, Text, NullWritable> {
+	public static class EdgeMapper extends Mapper<LongWritable, Text, IntWritable, BytesWritable> {
 		
-		private Text edgeKey = new Text();
+		private BlockedBloomFilter partial;
+		private EdgeLineParser parser = new EdgeLineParser();
+		
+		@Override
+		protected void setup(Context context) throws IOException, InterruptedException {
+			partial = newFilter(context.getConfiguration());
+		}
 		
 		@Override
 		protected void map(LongWritable key, Text value, Context context) 
 				throws IOException, InterruptedException {
 			
-			String[] nodes = value.toString().trim().split("\\s+");
-			if (nodes.length < 2) return;
+			if (!parser.parse(value, context)) return;  // blank, comment or malformed line
 			
-			try {
-				int u = Integer.parseInt(nodes[0]);
-				int v = Integer.parseInt(nodes[1]);
-				
-				// Normalize: smaller node first
-				if (u > v) {
-					int temp = u;
-					u = v;
-					v = temp;
-				}
-				
-				edgeKey.set(u + "," + v);
-				context.write(edgeKey, NullWritable.get());
-			} catch (NumberFormatException e) {
-				// Skip invalid lines
-			}
+			// Normalize: smaller node first
+			partial.add(BlockedBloomFilter.edgeKey(parser.getFirst(), parser.getSecond()));
+		}
+		
+		@Override
+		protected void cleanup(Context context) throws IOException, InterruptedException {
+			emitChunks(partial, context);
 		}
 	}
 	
 	/**
-	 * Reducer: Collect all edges and build Bloom Filter
+	 * Mapper: Same as EdgeMapper over the binary edge store (EdgeIngest), already oriented
 	 */
-	public static class BloomFilterReducer extends Reducer<Text, NullWritable, NullWritable, NullWritable> {
+	public static class EdgeStoreMapper extends Mapper<IntPairWritable, Text, IntWritable, BytesWritable> {
 		
-		private BloomFilter bloomFilter;
-		private String outputPath;
+		private BlockedBloomFilter partial;
 		
 		@Override
 		protected void setup(Context context) throws IOException, InterruptedException {
-			bloomFilter = new BloomFilter(VECTOR_SIZE, NB_HASH, Hash.MURMUR_HASH);
-			outputPath = context.getConfiguration().get("bloom.filter.output.path");
+			partial = newFilter(context.getConfiguration());
 		}
 		
 		@Override
-		protected void reduce(Text key, Iterable<NullWritable> values, Context context) 
+		protected void map(IntPairWritable key, Text value, Context context)
 				throws IOException, InterruptedException {
-			// Add edge to Bloom Filter
-			bloomFilter.add(new Key(key.toString().getBytes()));
+			partial.add(BlockedBloomFilter.edgeKey(key.getFirst(), key.getSecond()));
 		}
 		
 		@Override
 		protected void cleanup(Context context) throws IOException, InterruptedException {
-			// Save Bloom Filter to HDFS
-			FileSystem fs = FileSystem.get(context.getConfiguration());
-			Path path = new Path(outputPath);
+			emitChunks(partial, context);
+		}
+	}
+	
+	/**
+	 * Emit the non-empty chunks of a partial filter as (chunk index, bytes)
+	 */
+	static void emitChunks(BlockedBloomFilter partial,
+			Mapper<?, ?, IntWritable, BytesWritable>.Context context) throws IOException, InterruptedException {
+		IntWritable chunkIndex = new IntWritable();
+		BytesWritable chunk = new BytesWritable();
+		int numBytes = partial.numBytes();
+		
+		for (int offset = 0, i = 0; offset < numBytes; offset += CHUNK_BYTES, i++) {
+			int length = Math.min(CHUNK_BYTES, numBytes - offset);
+			if (partial.isClear(offset, length)) continue;
 			
-			try (FSDataOutputStream out = fs.create(path, true)) {
-				bloomFilter.write(out);
+			chunk.setSize(length);
+			partial.getBytes(offset, chunk.getBytes(), length);
+			chunkIndex.set(i);
+			context.write(chunkIndex, chunk);
+		}
+	}
+	
+	/**
+	 * Combiner/Reducer: Bitwise OR of all partial chunks with the same index
+	 */
+	public static class BitwiseOrReducer extends Reducer<IntWritable, BytesWritable, IntWritable, BytesWritable> {
+		
+		private BytesWritable merged = new BytesWritable();
+		
+		@Override
+		protected void reduce(IntWritable key, Iterable<BytesWritable> values, Context context)
+				throws IOException, InterruptedException {
+			boolean first = true;
+			for (BytesWritable chunk : values) {
+				int length = chunk.getLength();
+				byte[] src = chunk.getBytes();
+				if (first) {
+					merged.set(src, 0, length);
+					first = false;
+				} else {
+					byte[] dst = merged.getBytes();
+					for (int i = 0; i < length; i++) {
+						dst[i] |= src[i];
+					}
+				}
+			}
+			context.write(key, merged);
+		}
+	}
+	
+	static BlockedBloomFilter newFilter(Configuration conf) {
+		return new BlockedBloomFilter(conf.getLong(NUM_BITS_KEY, 0), conf.getInt(NUM_HASHES_KEY, 1));
+	}
+	
+	/**
+	 * Optimal number of bits for n keys at false positive rate p
+	 */
+	static long optimalNumBits(long n, double p) {
+		return (long) Math.ceil(-Math.max(n, 1) * Math.log(p) / (Math.log(2) * Math.log(2)));
+	}
+	
+	/**
+	 * Optimal number of hash functions for the given bits per key
+	 */
+	static int optimalNumHashes(long n, long numBits) {
+		int k = (int) Math.round((double) numBits / Math.max(n, 1) * Math.log(2));
+		return Math.max(1, Math.min(k, 16));
+	}
+	
+	/**
+	 * Estimate the number of edge lines: total input bytes / average line length
+	 * measured on the first megabyte of the first input file
+	 */
+	static long estimateEdgeCount(Configuration conf, String inputPath) throws IOException {
+		Path path = new Path(inputPath);
+		FileSystem fs = path.getFileSystem(conf);
+		FileStatus[] files = CsrGraph.listInputFiles(fs, path);
+		
+		long totalBytes = 0;
+		for (FileStatus file : files) {
+			totalBytes += file.getLen();
+		}
+		if (files.length == 0 || totalBytes == 0) return 0;
+		
+		long sampledBytes = 0;
+		long lines = 0;
+		byte[] buffer = new byte[64 * 1024];
+		try (InputStream in = fs.open(files[0].getPath())) {
+			int n;
+			while (sampledBytes < CHUNK_BYTES && (n = in.read(buffer)) > 0) {
+				for (int i = 0; i < n; i++) {
+					if (buffer[i] == '\n') lines++;
+				}
+				sampledBytes += n;
 			}
 		}
+		if (lines == 0) return 1;
+		return (long) Math.ceil((double) totalBytes * lines / sampledBytes);
 	}
 	
 	/**
-	 * Build Bloom Filter from input edges
+	 * Build Bloom Filter from input edges (text edge list)
 	 */
-	public static void buildBloomFilter(org.apache.hadoop.conf.Configuration conf, 
+	public static void buildBloomFilter(Configuration conf,
 			String inputPath, String bloomFilterPath) throws Exception {
 		
+		long expectedEdges = conf.getLong(EXPECTED_EDGES_KEY, -1);
+		if (expectedEdges < 0) {
+			expectedEdges = estimateEdgeCount(conf, inputPath);
+		}
+		build(conf, inputPath, bloomFilterPath, expectedEdges, EdgeMapper.class, TextInputFormat.class);
+	}
+	
+	/**
+	 * Build Bloom Filter from the binary edge store, sized for its raw record count
+	 * (size / 8, duplicate edges included: the filter is at most slightly oversized)
+	 */
+	public static void buildBloomFilterFromEdgeStore(Configuration conf,
+			String edgesPath, String bloomFilterPath) throws Exception {
+		
+		long expectedEdges = conf.getLong(EXPECTED_EDGES_KEY, -1);
+		if (expectedEdges < 0) {
+			Path path = new Path(edgesPath);
+			expectedEdges = path.getFileSystem(conf).getContentSummary(path).getLength()
+					/ BinaryEdgeInputFormat.RECORD_BYTES;  // raw records, before dedup
+		}
+		build(conf, edgesPath, bloomFilterPath, expectedEdges, EdgeStoreMapper.class, BinaryEdgeInputFormat.class);
+	}
+	
+	private static void build(Configuration conf, String inputPath, String bloomFilterPath, long expectedEdges,
+			Class<? extends Mapper<?, ?, IntWritable, BytesWritable>> mapperClass,
+			Class<? extends InputFormat<?, ?>> inputFormatClass) throws Exception {
+		double fpr = conf.getDouble(FPR_KEY, DEFAULT_FPR);
+		long numBits = optimalNumBits(expectedEdges, fpr);
+		int numHashes = optimalNumHashes(expectedEdges, numBits);
+		System.out.println("Bloom filter: " + expectedEdges + " edges, fpr " + fpr
+				+ " -> " + numBits + " bits, " + numHashes + " hashes, "
+				+ (numBits / 8 >> 10) + " KB per map task");
+		
+		String partsPath = bloomFilterPath + ".parts";
+		
 		Job job = Job.getInstance(conf);
 		job.setJobName("BloomFilter-Step0-BuildFilter");
 		job.setJarByClass(BloomFilterBuilder.class);
 		
-		job.setMapperClass(EdgeMapper.class);
-		job.setReducerClass(BloomFilterReducer.class);
-		job.setNumReduceTasks(1);  // Single reducer to build one filter
+		job.getConfiguration().setLong(NUM_BITS_KEY, numBits);
+		job.getConfiguration().setInt(NUM_HASHES_KEY, numHashes);
 		
-		job.setMapOutputKeyClass(Text.class);
-		job.setMapOutputValueClass(NullWritable.class);
-		job.setOutputKeyClass(NullWritable.class);
-		job.setOutputValueClass(NullWritable.class);
+		job.setMapperClass(mapperClass);
+		job.setCombinerClass(BitwiseOrReducer.class);
+		job.setReducerClass(BitwiseOrReducer.class);
 		
-		job.getConfiguration().set("bloom.filter.output.path", bloomFilterPath);
+		job.setMapOutputKeyClass(IntWritable.class);
+		job.setMapOutputValueClass(BytesWritable.class);
+		job.setOutputKeyClass(IntWritable.class);
+		job.setOutputValueClass(BytesWritable.class);
 		
-		job.setInputFormatClass(TextInputFormat.class);
-		job.setOutputFormatClass(NullOutputFormat.class);
+		job.setInputFormatClass(inputFormatClass);
+		job.setOutputFormatClass(SequenceFileOutputFormat.class);
 		
 		FileInputFormat.addInputPath(job, new Path(inputPath));
+		FileOutputFormat.setOutputPath(job, new Path(partsPath));
+		
+		try {
+			JobMetrics.waitForCompletion(job);  // throws if the job failed, no filter is written
+			assembleFilter(job.getConfiguration(), partsPath, bloomFilterPath);
+		} finally {
+			new Path(partsPath).getFileSystem(conf).delete(new Path(partsPath), true);
+		}
+	}
+	
+	/**
+	 * Concatenate merged chunks (any number of reducer outputs) into the final filter file
+	 */
+	static void assembleFilter(Configuration conf, String partsPath, String bloomFilterPath) throws IOException {
+		BlockedBloomFilter filter = newFilter(conf);
 		
-		job.waitForCompletion(true);
+		Path parts = new Path(partsPath);
+		FileSystem fs = parts.getFileSystem(conf);
+		IntWritable chunkIndex = new IntWritable();
+		BytesWritable chunk = new BytesWritable();
+		
+		for (FileStatus part : CsrGraph.listInputFiles(fs, parts)) {
+			try (SequenceFile.Reader reader = new SequenceFile.Reader(conf, SequenceFile.Reader.file(part.getPath()))) {
+				while (reader.next(chunkIndex, chunk)) {
+					filter.orBytes(chunkIndex.get() * CHUNK_BYTES, ByteBuffer.wrap(chunk.getBytes()), 0, chunk.getLength());
+				}
+			}
+		}
+		
+		try (FSDataOutputStream out = fs.create(new Path(bloomFilterPath), true)) {
+			filter.write(out);
+		}
 	}
 }
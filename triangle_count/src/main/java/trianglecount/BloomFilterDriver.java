@@ -12,7 +12,6 @@ import org.apache.hadoop.mapreduce.Job;
 import org.apache.hadoop.mapreduce.lib.input.FileInputFormat;
 import org.apache.hadoop.mapreduce.lib.input.MultipleInputs;
 import org.apache.hadoop.mapreduce.lib.input.SequenceFileInputFormat;
-import org.apache.hadoop.mapreduce.lib.input.TextInputFormat;
 import org.apache.hadoop.mapreduce.lib.output.FileOutputFormat;
 import org.apache.hadoop.mapreduce.lib.output.SequenceFileOutputFormat;
 import org.apache.hadoop.mapreduce.lib.output.TextOutputFormat;
@@ -23,6 +22,7 @@ import org.apache.hadoop.util.ToolRunner;
  * BloomFilterDriver - Triangle Count with Bloom Filter Optimization
  * 
  * Algorithm: 6 steps (DegreeOpt + Bloom Filter pre-filtering)
+ * - Ingest: Parse the text edges once into the binary edge store (same as DegreeOpt)
  * - Step 0: Build Bloom Filter from all edges (NEW!)
  * - Step 1: Normalize edges (same as DegreeOpt)
  * - Step 2: Calculate degrees (same as DegreeOpt)
@@ -35,9 +35,26 @@ import org.apache.hadoop.util.ToolRunner;
  * - If Bloom Filter says NO → skip wedge (no triangle possible)
  * - Reduces wedge count significantly → less I/O, faster processing
  * 
+ * Count-only mode: -D triangle.output.mode=count (see TriangleOutputMode)
+ * Streaming join:  -D triangle.join.mode=secondary (see TriangleJoinMode)
+ * Map-side join:   -D triangle.join.mode=mapside (see TriangleJoinMode)
+ *                  Step 4 probes the Bloom filter, then the exact edge set; no Step 5
+ * Hub splitting:   -D wedge.skew.threshold=T (see WedgeSkew)
+ *                  Step 4 splits centers with out-degree > T over several reducers
+ * Range partitions: -D partition.mode=range (see PartitionMode), Step 3/5 keys sampled
+ * Neighbor blocks:  -D adjacency.shuffle=true (see AdjacencyShuffle), Steps 2 and 4
+ * Degree step:      streaming by default; -D degree.annotation=buffered for DegreeReducer
+ * Map-side reorient: -D reorient.mode=mapside (see ReorientMode)
+ *                  Steps 2-3 become one DegreeTable count; Step 4 orients edges itself
+ * Relabeled input:  <input> = VertexRelabeler output (see VertexRelabeler.isRelabeled)
+ *                  Its edges are normalized and oriented already: no Ingest and Steps 1-3
+ * Run report:       <input>.metrics.json (see PipelineReport), per-step times and counters
+ * 
  * Usage: hadoop jar triangle_count.jar trianglecount.BloomFilterDriver <input>
  */
 public class BloomFilterDriver extends Configured implements Tool {
+	
+	private boolean relabeled;
 	 
 	public static void main(String[] args) throws Exception {
 		ToolRunner.run(new BloomFilterDriver(), args);
@@ -46,35 +63,94 @@ public class BloomFilterDriver extends Configured implements Tool {
 	public int run(String[] args) throws Exception {
 		
 		String inputPath = args[0]; 
+		PipelineReport report = PipelineReport.begin(getConf(), "BloomFilter", inputPath);
+		String edgesPath = inputPath + ".edges";
 		String bloomFilterPath = inputPath + ".bloomfilter";
 		String normalizedPath = inputPath + ".normalized";
 		String degreePath = inputPath + ".degree";
 		String reorientedPath = inputPath + ".reoriented";
 		String wedgePath = inputPath + ".wedges_bloom";
 		String outputPath = inputPath + ".out_bloom";
+		String edgeSetPath = inputPath + ".edgeset";
+		String heavyPath = null;
+		String degreeTablePath = null;
+		String orientedPath = reorientedPath;
+		boolean mapSideJoin = TriangleJoinMode.isMapSide(getConf());
+		
+		relabeled = VertexRelabeler.isRelabeled(getConf(), inputPath);
+		if (relabeled) {
+			// VertexRelabeler output: normalized, and ID order is degree order
+			edgesPath = VertexRelabeler.edgesPath(inputPath);
+			orientedPath = edgesPath;
+		}
+		else {
+			// Ingest: the only pass over the text input
+			System.out.println("=== Ingest: Converting Edges to Binary ===");
+			EdgeIngest.ingest(getConf(), inputPath, edgesPath);
+		}
 		
 		// Step 0: Build Bloom Filter (NEW!)
 		System.out.println("=== Step 0: Building Bloom Filter ===");
-		BloomFilterBuilder.buildBloomFilter(getConf(), inputPath, bloomFilterPath);
+		BloomFilterBuilder.buildBloomFilterFromEdgeStore(getConf(), edgesPath, bloomFilterPath);
 		
 		// Step 1-3: Same as DegreeOpt
-		System.out.println("=== Step 1: Normalize Edges ===");
-		runStep1_Normalize(inputPath, normalizedPath);
-		
-		System.out.println("=== Step 2: Calculate Degrees ===");
-		runStep2_CalculateDegree(normalizedPath, degreePath);
-		
-		System.out.println("=== Step 3: Reorient Edges ===");
-		runStep3_ReorientEdges(degreePath, reorientedPath);
-		
-		// Step 4: Generate wedges WITH Bloom Filter (KEY DIFFERENCE!)
-		System.out.println("=== Step 4: Generate Wedges with Bloom Filter ===");
-		runStep4_GenerateWedgesWithBloom(reorientedPath, wedgePath, bloomFilterPath);
-		
-		// Step 5: Find triangles (same as DegreeOpt)
-		System.out.println("=== Step 5: Find Triangles ===");
-		runStep5_FindTriangles(inputPath, wedgePath, outputPath);
-		
+		if (relabeled) {
+			System.out.println("=== Step 1-3: Skipped (relabeled input) ===");
+		}
+		else {
+			System.out.println("=== Step 1: Normalize Edges ===");
+			runStep1_Normalize(edgesPath, normalizedPath);
+			
+			if (ReorientMode.isMapSide(getConf())) {
+				// Step 2-3: one counting job; Step 4 orients edges by table lookup
+				System.out.println("=== Step 2: Build Degree Table ===");
+				degreeTablePath = inputPath + ".degreetable";
+				DegreeTable.build(getConf(), normalizedPath, degreeTablePath);
+				orientedPath = normalizedPath;
+			}
+			else {
+				System.out.println("=== Step 2: Calculate Degrees ===");
+				runStep2_CalculateDegree(normalizedPath, degreePath);
+				
+				System.out.println("=== Step 3: Reorient Edges ===");
+				runStep3_ReorientEdges(degreePath, reorientedPath);
+			}
+		}
+		
+		if (WedgeSkew.isEnabled(getConf())) {
+			System.out.println("=== Step 3b: Find Heavy Centers ===");
+			heavyPath = inputPath + ".heavy";
+			if (relabeled) {
+				WedgeSkew.findHeavyCenters(getConf(), orientedPath, BinaryEdgeInputFormat.class, heavyPath);
+			}
+			else {
+				WedgeSkew.findHeavyCenters(getConf(), reorientedPath, heavyPath);
+			}
+		}
+		
+		if (mapSideJoin) {
+			// Step 4: Wedges closed against Bloom Filter + exact edge set, no Step 5
+			System.out.println("=== Step 4: Generate Wedges + Map-side Join ===");
+			if (relabeled) {
+				TriangleJoinMode.writeEdgeSetFromEdgeStore(getConf(), edgesPath, edgeSetPath);
+			}
+			else {
+				TriangleJoinMode.writeEdgeSet(getConf(), normalizedPath, edgeSetPath);
+			}
+			runStep4_GenerateWedgesWithBloom(orientedPath, outputPath, bloomFilterPath, edgeSetPath, heavyPath,
+					degreeTablePath);
+		}
+		else {
+			// Step 4: Generate wedges WITH Bloom Filter (KEY DIFFERENCE!)
+			System.out.println("=== Step 4: Generate Wedges with Bloom Filter ===");
+			runStep4_GenerateWedgesWithBloom(orientedPath, wedgePath, bloomFilterPath, null, heavyPath, degreeTablePath);
+			
+			// Step 5: Find triangles (same as DegreeOpt)
+			System.out.println("=== Step 5: Find Triangles ===");
+			runStep5_FindTriangles(edgesPath, wedgePath, outputPath);
+		}
+		
+		report.write();
 		return 0;
 	}
 	
@@ -86,7 +162,7 @@ public class BloomFilterDriver extends Configured implements Tool {
 		job.setJobName("Bloom-Step1-Normalize");
 		job.setJarByClass(BloomFilterDriver.class);
 		
-		job.setMapperClass(NormalizeMapper.class);
+		job.setMapperClass(NormalizeSeqMapper.class);
 		job.setReducerClass(NormalizeReducer.class);
 		
 		job.setMapOutputKeyClass(IntPairWritable.class);
@@ -95,13 +171,13 @@ public class BloomFilterDriver extends Configured implements Tool {
 		job.setOutputKeyClass(IntPairWritable.class);
 		job.setOutputValueClass(Text.class);
 		
-		job.setInputFormatClass(TextInputFormat.class);
+		job.setInputFormatClass(BinaryEdgeInputFormat.class);
 		job.setOutputFormatClass(SequenceFileOutputFormat.class);
 		
 		FileInputFormat.addInputPath(job, new Path(inputPath));
 		FileOutputFormat.setOutputPath(job, new Path(outputPath));
 		
-		job.waitForCompletion(true);
+		JobMetrics.waitForCompletion(job);
 	}
 	
 	/**
@@ -123,10 +199,17 @@ public class BloomFilterDriver extends Configured implements Tool {
 		job.setInputFormatClass(SequenceFileInputFormat.class);
 		job.setOutputFormatClass(SequenceFileOutputFormat.class);
 		
+		if (AdjacencyShuffle.isEnabled(getConf())) {
+			AdjacencyShuffle.configureDegreeStep(job);
+		}
+		else if (DegreeAnnotation.isStreaming(getConf())) {
+			DegreeAnnotation.configureStreaming(job);
+		}
+		
 		FileInputFormat.addInputPath(job, new Path(inputPath));
 		FileOutputFormat.setOutputPath(job, new Path(outputPath));
 		
-		job.waitForCompletion(true);
+		JobMetrics.waitForCompletion(job);
 	}
 	
 	/**
@@ -143,6 +226,7 @@ public class BloomFilterDriver extends Configured implements Tool {
 		job.setMapOutputKeyClass(IntPairWritable.class);
 		job.setMapOutputValueClass(IntPairWritable.class);
 		job.setPartitionerClass(IntPairIntPairPartitioner.class);
+		PartitionMode.configureRange(job, inputPath, outputPath + ".splits");
 		job.setOutputKeyClass(IntPairWritable.class);
 		job.setOutputValueClass(Text.class);
 		
@@ -152,7 +236,7 @@ public class BloomFilterDriver extends Configured implements Tool {
 		FileInputFormat.addInputPath(job, new Path(inputPath));
 		FileOutputFormat.setOutputPath(job, new Path(outputPath));
 		
-		job.waitForCompletion(true);
+		JobMetrics.waitForCompletion(job);
 	}
 	
 	/**
@@ -162,9 +246,16 @@ public class BloomFilterDriver extends Configured implements Tool {
 	 * - Uses WedgeBloomReducer instead of WedgeReducer
 	 * - Bloom Filter is loaded via Distributed Cache
 	 * - Wedges are only emitted if closing edge might exist
+	 * 
+	 * With an edge set (map-side join): WedgeJoinReducer checks the Bloom Filter
+	 * first, then the exact edge set, and writes triangles directly
+	 * 
+	 * With heavy centers: SaltedWedgeMapper -> SaltedWedgeReducer, same checks
+	 * 
+	 * With relabeled input: the binary edge store, already oriented
 	 */
 	private void runStep4_GenerateWedgesWithBloom(String inputPath, String outputPath, 
-			String bloomFilterPath) throws Exception {
+			String bloomFilterPath, String edgeSetPath, String heavyPath, String degreeTablePath) throws Exception {
 		Job job = Job.getInstance(getConf());
 		job.setJobName("Bloom-Step4-GenerateWedgesWithBloom");
 		job.setJarByClass(BloomFilterDriver.class);
@@ -182,19 +273,40 @@ public class BloomFilterDriver extends Configured implements Tool {
 		job.setOutputKeyClass(IntPairWritable.class);
 		job.setOutputValueClass(IntWritable.class);
 		
-		job.setInputFormatClass(SequenceFileInputFormat.class);
+		job.setInputFormatClass(relabeled ? BinaryEdgeInputFormat.class : SequenceFileInputFormat.class);
 		job.setOutputFormatClass(SequenceFileOutputFormat.class);
 		
+		job.getConfiguration().set(BloomFilterBuilder.FILTER_PATH_KEY, bloomFilterPath);
+		if (edgeSetPath != null) {
+			TriangleJoinMode.configureMapSide(job, edgeSetPath);
+		}
+		if (heavyPath != null) {
+			WedgeSkew.configure(job, heavyPath);
+		}
+		else if (AdjacencyShuffle.isEnabled(getConf())) {
+			AdjacencyShuffle.configureWedgeStep(job);
+		}
+		if (degreeTablePath != null) {
+			ReorientMode.configureWedgeStep(job, degreeTablePath);
+		}
+		
 		FileInputFormat.addInputPath(job, new Path(inputPath));
 		FileOutputFormat.setOutputPath(job, new Path(outputPath));
 		
-		job.waitForCompletion(true);
+		JobMetrics.waitForCompletion(job);
+		
+		if (edgeSetPath != null) {
+			TriangleOutputMode.reportTotal(job);
+		}
 	}
 
 	/**
 	 * Step 5: Find triangles (identical to DegreeOpt)
+	 * Secondary-sort join: TaggedEdgeMapper + TaggedWedgeMapper -> StreamingTriangleReducer
 	 */
-	private void runStep5_FindTriangles(String inputPath, String wedgePath, String outputPath) throws Exception {
+	private void runStep5_FindTriangles(String edgesPath, String wedgePath, String outputPath) throws Exception {
+		boolean countOnly = TriangleOutputMode.isCountOnly(getConf());
+		
 		Job job = Job.getInstance(getConf());
 		job.setJobName("Bloom-Step5-FindTriangles");
 		job.setJarByClass(BloomFilterDriver.class);
@@ -205,17 +317,31 @@ public class BloomFilterDriver extends Configured implements Tool {
 		job.setMapOutputKeyClass(IntPairWritable.class);
 		job.setMapOutputValueClass(IntWritable.class);
 		job.setPartitionerClass(IntPairIntPartitioner.class);
+		PartitionMode.configureRange(job, wedgePath, wedgePath + ".splits");
 		
 		job.setOutputKeyClass(LongWritable.class);
 		job.setOutputValueClass(NullWritable.class);
+		if (countOnly) {
+			TriangleOutputMode.configureCountOnly(job);
+		}
 		
 		job.setOutputFormatClass(TextOutputFormat.class);
 		
-		MultipleInputs.addInputPath(job, new Path(inputPath), TextInputFormat.class, EdgeMarkerMapper.class);
-		MultipleInputs.addInputPath(job, new Path(wedgePath), SequenceFileInputFormat.class, WedgeMarkerMapper.class);
+		if (TriangleJoinMode.isSecondarySort(getConf())) {
+			TriangleJoinMode.configureSecondarySort(job, edgesPath, BinaryEdgeInputFormat.class, wedgePath);
+		}
+		else {
+			MultipleInputs.addInputPath(job, new Path(edgesPath), BinaryEdgeInputFormat.class, EdgeMarkerSeqMapper.class);
+			MultipleInputs.addInputPath(job, new Path(wedgePath), SequenceFileInputFormat.class,
+					countOnly ? WedgeTallyMapper.class : WedgeMarkerMapper.class);
+		}
 		
 		FileOutputFormat.setOutputPath(job, new Path(outputPath));
 		
-		job.waitForCompletion(true);
+		JobMetrics.waitForCompletion(job);
+		
+		if (countOnly) {
+			TriangleOutputMode.reportTotal(job);
+		}
 	}
 }
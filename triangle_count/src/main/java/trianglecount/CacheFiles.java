@@ -0,0 +1,70 @@
+package trianglecount;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.LocalFileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.mapreduce.MRJobConfig;
+
+/**
+ * CacheFiles - Local copies of side files for memory-mapping in tasks
+ * 
+ * Purpose: Side files (Bloom filter, edge set, degree table, ...) are shipped
+ *          through the distributed cache and memory-mapped by tasks, which
+ *          needs a file on local disk.
+ */
+public class CacheFiles {
+	
+	/**
+	 * Local file for a shipped path: the distributed cache symlink in the working
+	 * directory if the job ships this path, otherwise directFile().
+	 */
+	public static File localFile(Configuration conf, Path path) throws IOException {
+		if (isShipped(conf, path)) {
+			File symlink = new File(path.getName());
+			if (symlink.isFile()) {
+				return symlink;
+			}
+		}
+		return directFile(conf, path);
+	}
+	
+	/**
+	 * Local file for a path named directly (driver side, command line): the file
+	 * itself if it is on the local file system, and otherwise a one-time copy to
+	 * local temp space. A same-named file in the working directory is never used.
+	 */
+	public static File directFile(Configuration conf, Path path) throws IOException {
+		FileSystem fs = path.getFileSystem(conf);
+		if (fs instanceof LocalFileSystem) {
+			return ((LocalFileSystem) fs).pathToFile(path);
+		}
+		
+		File local = File.createTempFile(path.getName(), ".tmp");
+		local.delete();
+		local.deleteOnExit();
+		fs.copyToLocalFile(false, path, new Path(local.getAbsolutePath()), true);
+		return local;
+	}
+	
+	/**
+	 * True if the job's distributed cache files (Job.addCacheFile) include the path
+	 */
+	static boolean isShipped(Configuration conf, Path path) {
+		String[] cacheFiles = conf.getStrings(MRJobConfig.CACHE_FILES);
+		if (cacheFiles == null) {
+			return false;
+		}
+		String target = path.toUri().getPath();
+		for (String cacheFile : cacheFiles) {
+			if (new Path(URI.create(cacheFile).getPath()).toUri().getPath().equals(target)) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,67 @@
+package trianglecount;
+
+import java.io.IOException;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.mapreduce.TaskInputOutputContext;
+
+/**
+ * ClosingEdgeCheck - Optional closing-edge tests applied while generating wedges
+ * 
+ * Purpose: One place for the side files a wedge reducer may consult:
+ * - bloom.filter.path: BlockedBloomFilter, drops wedges whose closing edge surely does not exist
+ * - edge.set.path:     SortedEdgeSet, keeps only wedges whose closing edge exists (exact)
+ * Either, both or none may be configured.
+ */
+public class ClosingEdgeCheck {
+	
+	private final BlockedBloomFilter bloomFilter;
+	private final SortedEdgeSet edgeSet;
+	private long wedges = 0;
+	private long bloomPruned = 0;
+	
+	private ClosingEdgeCheck(BlockedBloomFilter bloomFilter, SortedEdgeSet edgeSet) {
+		this.bloomFilter = bloomFilter;
+		this.edgeSet = edgeSet;
+	}
+	
+	public static ClosingEdgeCheck load(Configuration conf) throws IOException {
+		String bloomPath = conf.get(BloomFilterBuilder.FILTER_PATH_KEY);
+		BlockedBloomFilter bloomFilter = bloomPath == null ? null : BlockedBloomFilter.load(conf, new Path(bloomPath));
+		SortedEdgeSet edgeSet = conf.get(SortedEdgeSet.PATH_KEY) == null ? null : SortedEdgeSet.load(conf);
+		return new ClosingEdgeCheck(bloomFilter, edgeSet);
+	}
+	
+	/**
+	 * True if accepted wedges are confirmed triangles (an exact edge set is loaded)
+	 */
+	public boolean isExact() {
+		return edgeSet != null;
+	}
+	
+	/**
+	 * @return false if the wedge (u, w) cannot close into a triangle
+	 */
+	public boolean accept(int u, int w) {
+		wedges++;
+		if (bloomFilter != null && !bloomFilter.mightContain(u, w)) {
+			bloomPruned++;
+			return false;
+		}
+		return edgeSet == null || edgeSet.contains(u, w);
+	}
+	
+	/**
+	 * Add the wedges tested so far to PipelineCounter.WEDGES and, with a Bloom
+	 * filter, WEDGES_PRUNED_BY_BLOOM (left absent otherwise)
+	 */
+	public void addCounters(TaskInputOutputContext<?, ?, ?, ?> context) {
+		context.getCounter(PipelineCounter.WEDGES).increment(wedges);
+		if (bloomFilter != null) {
+			context.getCounter(PipelineCounter.WEDGES_PRUNED_BY_BLOOM).increment(bloomPruned);
+		}
+		wedges = 0;
+		bloomPruned = 0;
+	}
+}
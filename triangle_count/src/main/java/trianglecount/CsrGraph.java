@@ -0,0 +1,243 @@
+package trianglecount;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.util.LineReader;
+
+/**
+ * CsrGraph - Degree-oriented graph in compressed sparse row form
+ *
+ * Purpose: Hold the reoriented edge set of a graph in two primitive arrays
+ *          so that triangles can be counted without any MapReduce job.
+ *
+ * Layout:
+ * - offsets[u] .. offsets[u + 1] is the range of u's out-neighbors in targets
+ * - targets holds out-neighbors, sorted by vertex ID within each range
+ * - Vertex IDs index the arrays directly (numVertices = max ID + 1)
+ *
+ * Orientation follows ReorientReducer: low-degree -> high-degree,
+ * vertex ID as tiebreaker (small -> large).
+ */
+public class CsrGraph implements OrientedGraph {
+
+	final int[] offsets;
+	final int[] targets;
+	final int[] degrees;
+
+	CsrGraph(int[] offsets, int[] targets, int[] degrees) {
+		this.offsets = offsets;
+		this.targets = targets;
+		this.degrees = degrees;
+	}
+
+	public int numVertices() {
+		return offsets.length - 1;
+	}
+
+	public long numEdges() {
+		return targets.length;
+	}
+
+	/** Undirected degree of u in the normalized graph */
+	public int degree(int u) {
+		return degrees[u];
+	}
+
+	public int outDegree(int u) {
+		return offsets[u + 1] - offsets[u];
+	}
+
+	/**
+	 * Load an edge list (file or directory of part files) and build the oriented graph
+	 */
+	public static CsrGraph load(FileSystem fs, Path path) throws IOException {
+		long[] edges = readEdges(fs, path);
+		int numEdges = sortUnique(edges, edges.length);
+		return orient(edges, numEdges);
+	}
+
+	/**
+	 * Read edge lines (see EdgeLineParser) and normalize them like NormalizeMapper:
+	 * (min, max) packed into one long, self-loops dropped
+	 */
+	static long[] readEdges(FileSystem fs, Path path) throws IOException {
+		long[] edges = new long[1 << 16];
+		int n = 0;
+
+		EdgeLineParser parser = new EdgeLineParser();
+		Text line = new Text();
+		for (FileStatus status : listInputFiles(fs, path)) {
+			try (LineReader reader = new LineReader(fs.open(status.getPath()))) {
+				while (reader.readLine(line) > 0) {
+					if (!parser.parse(line)) continue;  // Skip blank, comment and invalid lines
+
+					int u = parser.getFirst();
+					int v = parser.getSecond();
+					if (u < 0 || v < 0 || u == v) continue;
+
+					if (n == edges.length) {
+						edges = Arrays.copyOf(edges, n * 2);
+					}
+					edges[n++] = u < v ? pack(u, v) : pack(v, u);
+				}
+			}
+		}
+		return Arrays.copyOf(edges, n);
+	}
+
+	/**
+	 * Files to read for an input path: the file itself, or every visible file in a directory
+	 */
+	static FileStatus[] listInputFiles(FileSystem fs, Path path) throws IOException {
+		FileStatus status = fs.getFileStatus(path);
+		if (!status.isDirectory()) {
+			return new FileStatus[] { status };
+		}
+		return fs.listStatus(path, p -> !p.getName().startsWith("_") && !p.getName().startsWith("."));
+	}
+
+	/**
+	 * Sort packed edges and remove duplicates in place (NormalizeReducer)
+	 * @return number of unique edges at the front of the array
+	 */
+	static int sortUnique(long[] edges, int n) {
+		Arrays.sort(edges, 0, n);
+		int unique = 0;
+		for (int i = 0; i < n; i++) {
+			if (unique == 0 || edges[i] != edges[unique - 1]) {
+				edges[unique++] = edges[i];
+			}
+		}
+		return unique;
+	}
+
+	/**
+	 * Build CSR out-adjacency from unique normalized edges, oriented by degree
+	 */
+	static CsrGraph orient(long[] edges, int numEdges) {
+		int maxId = -1;
+		for (int i = 0; i < numEdges; i++) {
+			maxId = Math.max(maxId, second(edges[i]));  // second > first after normalization
+		}
+		int numVertices = maxId + 1;
+
+		int[] degrees = new int[numVertices];
+		for (int i = 0; i < numEdges; i++) {
+			degrees[first(edges[i])]++;
+			degrees[second(edges[i])]++;
+		}
+
+		// count out-degrees after reorientation, then prefix-sum into offsets
+		int[] offsets = new int[numVertices + 1];
+		for (int i = 0; i < numEdges; i++) {
+			offsets[source(edges[i], degrees) + 1]++;
+		}
+		for (int u = 0; u < numVertices; u++) {
+			offsets[u + 1] += offsets[u];
+		}
+
+		int[] targets = new int[numEdges];
+		int[] next = Arrays.copyOf(offsets, numVertices);
+		for (int i = 0; i < numEdges; i++) {
+			int u = first(edges[i]);
+			int v = second(edges[i]);
+			if (source(edges[i], degrees) == u) {
+				targets[next[u]++] = v;
+			} else {
+				targets[next[v]++] = u;
+			}
+		}
+		for (int u = 0; u < numVertices; u++) {
+			Arrays.sort(targets, offsets[u], offsets[u + 1]);
+		}
+
+		return new CsrGraph(offsets, targets, degrees);
+	}
+
+	/**
+	 * Source vertex of a normalized edge after reorientation (same rule as ReorientReducer)
+	 */
+	static int source(long edge, int[] degrees) {
+		int u = first(edge);
+		int v = second(edge);
+		if (degrees[u] != degrees[v]) {
+			return degrees[u] < degrees[v] ? u : v;
+		}
+		return u;  // same degree: u < v already
+	}
+
+	/**
+	 * Size of the sorted intersection out(u) ∩ out(v)
+	 */
+	public long intersectCount(int u, int v) {
+		int i = offsets[u], iEnd = offsets[u + 1];
+		int j = offsets[v], jEnd = offsets[v + 1];
+		long count = 0;
+		while (i < iEnd && j < jEnd) {
+			int a = targets[i];
+			int b = targets[j];
+			if (a < b) {
+				i++;
+			} else if (a > b) {
+				j++;
+			} else {
+				count++;
+				i++;
+				j++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Visit each triangle exactly once, at its lowest-ranked vertex
+	 */
+	public long forEachTriangle(TriangleVisitor visitor) throws IOException {
+		long triangles = 0;
+		for (int u = 0; u < numVertices(); u++) {
+			int uStart = offsets[u], uEnd = offsets[u + 1];
+			for (int k = uStart; k < uEnd; k++) {
+				int v = targets[k];
+				int i = uStart, j = offsets[v], jEnd = offsets[v + 1];
+				while (i < uEnd && j < jEnd) {
+					int a = targets[i];
+					int b = targets[j];
+					if (a < b) {
+						i++;
+					} else if (a > b) {
+						j++;
+					} else {
+						triangles++;
+						if (visitor != null) {
+							if (v < a) {
+								visitor.visit(u, v, a);
+							} else {
+								visitor.visit(u, a, v);
+							}
+						}
+						i++;
+						j++;
+					}
+				}
+			}
+		}
+		return triangles;
+	}
+
+	static long pack(int u, int v) {
+		return ((long) u << 32) | (v & 0xFFFFFFFFL);
+	}
+
+	static int first(long edge) {
+		return (int) (edge >>> 32);
+	}
+
+	static int second(long edge) {
+		return (int) edge;
+	}
+}
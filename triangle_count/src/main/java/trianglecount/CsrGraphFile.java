@@ -0,0 +1,327 @@
+package trianglecount;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+
+/**
+ * CsrGraphFile - Persistent, memory-mapped CsrGraph with delta-varint neighbor lists
+ *
+ * Purpose: Write the normalized, degree-oriented graph once; later runs map
+ *          the file and count, query or validate without parsing the edge
+ *          list or building arrays. Only the touched pages are read.
+ *
+ * File format (little-endian, header like DegreeTable/SortedEdgeSet):
+ * - 24-byte header: magic, version, numVertices n, 0, numEdges (long)
+ * - degrees:   n ints, undirected degree of each vertex
+ * - offsets:   n + 1 ints, byte offset of each out-neighbor run in the neighbor section
+ * - neighbors: per vertex, its sorted out-neighbors as varints: the first ID,
+ *              then the (positive) gaps to the previous one
+ *
+ * Neighbor iteration (NeighborCursor) decodes straight from the mapped
+ * buffer; forEachTriangle decodes only the current center into a scratch
+ * array and merges every out-neighbor's run against it.
+ */
+public class CsrGraphFile implements OrientedGraph {
+
+	static final int MAGIC = 0x52534354;  // "TCSR"
+	static final int VERSION = 1;
+	static final int HEADER_BYTES = 24;
+
+	private final int numVertices;
+	private final long numEdges;
+	private final IntBuffer degrees;
+	private final IntBuffer offsets;
+	private final ByteBuffer neighbors;
+
+	private CsrGraphFile(ByteBuffer mapped) throws IOException {
+		this.numVertices = mapped.getInt(8);
+		this.numEdges = mapped.getLong(16);
+		long neighborStart = HEADER_BYTES + 4L * numVertices + 4L * (numVertices + 1);
+		if (numVertices < 0 || neighborStart > mapped.limit()) {
+			throw new IOException("Truncated CSR graph file");
+		}
+		this.degrees = section(mapped, HEADER_BYTES, 4 * numVertices).asIntBuffer();
+		this.offsets = section(mapped, HEADER_BYTES + 4 * numVertices, 4 * (numVertices + 1)).asIntBuffer();
+		this.neighbors = section(mapped, (int) neighborStart, mapped.limit() - (int) neighborStart);
+		if (offsets.get(numVertices) != neighbors.limit()) {
+			throw new IOException("CSR graph neighbor section has " + neighbors.limit()
+					+ " bytes, offsets end at " + offsets.get(numVertices));
+		}
+	}
+
+	private static ByteBuffer section(ByteBuffer mapped, int position, int length) {
+		ByteBuffer copy = mapped.duplicate();
+		copy.position(position).limit(position + length);
+		return copy.slice().order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	public int numVertices() {
+		return numVertices;
+	}
+
+	public long numEdges() {
+		return numEdges;
+	}
+
+	public int degree(int u) {
+		return degrees.get(u);
+	}
+
+	public int outDegree(int u) {
+		int count = 0;
+		for (int pos = offsets.get(u), end = offsets.get(u + 1); pos < end; pos++) {
+			if (neighbors.get(pos) >= 0) count++;  // one terminating byte per varint
+		}
+		return count;
+	}
+
+	/** Size of u's neighbor run in bytes */
+	public int neighborBytes(int u) {
+		return offsets.get(u + 1) - offsets.get(u);
+	}
+
+	/**
+	 * Sequential reader of one out-neighbor run, decoding from the mapped buffer.
+	 * Reusable: reset it to another vertex with neighbors(u, cursor).
+	 */
+	public static class NeighborCursor {
+		private ByteBuffer buffer;
+		private int pos;
+		private int end;
+		private int last;
+
+		public boolean hasNext() {
+			return pos < end;
+		}
+
+		public int next() {
+			int n = 0;
+			for (int shift = 0; ; shift += 7) {
+				byte b = buffer.get(pos++);
+				n |= (b & 0x7F) << shift;
+				if (b >= 0) break;
+			}
+			last += n;
+			return last;
+		}
+	}
+
+	/**
+	 * Position cursor at the start of u's out-neighbors
+	 */
+	public NeighborCursor neighbors(int u, NeighborCursor cursor) {
+		cursor.buffer = neighbors;
+		cursor.pos = offsets.get(u);
+		cursor.end = offsets.get(u + 1);
+		cursor.last = 0;
+		return cursor;
+	}
+
+	public long forEachTriangle(TriangleVisitor visitor) throws IOException {
+		NeighborCursor outer = new NeighborCursor();
+		NeighborCursor inner = new NeighborCursor();
+		int[] scratch = new int[64];
+		long triangles = 0;
+		for (int u = 0; u < numVertices; u++) {
+			int uEnd = 0;
+			for (neighbors(u, outer); outer.hasNext(); ) {
+				if (uEnd == scratch.length) scratch = Arrays.copyOf(scratch, uEnd * 2);
+				scratch[uEnd++] = outer.next();
+			}
+			for (int k = 0; k < uEnd; k++) {
+				int v = scratch[k];
+				neighbors(v, inner);
+				if (!inner.hasNext()) continue;
+				int i = 0;
+				int b = inner.next();
+				while (i < uEnd) {
+					int a = scratch[i];
+					if (a < b) {
+						i++;
+					} else if (a > b) {
+						if (!inner.hasNext()) break;
+						b = inner.next();
+					} else {
+						triangles++;
+						if (visitor != null) {
+							if (v < a) {
+								visitor.visit(u, v, a);
+							} else {
+								visitor.visit(u, a, v);
+							}
+						}
+						i++;
+						if (!inner.hasNext()) break;
+						b = inner.next();
+					}
+				}
+			}
+		}
+		return triangles;
+	}
+
+	/**
+	 * Check the structure: non-decreasing offsets, increasing in-range neighbor
+	 * IDs, edge count and out-degrees consistent with the header and degrees
+	 * @return null if valid, otherwise a description of the first problem
+	 */
+	public String validate() {
+		NeighborCursor cursor = new NeighborCursor();
+		long edges = 0;
+		long degreeSum = 0;
+		for (int u = 0; u < numVertices; u++) {
+			if (offsets.get(u) > offsets.get(u + 1)) {
+				return "offsets decrease at vertex " + u;
+			}
+			int previous = -1;
+			int out = 0;
+			for (neighbors(u, cursor); cursor.hasNext(); ) {
+				int v = cursor.next();
+				if (v <= previous || v >= numVertices || v == u) {
+					return "bad neighbor " + v + " of vertex " + u;
+				}
+				previous = v;
+				out++;
+			}
+			if (cursor.pos != cursor.end) {
+				return "varint runs past the neighbors of vertex " + u;
+			}
+			if (out > degrees.get(u)) {
+				return "out-degree " + out + " exceeds degree " + degrees.get(u) + " of vertex " + u;
+			}
+			edges += out;
+			degreeSum += degrees.get(u);
+		}
+		if (edges != numEdges) {
+			return "header says " + numEdges + " edges, neighbor lists hold " + edges;
+		}
+		if (degreeSum != 2 * numEdges) {
+			return "degrees sum to " + degreeSum + ", expected " + (2 * numEdges);
+		}
+		return null;
+	}
+
+	/**
+	 * Memory-map a CSR graph file from the local disk (read-only, off-heap)
+	 */
+	public static CsrGraphFile map(File file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			if (channel.size() > Integer.MAX_VALUE) {
+				throw new IOException("CSR graph file larger than 2 GB cannot be mapped: " + file);
+			}
+			ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())
+					.order(ByteOrder.LITTLE_ENDIAN);
+			if (mapped.limit() < HEADER_BYTES || mapped.getInt(0) != MAGIC) {
+				throw new IOException("Not a CSR graph file: " + file);
+			}
+			return new CsrGraphFile(mapped);
+		}
+	}
+
+	/**
+	 * Memory-map the graph file at path (command line tools, see CacheFiles.directFile)
+	 */
+	public static CsrGraphFile load(Configuration conf, Path path) throws IOException {
+		return map(CacheFiles.directFile(conf, path));
+	}
+
+	/**
+	 * True if path is a single file starting with the CSR graph magic
+	 */
+	public static boolean isGraphFile(FileSystem fs, Path path) throws IOException {
+		if (!fs.exists(path)) {
+			return false;
+		}
+		FileStatus status = fs.getFileStatus(path);
+		if (!status.isFile() || status.getLen() < HEADER_BYTES) {
+			return false;
+		}
+		byte[] head = new byte[4];
+		try (InputStream in = fs.open(path)) {
+			if (in.read(head) != 4) return false;
+		}
+		return ByteBuffer.wrap(head).order(ByteOrder.LITTLE_ENDIAN).getInt() == MAGIC;
+	}
+
+	/**
+	 * Write an in-memory CsrGraph in the file format above
+	 * @return number of bytes written
+	 */
+	public static long write(CsrGraph graph, OutputStream out) throws IOException {
+		int n = graph.numVertices();
+		long neighborBytes = 0;
+		for (int u = 0; u < n; u++) {
+			int previous = 0;
+			for (int i = graph.offsets[u]; i < graph.offsets[u + 1]; i++) {
+				neighborBytes += varIntLength(graph.targets[i] - previous);
+				previous = graph.targets[i];
+			}
+		}
+		long total = HEADER_BYTES + 8L * n + 4 + neighborBytes;
+		if (total > Integer.MAX_VALUE) {
+			throw new IOException("CSR graph file would be " + total + " bytes, larger than 2 GB");
+		}
+
+		ByteBuffer buffer = ByteBuffer.allocate(64 * 1024).order(ByteOrder.LITTLE_ENDIAN);
+		buffer.putInt(MAGIC).putInt(VERSION).putInt(n).putInt(0).putLong(graph.numEdges());
+		for (int u = 0; u < n; u++) {
+			flushIfFull(buffer, out, 4);
+			buffer.putInt(graph.degree(u));
+		}
+		int offset = 0;
+		for (int u = 0; u <= n; u++) {
+			flushIfFull(buffer, out, 4);
+			buffer.putInt(offset);
+			if (u == n) break;
+			int previous = 0;
+			for (int i = graph.offsets[u]; i < graph.offsets[u + 1]; i++) {
+				offset += varIntLength(graph.targets[i] - previous);
+				previous = graph.targets[i];
+			}
+		}
+		for (int u = 0; u < n; u++) {
+			int previous = 0;
+			for (int i = graph.offsets[u]; i < graph.offsets[u + 1]; i++) {
+				flushIfFull(buffer, out, 5);
+				int gap = graph.targets[i] - previous;
+				while ((gap & ~0x7F) != 0) {
+					buffer.put((byte) ((gap & 0x7F) | 0x80));
+					gap >>>= 7;
+				}
+				buffer.put((byte) gap);
+				previous = graph.targets[i];
+			}
+		}
+		out.write(buffer.array(), 0, buffer.position());
+		return total;
+	}
+
+	private static void flushIfFull(ByteBuffer buffer, OutputStream out, int needed) throws IOException {
+		if (buffer.remaining() < needed) {
+			out.write(buffer.array(), 0, buffer.position());
+			buffer.clear();
+		}
+	}
+
+	static int varIntLength(int n) {
+		int length = 1;
+		while ((n & ~0x7F) != 0) {
+			n >>>= 7;
+			length++;
+		}
+		return length;
+	}
+}
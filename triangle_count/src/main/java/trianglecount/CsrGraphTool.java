@@ -0,0 +1,70 @@
+package trianglecount;
+
+import java.io.OutputStream;
+
+import org.apache.hadoop.conf.Configured;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.util.Tool;
+import org.apache.hadoop.util.ToolRunner;
+
+/**
+ * CsrGraphTool - Build, validate and query persistent CSR graph files (CsrGraphFile)
+ *
+ * - <input> is an edge list: normalize and orient it in memory (CsrGraph.load,
+ *   same rules as LocalTriangleCounter) and write <input>.csr
+ * - <input> is a CSR graph file: map it, validate the structure and print
+ *   "vertex	degree	outDegree	neighbors" for each vertex argument
+ *
+ * Count on the file with LocalTriangleCounter <input>.csr.
+ *
+ * Usage: hadoop jar triangle_count.jar trianglecount.CsrGraphTool <input> [vertex ...]
+ */
+public class CsrGraphTool extends Configured implements Tool {
+
+	public static void main(String[] args) throws Exception {
+		ToolRunner.run(new CsrGraphTool(), args);
+	}
+
+	public int run(String[] args) throws Exception {
+
+		Path input = new Path(args[0]);
+		FileSystem fs = input.getFileSystem(getConf());
+
+		long start = System.currentTimeMillis();
+		if (!CsrGraphFile.isGraphFile(fs, input)) {
+			CsrGraph graph = CsrGraph.load(fs, input);
+			Path output = new Path(args[0] + ".csr");
+			long bytes;
+			try (OutputStream out = fs.create(output, false)) {
+				bytes = CsrGraphFile.write(graph, out);
+			}
+			System.out.println("CSR graph: " + graph.numVertices() + " vertices, " + graph.numEdges()
+					+ " edges, " + bytes + " bytes -> " + output + " (" + (System.currentTimeMillis() - start) + " ms)");
+			return 0;
+		}
+
+		CsrGraphFile graph = CsrGraphFile.load(getConf(), input);
+		String problem = graph.validate();
+		System.out.println("CSR graph: " + graph.numVertices() + " vertices, " + graph.numEdges() + " edges, "
+				+ (problem == null ? "valid" : "INVALID: " + problem)
+				+ " (" + (System.currentTimeMillis() - start) + " ms)");
+
+		CsrGraphFile.NeighborCursor cursor = new CsrGraphFile.NeighborCursor();
+		for (int i = 1; i < args.length; i++) {
+			int u = Integer.parseInt(args[i]);
+			if (u < 0 || u >= graph.numVertices()) {
+				System.out.println(u + "\t0\t0\t");
+				continue;
+			}
+			StringBuilder line = new StringBuilder();
+			line.append(u).append('\t').append(graph.degree(u)).append('\t').append(graph.outDegree(u)).append('\t');
+			for (graph.neighbors(u, cursor); cursor.hasNext(); ) {
+				line.append(cursor.next());
+				if (cursor.hasNext()) line.append(',');
+			}
+			System.out.println(line);
+		}
+		return problem == null ? 0 : 1;
+	}
+}
@@ -0,0 +1,24 @@
+package trianglecount;
+
+import java.io.IOException;
+
+import org.apache.hadoop.io.Text;
+
+/**
+ * DegreeAdjacencyMapper - In-mapper aggregation for the degree step (see AdjacencyShuffle)
+ * 
+ * Purpose: Replaces DegreeMapper. Each edge is buffered in both directions, so
+ *          every vertex receives blocks of all its neighbors.
+ * 
+ * Input:  ((u, v), "") - normalized edge from SequenceFile
+ * Output: (x, [y1, y2, ...]) - sorted neighbors of x seen since the last flush
+ */
+public class DegreeAdjacencyMapper extends AdjacencyMapper {
+	
+	@Override
+	protected void map(IntPairWritable key, Text value, Context context)
+			throws IOException, InterruptedException {
+		add(key.getFirst(), key.getSecond(), context);
+		add(key.getSecond(), key.getFirst(), context);
+	}
+}
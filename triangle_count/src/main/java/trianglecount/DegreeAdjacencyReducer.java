@@ -0,0 +1,61 @@
+package trianglecount;
+
+import java.io.IOException;
+
+import org.apache.hadoop.io.IntWritable;
+import org.apache.hadoop.mapreduce.Reducer;
+
+/**
+ * DegreeAdjacencyReducer - Degree step over neighbor blocks (see AdjacencyShuffle)
+ * 
+ * Purpose: Same output as DegreeReducer: degree = number of neighbors, attached
+ *          to every edge of the vertex.
+ * 
+ * Input:  (x, [[y1, y2], [y3], ...]) - neighbor blocks of vertex x
+ * Output: ((x, y), (deg_x, -1)) if x < y, ((y, x), (-1, deg_x)) otherwise
+ */
+public class DegreeAdjacencyReducer extends Reducer<IntWritable, AdjacencyWritable, IntPairWritable, IntPairWritable> {
+	
+	IntPairWritable ok = new IntPairWritable();
+	IntPairWritable ov = new IntPairWritable();
+	
+	private int[] neighbors = new int[64];
+	private long degreeWedges = 0;
+	private GroupSkew.Recorder skew;
+	
+	@Override
+	protected void setup(Context context) throws IOException, InterruptedException {
+		skew = GroupSkew.recorder(context);
+	}
+	
+	@Override
+	protected void reduce(IntWritable key, Iterable<AdjacencyWritable> values, Context context)
+			throws IOException, InterruptedException {
+		int x = key.get();
+		int n = 0;
+		for (AdjacencyWritable block : values) {
+			neighbors = block.copyTo(neighbors, n);
+			n += block.size();
+		}
+		if (skew != null) skew.add(key, n);
+		
+		for (int i = 0; i < n; i++) {
+			int y = neighbors[i];
+			if (x < y) {
+				ok.set(x, y);
+				ov.set(n, -1);
+			} else {
+				ok.set(y, x);
+				ov.set(-1, n);
+			}
+			context.write(ok, ov);
+		}
+		degreeWedges += (long) n * (n - 1) / 2;
+	}
+	
+	@Override
+	protected void cleanup(Context context) throws IOException, InterruptedException {
+		context.getCounter(PipelineCounter.DEGREE_WEDGES).increment(degreeWedges);
+		if (skew != null) skew.close(context);
+	}
+}
@@ -0,0 +1,82 @@
+package trianglecount;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.IntWritable;
+import org.apache.hadoop.io.WritableComparable;
+import org.apache.hadoop.io.WritableComparator;
+import org.apache.hadoop.mapreduce.Job;
+import org.apache.hadoop.mapreduce.Partitioner;
+
+/**
+ * DegreeAnnotation - How the degree step attaches degrees to edges
+ * 
+ * Modes (set with -D degree.annotation=...):
+ * - streaming (default): map output key (x, tag). For every edge endpoint x the
+ *              mapper emits a count record ((x, COUNT), 1) and an edge record
+ *              ((x, EDGE), y); a combiner sums the count records. Keys sort by
+ *              (x, tag) but are partitioned and grouped by x only, so
+ *              StreamingDegreeReducer has the degree before the first edge and
+ *              writes each edge as it arrives. Reducer heap is flat in the degree.
+ * - buffered:  DegreeMapper -> DegreeReducer, which keeps all edges of a vertex
+ *              in a list until it knows the count
+ * Output is the same in both modes, so ReorientReducer is unchanged.
+ * Neighbor blocks (AdjacencyShuffle) replace the degree job and take precedence.
+ * 
+ * Usage: hadoop jar triangle_count.jar trianglecount.DegreeOptDriver -D degree.annotation=buffered <input>
+ */
+public class DegreeAnnotation {
+	
+	public static final String MODE_KEY = "degree.annotation";
+	public static final String STREAMING = "streaming";
+	public static final String BUFFERED = "buffered";
+	
+	public static final int COUNT = 0;  // sorts before EDGE within a vertex
+	public static final int EDGE = 1;
+	
+	public static boolean isStreaming(Configuration conf) {
+		return STREAMING.equals(conf.get(MODE_KEY, STREAMING).toLowerCase());
+	}
+	
+	/**
+	 * Switch a degree job (DegreeMapper -> DegreeReducer) to the streaming path
+	 */
+	public static void configureStreaming(Job job) {
+		job.setMapperClass(DegreeCountMapper.class);
+		job.setCombinerClass(DegreeCountCombiner.class);
+		job.setReducerClass(StreamingDegreeReducer.class);
+		job.setMapOutputKeyClass(IntPairWritable.class);
+		job.setMapOutputValueClass(IntWritable.class);
+		job.setPartitionerClass(VertexPartitioner.class);
+		job.setGroupingComparatorClass(VertexGroupingComparator.class);
+	}
+	
+	/**
+	 * Partition (x, tag) keys by x only, like the default IntWritable partitioning
+	 */
+	public static class VertexPartitioner extends Partitioner<IntPairWritable, IntWritable> {
+		public int getPartition(IntPairWritable key, IntWritable value, int numReduceTasks) {
+			return (key.getFirst() & Integer.MAX_VALUE) % numReduceTasks;
+		}
+	}
+	
+	/**
+	 * Raw grouping comparator: x only, the tag is ignored
+	 */
+	public static class VertexGroupingComparator extends WritableComparator {
+		
+		public VertexGroupingComparator() {
+			super(IntPairWritable.class);
+		}
+		
+		@Override
+		public int compare(byte[] b1, int s1, int l1, byte[] b2, int s2, int l2) {
+			return Integer.compare(readInt(b1, s1), readInt(b2, s2));
+		}
+		
+		@Override
+		@SuppressWarnings("rawtypes")
+		public int compare(WritableComparable a, WritableComparable b) {
+			return Integer.compare(((IntPairWritable) a).u, ((IntPairWritable) b).u);
+		}
+	}
+}
@@ -0,0 +1,37 @@
+package trianglecount;
+
+import java.io.IOException;
+
+import org.apache.hadoop.io.IntWritable;
+import org.apache.hadoop.mapreduce.Reducer;
+
+/**
+ * DegreeCountCombiner - Sum count records of the streaming degree step
+ * 
+ * Combiners group by the full (x, tag) key, so count records of one vertex are
+ * summed into one partial count and edge records pass through unchanged.
+ * 
+ * Input:  ((x, COUNT), [c1, c2, ...]) or ((x, EDGE), [y1, y2, ...])
+ * Output: ((x, COUNT), c1 + c2 + ...) or ((x, EDGE), y) for each y
+ */
+public class DegreeCountCombiner extends Reducer<IntPairWritable, IntWritable, IntPairWritable, IntWritable> {
+	
+	IntWritable ov = new IntWritable();
+	
+	@Override
+	protected void reduce(IntPairWritable key, Iterable<IntWritable> values, Context context)
+			throws IOException, InterruptedException {
+		if (key.getSecond() == DegreeAnnotation.COUNT) {
+			int sum = 0;
+			for (IntWritable c : values) {
+				sum += c.get();
+			}
+			ov.set(sum);
+			context.write(key, ov);
+		} else {
+			for (IntWritable y : values) {
+				context.write(key, y);
+			}
+		}
+	}
+}
@@ -0,0 +1,43 @@
+package trianglecount;
+
+import java.io.IOException;
+
+import org.apache.hadoop.io.IntWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.Mapper;
+
+/**
+ * DegreeCountMapper - Emit count and edge records for the streaming degree step
+ * 
+ * Purpose: Replaces DegreeMapper (see DegreeAnnotation). Each endpoint gets one
+ *          count record, summed by DegreeCountCombiner, and one edge record
+ *          carrying the other endpoint.
+ * 
+ * Input:  ((u, v), "") - normalized edge from SequenceFile
+ * Output: ((u, COUNT), 1), ((u, EDGE), v), ((v, COUNT), 1), ((v, EDGE), u)
+ */
+public class DegreeCountMapper extends Mapper<IntPairWritable, Text, IntPairWritable, IntWritable> {
+	
+	IntPairWritable ok = new IntPairWritable();
+	IntWritable ov = new IntWritable();
+	IntWritable one = new IntWritable(1);
+	
+	@Override
+	protected void map(IntPairWritable key, Text value, Context context)
+			throws IOException, InterruptedException {
+		int u = key.getFirst();
+		int v = key.getSecond();
+		
+		ok.set(u, DegreeAnnotation.COUNT);
+		context.write(ok, one);
+		ok.set(u, DegreeAnnotation.EDGE);
+		ov.set(v);
+		context.write(ok, ov);
+		
+		ok.set(v, DegreeAnnotation.COUNT);
+		context.write(ok, one);
+		ok.set(v, DegreeAnnotation.EDGE);
+		ov.set(u);
+		context.write(ok, ov);
+	}
+}
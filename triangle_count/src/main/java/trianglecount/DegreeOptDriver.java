@@ -10,7 +10,6 @@ import org.apache.hadoop.mapreduce.lib.input.FileInputFormat;
 import org.apache.hadoop.mapreduce.lib.input.MultipleInputs;
 import org.apache.hadoop.mapreduce.lib.input.SequenceFileInputFormat;
 import org.apache.hadoop.mapreduce.lib.output.TextOutputFormat;
-import org.apache.hadoop.mapreduce.lib.input.TextInputFormat;
 import org.apache.hadoop.mapreduce.Job;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.io.IntWritable;
@@ -25,17 +24,35 @@ import org.apache.hadoop.io.Text;
  * - Task 3: Triangle counting
  * 
  * Algorithm: 5 steps
- * - Step 1: Normalize (NormalizeMapper -> NormalizeReducer)
- * - Step 2: Calculate Degree (DegreeMapper -> DegreeReducer)
+ * - Ingest: Parse the text edges once into the binary edge store (EdgeIngest)
+ * - Step 1: Normalize (NormalizeSeqMapper -> NormalizeReducer)
+ * - Step 2: Calculate Degree (DegreeCountMapper -> StreamingDegreeReducer, see DegreeAnnotation)
  * - Step 3: Reorient Edges (ReorientMapper -> ReorientReducer)
  * - Step 4: Generate Wedges (WedgeSeqMapper -> WedgeReducer)
- * - Step 5: Find Triangles (EdgeMarkerMapper + WedgeMarkerMapper -> TriangleReducer)
+ * - Step 5: Find Triangles (EdgeMarkerSeqMapper + WedgeMarkerMapper -> TriangleReducer)
  * 
  * Optimization Effect: Reduces wedge count by 50-80%
  * 
+ * Count-only mode: -D triangle.output.mode=count (see TriangleOutputMode)
+ * Streaming join:  -D triangle.join.mode=secondary (see TriangleJoinMode)
+ * Map-side join:   -D triangle.join.mode=mapside (see TriangleJoinMode)
+ *                  Step 4 closes wedges against the shipped edge set, no Step 5
+ * Hub splitting:   -D wedge.skew.threshold=T (see WedgeSkew)
+ *                  Step 4 splits centers with out-degree > T over several reducers
+ * Range partitions: -D partition.mode=range (see PartitionMode), Step 3/5 keys sampled
+ * Neighbor blocks:  -D adjacency.shuffle=true (see AdjacencyShuffle), Steps 2 and 4
+ * Degree step:      streaming by default; -D degree.annotation=buffered for DegreeReducer
+ * Map-side reorient: -D reorient.mode=mapside (see ReorientMode)
+ *                  Steps 2-3 become one DegreeTable count; Step 4 orients edges itself
+ * Relabeled input:  <input> = VertexRelabeler output (see VertexRelabeler.isRelabeled)
+ *                  Its edges are normalized and oriented already: no Ingest and Steps 1-3
+ * Run report:       <input>.metrics.json (see PipelineReport), per-step times and counters
+ * 
  * Usage: hadoop jar triangle_count.jar trianglecount.DegreeOptDriver <input>
  */
 public class DegreeOptDriver extends Configured implements Tool {
+	
+	private boolean relabeled;
 	 
 	public static void main(String[] args) throws Exception {
 		ToolRunner.run(new DegreeOptDriver(), args);
@@ -44,23 +61,65 @@ public class DegreeOptDriver extends Configured implements Tool {
 	public int run(String[] args) throws Exception {
 		
 		String inputPath = args[0]; 
+		PipelineReport report = PipelineReport.begin(getConf(), "DegreeOpt", inputPath);
+		String edgesPath = inputPath + ".edges";             // Binary edge store
 		String normalizedPath = inputPath + ".normalized";   // Step 1 output
 		String degreePath = inputPath + ".degree";           // Step 2 output
 		String reorientedPath = inputPath + ".reoriented";   // Step 3 output
 		String wedgePath = inputPath + ".wedges_opt";        // Step 4 output
 		String outputPath = inputPath + ".out_degree";       // Final output
-		
-		runStep1_Normalize(inputPath, normalizedPath);
-		runStep2_CalculateDegree(normalizedPath, degreePath);
-		runStep3_ReorientEdges(degreePath, reorientedPath);
-		runStep4_GenerateWedges(reorientedPath, wedgePath);
-		runStep5_FindTriangles(inputPath, wedgePath, outputPath);
-		
+		String edgeSetPath = inputPath + ".edgeset";         // Map-side join only
+		String heavyPath = null;                             // Hub splitting only
+		String degreeTablePath = null;                       // Map-side reorientation only
+		String orientedPath = reorientedPath;                // Step 4 input
+		
+		relabeled = VertexRelabeler.isRelabeled(getConf(), inputPath);
+		if (relabeled) {
+			edgesPath = VertexRelabeler.edgesPath(inputPath);
+			orientedPath = edgesPath;
+		}
+		else {
+			EdgeIngest.ingest(getConf(), inputPath, edgesPath);
+			runStep1_Normalize(edgesPath, normalizedPath);
+			if (ReorientMode.isMapSide(getConf())) {
+				degreeTablePath = inputPath + ".degreetable";
+				DegreeTable.build(getConf(), normalizedPath, degreeTablePath);
+				orientedPath = normalizedPath;
+			}
+			else {
+				runStep2_CalculateDegree(normalizedPath, degreePath);
+				runStep3_ReorientEdges(degreePath, reorientedPath);
+			}
+		}
+		if (WedgeSkew.isEnabled(getConf())) {
+			heavyPath = inputPath + ".heavy";
+			if (relabeled) {
+				WedgeSkew.findHeavyCenters(getConf(), orientedPath, BinaryEdgeInputFormat.class, heavyPath);
+			}
+			else {
+				WedgeSkew.findHeavyCenters(getConf(), reorientedPath, heavyPath);
+			}
+		}
+		if (TriangleJoinMode.isMapSide(getConf())) {
+			if (relabeled) {
+				TriangleJoinMode.writeEdgeSetFromEdgeStore(getConf(), edgesPath, edgeSetPath);
+			}
+			else {
+				TriangleJoinMode.writeEdgeSet(getConf(), normalizedPath, edgeSetPath);
+			}
+			runStep4_GenerateWedges(orientedPath, outputPath, edgeSetPath, heavyPath, degreeTablePath);
+		}
+		else {
+			runStep4_GenerateWedges(orientedPath, wedgePath, null, heavyPath, degreeTablePath);
+			runStep5_FindTriangles(edgesPath, wedgePath, outputPath);
+		}
+		
+		report.write();
 		return 0;
 	}
 	
 	/**
-	 * Step 1: Normalize edges (NormalizeMapper -> NormalizeReducer)
+	 * Step 1: Normalize edges from the binary edge store (NormalizeSeqMapper -> NormalizeReducer)
 	 */
 	private void runStep1_Normalize(String inputPath, String outputPath) throws Exception {
 		
@@ -68,7 +127,7 @@ public class DegreeOptDriver extends Configured implements Tool {
 		job.setJobName("DegreeOpt-Step1-Normalize");
 		job.setJarByClass(DegreeOptDriver.class);
 		
-		job.setMapperClass(NormalizeMapper.class);
+		job.setMapperClass(NormalizeSeqMapper.class);
 		job.setReducerClass(NormalizeReducer.class);
 		
 		job.setMapOutputKeyClass(IntPairWritable.class);
@@ -79,17 +138,17 @@ public class DegreeOptDriver extends Configured implements Tool {
 		job.setOutputKeyClass(IntPairWritable.class);
 		job.setOutputValueClass(Text.class);
 		
-		job.setInputFormatClass(TextInputFormat.class);
+		job.setInputFormatClass(BinaryEdgeInputFormat.class);
 		job.setOutputFormatClass(SequenceFileOutputFormat.class);
 		
 		FileInputFormat.addInputPath(job, new Path(inputPath));
 		FileOutputFormat.setOutputPath(job, new Path(outputPath));
 		
-		job.waitForCompletion(true);
+		JobMetrics.waitForCompletion(job);
 	}
 	
 	/**
-	 * Step 2: Calculate degree for each vertex (DegreeMapper -> DegreeReducer)
+	 * Step 2: Calculate degree for each vertex (DegreeCountMapper -> StreamingDegreeReducer)
 	 */
 	private void runStep2_CalculateDegree(String inputPath, String outputPath) throws Exception {
 		
@@ -109,10 +168,17 @@ public class DegreeOptDriver extends Configured implements Tool {
 		job.setInputFormatClass(SequenceFileInputFormat.class);
 		job.setOutputFormatClass(SequenceFileOutputFormat.class); 
 		
+		if (AdjacencyShuffle.isEnabled(getConf())) {
+			AdjacencyShuffle.configureDegreeStep(job);
+		}
+		else if (DegreeAnnotation.isStreaming(getConf())) {
+			DegreeAnnotation.configureStreaming(job);
+		}
+		
 		FileInputFormat.addInputPath(job, new Path(inputPath));
 		FileOutputFormat.setOutputPath(job, new Path(outputPath));
 		
-		job.waitForCompletion(true);
+		JobMetrics.waitForCompletion(job);
 	}
 	
 	/**
@@ -131,6 +197,7 @@ public class DegreeOptDriver extends Configured implements Tool {
 		job.setMapOutputValueClass(IntPairWritable.class);
 		
 		job.setPartitionerClass(IntPairIntPairPartitioner.class);
+		PartitionMode.configureRange(job, inputPath, outputPath + ".splits");
 		
 		job.setOutputKeyClass(IntPairWritable.class);
 		job.setOutputValueClass(Text.class);
@@ -141,13 +208,18 @@ public class DegreeOptDriver extends Configured implements Tool {
 		FileInputFormat.addInputPath(job, new Path(inputPath));
 		FileOutputFormat.setOutputPath(job, new Path(outputPath));
 		
-		job.waitForCompletion(true);
+		JobMetrics.waitForCompletion(job);
 	}
 	
 	/**
 	 * Step 4: Generate wedges from reoriented edges (WedgeSeqMapper -> WedgeReducer)
+	 * With an edge set: WedgeSeqMapper -> WedgeJoinReducer, writes triangles directly
+	 * With heavy centers: SaltedWedgeMapper -> SaltedWedgeReducer (same output)
+	 * With a degree table: normalized input, OrientingWedgeMapper orients each edge
+	 * With relabeled input: the binary edge store, already oriented
 	 */
-	private void runStep4_GenerateWedges(String inputPath, String outputPath) throws Exception {
+	private void runStep4_GenerateWedges(String inputPath, String outputPath, String edgeSetPath,
+			String heavyPath, String degreeTablePath) throws Exception {
 		
 		Job job = Job.getInstance(getConf());
 		job.setJobName("DegreeOpt-Step4-GenerateWedges");
@@ -162,38 +234,73 @@ public class DegreeOptDriver extends Configured implements Tool {
 		job.setOutputKeyClass(IntPairWritable.class);
 		job.setOutputValueClass(IntWritable.class);
 		
-		job.setInputFormatClass(SequenceFileInputFormat.class);
+		job.setInputFormatClass(relabeled ? BinaryEdgeInputFormat.class : SequenceFileInputFormat.class);
 		job.setOutputFormatClass(SequenceFileOutputFormat.class);
 		
+		if (edgeSetPath != null) {
+			TriangleJoinMode.configureMapSide(job, edgeSetPath);
+		}
+		if (heavyPath != null) {
+			WedgeSkew.configure(job, heavyPath);
+		}
+		else if (AdjacencyShuffle.isEnabled(getConf())) {
+			AdjacencyShuffle.configureWedgeStep(job);
+		}
+		if (degreeTablePath != null) {
+			ReorientMode.configureWedgeStep(job, degreeTablePath);
+		}
+		
 		FileInputFormat.addInputPath(job, new Path(inputPath));
 		FileOutputFormat.setOutputPath(job, new Path(outputPath));
 		
-		job.waitForCompletion(true);
+		JobMetrics.waitForCompletion(job);
+		
+		if (edgeSetPath != null) {
+			TriangleOutputMode.reportTotal(job);
+		}
 	}
 
 	/**
-	 * Step 5: Find triangles (original edges + wedges -> TriangleReducer)
+	 * Step 5: Find triangles (binary edge store + wedges -> TriangleReducer)
+	 * Secondary-sort join: TaggedEdgeMapper + TaggedWedgeMapper -> StreamingTriangleReducer
+	 * In count-only mode: wedge tallies -> TriangleTallyCombiner -> TriangleTallyReducer
 	 */
-	private void runStep5_FindTriangles(String inputPath, String wedgePath, String outputPath) throws Exception {
+	private void runStep5_FindTriangles(String edgesPath, String wedgePath, String outputPath) throws Exception {
+		
+		boolean countOnly = TriangleOutputMode.isCountOnly(getConf());
 		
 		Job job = Job.getInstance(getConf());
 		job.setJobName("DegreeOpt-Step5-FindTriangles");
 		job.setJarByClass(DegreeOptDriver.class);
 		
 		job.setReducerClass(TriangleReducer.class);
+		if (countOnly) {
+			TriangleOutputMode.configureCountOnly(job);
+		}
 		
 		job.setMapOutputKeyClass(IntPairWritable.class);
 		job.setMapOutputValueClass(IntWritable.class);
 		
 		job.setPartitionerClass(IntPairIntPartitioner.class);
+		PartitionMode.configureRange(job, wedgePath, wedgePath + ".splits");
 		
 		job.setOutputFormatClass(TextOutputFormat.class);
 		
-		MultipleInputs.addInputPath(job, new Path(inputPath), TextInputFormat.class, EdgeMarkerMapper.class);
-		MultipleInputs.addInputPath(job, new Path(wedgePath), SequenceFileInputFormat.class, WedgeMarkerMapper.class);
+		if (TriangleJoinMode.isSecondarySort(getConf())) {
+			TriangleJoinMode.configureSecondarySort(job, edgesPath, BinaryEdgeInputFormat.class, wedgePath);
+		}
+		else {
+			MultipleInputs.addInputPath(job, new Path(edgesPath), BinaryEdgeInputFormat.class, EdgeMarkerSeqMapper.class);
+			MultipleInputs.addInputPath(job, new Path(wedgePath), SequenceFileInputFormat.class,
+					countOnly ? WedgeTallyMapper.class : WedgeMarkerMapper.class);
+		}
 		
 		FileOutputFormat.setOutputPath(job, new Path(outputPath));
 		
-		job.waitForCompletion(true);
+		JobMetrics.waitForCompletion(job);
+		
+		if (countOnly) {
+			TriangleOutputMode.reportTotal(job);
+		}
 	}
 }
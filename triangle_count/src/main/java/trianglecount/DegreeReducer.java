@@ -18,6 +18,13 @@ import trianglecount.IntPairWritable;
 public class DegreeReducer extends Reducer<IntWritable, IntPairWritable, IntPairWritable, IntPairWritable> {
 	IntPairWritable out_key = new IntPairWritable();
 	IntPairWritable out_value = new IntPairWritable();
+	long degreeWedges = 0;
+	GroupSkew.Recorder skew;
+	
+	@Override
+	protected void setup(Context context) {
+		skew = GroupSkew.recorder(context);
+	}
 	
 	protected void reduce(IntWritable key, Iterable<IntPairWritable> values, Reducer<IntWritable, IntPairWritable, IntPairWritable, IntPairWritable>.Context context) throws IOException, InterruptedException {
 		
@@ -32,6 +39,9 @@ public class DegreeReducer extends Reducer<IntWritable, IntPairWritable, IntPair
 			edges.add(new_v);
 		}
 		
+		degreeWedges += (long) cnt * (cnt - 1) / 2;
+		if (skew != null) skew.add(key, cnt);
+		
 		for (IntPairWritable e: edges) {
 //			System.out.println("reducer2 edge, "+e.toString());
 			out_key = e;
@@ -41,9 +51,14 @@ public class DegreeReducer extends Reducer<IntWritable, IntPairWritable, IntPair
 			else { // value의 두번째 자리에 cnt를 써줌
 				out_value.set(-1,  cnt);
 			}
-			System.out.println("reducer2, "+e.toString()+", "+out_value.toString());
 			context.write(out_key,  out_value);
 		}
 
 	}
-}
\ No newline at end of file
+	
+	@Override
+	protected void cleanup(Context context) throws IOException, InterruptedException {
+		context.getCounter(PipelineCounter.DEGREE_WEDGES).increment(degreeWedges);
+		if (skew != null) skew.close(context);
+	}
+}
@@ -0,0 +1,300 @@
+package trianglecount;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.PriorityQueue;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.IntWritable;
+import org.apache.hadoop.io.SequenceFile;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.Job;
+import org.apache.hadoop.mapreduce.Mapper;
+import org.apache.hadoop.mapreduce.Reducer;
+import org.apache.hadoop.mapreduce.lib.input.FileInputFormat;
+import org.apache.hadoop.mapreduce.lib.input.SequenceFileInputFormat;
+import org.apache.hadoop.mapreduce.lib.output.FileOutputFormat;
+import org.apache.hadoop.mapreduce.lib.output.SequenceFileOutputFormat;
+
+/**
+ * DegreeTable - Dense vertex -> degree array, memory-mapped by tasks
+ * 
+ * Purpose: Lets the wedge mapper orient each edge itself (see ReorientMode),
+ *          so the degree and reorientation shuffles become one counting job
+ *          whose output is only one number per vertex.
+ * 
+ * Build:
+ * - Map: (u, 1) and (v, 1) for each normalized edge
+ * - Combine/Reduce: sum per vertex
+ * - Driver: k-way merge of the sorted reducer outputs into the dense file,
+ *           vertices without edges get degree 0
+ * 
+ * File format (little-endian):
+ * - 8-byte header: magic, version
+ * - one int per vertex ID 0..n-1, the degree
+ */
+public class DegreeTable {
+	
+	public static final String PATH_KEY = "degree.table.path";
+	
+	static final int MAGIC = 0x54474454;  // "TDGT"
+	static final int VERSION = 1;
+	static final int HEADER_BYTES = 8;
+	
+	private final IntBuffer degrees;
+	private final int size;
+	
+	private DegreeTable(IntBuffer degrees) {
+		this.degrees = degrees;
+		this.size = degrees.limit();
+	}
+	
+	/**
+	 * Number of vertex slots (largest vertex ID + 1)
+	 */
+	public int size() {
+		return size;
+	}
+	
+	public int degree(int vertex) {
+		return vertex >= 0 && vertex < size ? degrees.get(vertex) : 0;
+	}
+	
+	/**
+	 * True if the edge u - v is oriented u -> v: lower degree first,
+	 * smaller vertex ID on equal degrees (same rule as ReorientReducer)
+	 */
+	public boolean isOriented(int u, int v) {
+		int du = degree(u);
+		int dv = degree(v);
+		return du < dv || (du == dv && u < v);
+	}
+	
+	/**
+	 * Memory-map a degree table file from the local disk (read-only, off-heap)
+	 */
+	public static DegreeTable map(File file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			if (channel.size() > Integer.MAX_VALUE) {
+				throw new IOException("Degree table larger than 2 GB cannot be mapped: " + file);
+			}
+			ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())
+					.order(ByteOrder.LITTLE_ENDIAN);
+			if (mapped.limit() < HEADER_BYTES || mapped.getInt(0) != MAGIC
+					|| (mapped.limit() - HEADER_BYTES) % 4 != 0) {
+				throw new IOException("Not a degree table file: " + file);
+			}
+			mapped.position(HEADER_BYTES);
+			return new DegreeTable(mapped.slice().order(ByteOrder.LITTLE_ENDIAN).asIntBuffer());
+		}
+	}
+	
+	/**
+	 * Load the degree table named by degree.table.path for a task (see CacheFiles.localFile)
+	 */
+	public static DegreeTable load(Configuration conf) throws IOException {
+		String path = conf.get(PATH_KEY);
+		if (path == null) {
+			throw new IOException(PATH_KEY + " is not set");
+		}
+		return map(CacheFiles.localFile(conf, new Path(path)));
+	}
+	
+	/**
+	 * Mapper: Count each normalized edge (u, v) once for both endpoints
+	 */
+	public static class EndpointMapper extends Mapper<IntPairWritable, Text, IntWritable, IntWritable> {
+		
+		private IntWritable ok = new IntWritable();
+		private IntWritable one = new IntWritable(1);
+		
+		@Override
+		protected void map(IntPairWritable key, Text value, Context context)
+				throws IOException, InterruptedException {
+			ok.set(key.getFirst());
+			context.write(ok, one);
+			ok.set(key.getSecond());
+			context.write(ok, one);
+		}
+	}
+	
+	/**
+	 * Combiner/Reducer: Sum the partial degrees of one vertex
+	 */
+	public static class DegreeSumReducer extends Reducer<IntWritable, IntWritable, IntWritable, IntWritable> {
+		
+		private IntWritable sum = new IntWritable();
+		
+		@Override
+		protected void reduce(IntWritable key, Iterable<IntWritable> values, Context context)
+				throws IOException, InterruptedException {
+			int total = 0;
+			for (IntWritable c : values) {
+				total += c.get();
+			}
+			sum.set(total);
+			context.write(key, sum);
+		}
+	}
+	
+	/**
+	 * Build the degree table from NormalizeReducer output (SequenceFile of ((u, v), ""))
+	 * @return number of vertex slots written
+	 * @throws IOException if the counting job fails
+	 */
+	public static int build(Configuration conf, String normalizedPath, String tablePath) throws Exception {
+		String partsPath = tablePath + ".parts";
+		
+		Job job = Job.getInstance(conf);
+		job.setJobName("DegreeTable-Step2-CountDegrees");
+		job.setJarByClass(DegreeTable.class);
+		
+		job.setMapperClass(EndpointMapper.class);
+		job.setCombinerClass(DegreeSumReducer.class);
+		job.setReducerClass(DegreeSumReducer.class);
+		
+		job.setMapOutputKeyClass(IntWritable.class);
+		job.setMapOutputValueClass(IntWritable.class);
+		job.setOutputKeyClass(IntWritable.class);
+		job.setOutputValueClass(IntWritable.class);
+		
+		job.setInputFormatClass(SequenceFileInputFormat.class);
+		job.setOutputFormatClass(SequenceFileOutputFormat.class);
+		
+		FileInputFormat.addInputPath(job, new Path(normalizedPath));
+		FileOutputFormat.setOutputPath(job, new Path(partsPath));
+		
+		int size;
+		try {
+			JobMetrics.waitForCompletion(job);  // throws if the count failed, no table is written
+			size = writeFromCounts(conf, partsPath, tablePath);
+		} finally {
+			new Path(partsPath).getFileSystem(conf).delete(new Path(partsPath), true);
+		}
+		System.out.println("Degree table: " + size + " vertices -> " + tablePath);
+		return size;
+	}
+	
+	/**
+	 * Merge sorted (vertex, degree) part files into the dense table file
+	 */
+	static int writeFromCounts(Configuration conf, String partsPath, String tablePath) throws IOException {
+		int next = 0;  // next vertex slot to write
+		try (SortedCounts counts = new SortedCounts(conf, partsPath);
+				OutputStream out = new Path(tablePath).getFileSystem(conf).create(new Path(tablePath), true)) {
+			ByteBuffer buffer = ByteBuffer.allocate(64 * 1024).order(ByteOrder.LITTLE_ENDIAN);
+			buffer.putInt(MAGIC).putInt(VERSION);
+			
+			while (counts.next()) {
+				int vertex = counts.vertex();
+				if (vertex < next) {
+					throw new IOException("Degree table needs non-negative, distinct vertex IDs: " + vertex);
+				}
+				for (; next <= vertex; next++) {
+					if (!buffer.hasRemaining()) {
+						out.write(buffer.array(), 0, buffer.position());
+						buffer.clear();
+					}
+					buffer.putInt(next == vertex ? counts.degree() : 0);
+				}
+			}
+			out.write(buffer.array(), 0, buffer.position());
+		}
+		return next;
+	}
+	
+	/**
+	 * (vertex, degree) records of sorted part files (DegreeSumReducer output) in
+	 * vertex order: a k-way merge holding one record per part
+	 */
+	static class SortedCounts implements Closeable {
+		
+		private final PriorityQueue<PartCursor> queue = new PriorityQueue<>();
+		private PartCursor current;
+		
+		SortedCounts(Configuration conf, String partsPath) throws IOException {
+			Path parts = new Path(partsPath);
+			FileSystem fs = parts.getFileSystem(conf);
+			try {
+				for (FileStatus part : CsrGraph.listInputFiles(fs, parts)) {
+					PartCursor cursor = new PartCursor(
+							new SequenceFile.Reader(conf, SequenceFile.Reader.file(part.getPath())));
+					if (cursor.advance()) {
+						queue.add(cursor);
+					} else {
+						cursor.reader.close();
+					}
+				}
+			} catch (IOException e) {
+				close();
+				throw e;
+			}
+		}
+		
+		/**
+		 * Move to the record with the next smallest vertex
+		 * @return false at the end of all parts
+		 */
+		boolean next() throws IOException {
+			if (current != null) {
+				if (current.advance()) {
+					queue.add(current);
+				} else {
+					current.reader.close();
+				}
+			}
+			current = queue.poll();
+			return current != null;
+		}
+		
+		int vertex() {
+			return current.vertex.get();
+		}
+		
+		int degree() {
+			return current.degree.get();
+		}
+		
+		public void close() throws IOException {
+			if (current != null) {
+				current.reader.close();
+				current = null;
+			}
+			for (PartCursor cursor : queue) {
+				cursor.reader.close();
+			}
+			queue.clear();
+		}
+	}
+	
+	/**
+	 * Current (vertex, degree) record of one sorted part file during the k-way merge
+	 */
+	private static class PartCursor implements Comparable<PartCursor> {
+		final SequenceFile.Reader reader;
+		final IntWritable vertex = new IntWritable();
+		final IntWritable degree = new IntWritable();
+		
+		PartCursor(SequenceFile.Reader reader) {
+			this.reader = reader;
+		}
+		
+		boolean advance() throws IOException {
+			return reader.next(vertex, degree);
+		}
+		
+		public int compareTo(PartCursor o) {
+			return Integer.compare(vertex.get(), o.vertex.get());
+		}
+	}
+}
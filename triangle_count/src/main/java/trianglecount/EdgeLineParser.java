@@ -0,0 +1,163 @@
+package trianglecount;
+
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+
+/**
+ * EdgeLineParser - Allocation-free parser for edge-list text lines
+ * 
+ * Purpose: Read the two vertex IDs of a line straight from Text.getBytes()
+ *          (up to getLength()), without value.toString(), StringTokenizer or
+ *          regex split. One instance per mapper, reused for every line.
+ * 
+ * Accepted lines (leading/trailing whitespace allowed, extra columns ignored):
+ * - "u v", "u\tv", "u,v", "(u, v)"
+ * Skipped lines (not counted): blank lines, comments starting with '#' or '%'
+ * Malformed lines (missing ID, non-digit characters, int overflow) are skipped
+ * and counted in PipelineCounter.MALFORMED_EDGE_LINES.
+ * parseTriangle() reads triangle lines "u v c" (TriangleReducer output) the same way.
+ */
+public class EdgeLineParser {
+	
+	private int first;
+	private int second;
+	private int third;
+	private boolean malformed;
+	private int pos;    // scan position inside parse()
+	private int value;  // result of readInt()
+	
+	public int getFirst() {
+		return first;
+	}
+	
+	public int getSecond() {
+		return second;
+	}
+	
+	/**
+	 * Third ID of the last parseTriangle() (the wedge center c)
+	 */
+	public int getThird() {
+		return third;
+	}
+	
+	/**
+	 * True if the last parse() failed on a non-blank, non-comment line
+	 */
+	public boolean wasMalformed() {
+		return malformed;
+	}
+	
+	/**
+	 * Parse a line of a text mapper; malformed lines are counted on the task
+	 * @return true if the line holds an edge (getFirst(), getSecond())
+	 */
+	public boolean parse(Text line, TaskAttemptContext context) {
+		if (parse(line.getBytes(), 0, line.getLength())) {
+			return true;
+		}
+		if (malformed) {
+			context.getCounter(PipelineCounter.MALFORMED_EDGE_LINES).increment(1);
+		}
+		return false;
+	}
+	
+	/**
+	 * Parse a triangle line "u v c"; malformed lines are counted on the task
+	 * @return true if the line holds a triangle (getFirst(), getSecond(), getThird())
+	 */
+	public boolean parseTriangle(Text line, TaskAttemptContext context) {
+		int end = line.getLength();
+		byte[] bytes = line.getBytes();
+		if (parse(bytes, 0, end)) {
+			int sep = pos;
+			pos = skipWhitespace(bytes, pos, end);
+			if (pos > sep && readInt(bytes, end)) {
+				third = value;
+				return true;
+			}
+			malformed = true;
+		}
+		if (malformed) {
+			context.getCounter(PipelineCounter.MALFORMED_EDGE_LINES).increment(1);
+		}
+		return false;
+	}
+	
+	public boolean parse(Text line) {
+		return parse(line.getBytes(), 0, line.getLength());
+	}
+	
+	/**
+	 * Parse bytes [start, end) as one line
+	 * @return true if the line holds an edge (getFirst(), getSecond())
+	 */
+	public boolean parse(byte[] bytes, int start, int end) {
+		malformed = false;
+		pos = skipWhitespace(bytes, start, end);
+		if (pos == end || bytes[pos] == '#' || bytes[pos] == '%') {
+			return false;
+		}
+		if (bytes[pos] == '(') {
+			pos = skipWhitespace(bytes, pos + 1, end);
+		}
+		
+		if (!readInt(bytes, end)) {
+			malformed = true;
+			return false;
+		}
+		first = value;
+		
+		// separator: whitespace and/or one comma
+		int sep = pos;
+		pos = skipWhitespace(bytes, pos, end);
+		if (pos < end && bytes[pos] == ',') {
+			pos = skipWhitespace(bytes, pos + 1, end);
+		}
+		if (pos == sep || !readInt(bytes, end)) {
+			malformed = true;
+			return false;
+		}
+		second = value;
+		return true;
+	}
+	
+	/**
+	 * Read an optionally signed decimal int at pos; it must end at a separator,
+	 * ')' or the end of the line
+	 */
+	private boolean readInt(byte[] bytes, int end) {
+		boolean negative = false;
+		if (pos < end && (bytes[pos] == '-' || bytes[pos] == '+')) {
+			negative = bytes[pos] == '-';
+			pos++;
+		}
+		int digitsStart = pos;
+		long v = 0;
+		while (pos < end) {
+			int d = bytes[pos] - '0';
+			if (d < 0 || d > 9) break;
+			v = v * 10 + d;
+			if (v > 1L + Integer.MAX_VALUE) return false;
+			pos++;
+		}
+		if (pos == digitsStart) return false;
+		if (pos < end) {
+			byte c = bytes[pos];
+			if (!isWhitespace(c) && c != ',' && c != ')') return false;
+		}
+		v = negative ? -v : v;
+		if (v > Integer.MAX_VALUE) return false;
+		value = (int) v;
+		return true;
+	}
+	
+	private static int skipWhitespace(byte[] bytes, int pos, int end) {
+		while (pos < end && isWhitespace(bytes[pos])) pos++;
+		return pos;
+	}
+	
+	private static boolean isWhitespace(byte c) {
+		return c == ' ' || c == '\t' || c == '\r' || c == '\n';
+	}
+}
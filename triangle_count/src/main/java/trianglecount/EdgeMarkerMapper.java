@@ -1,7 +1,6 @@
 package trianglecount;
 
 import java.io.IOException;
-import java.util.StringTokenizer;
 
 import org.apache.hadoop.io.IntWritable;
 import org.apache.hadoop.io.Text;
@@ -20,15 +19,17 @@ public class EdgeMarkerMapper extends Mapper<Object, Text, IntPairWritable, IntW
 	
 	IntPairWritable ok = new IntPairWritable();
 	IntWritable ov = new IntWritable(-1);
+	EdgeLineParser parser = new EdgeLineParser();
+	
 	@Override
 	// input value: 1	77
 	// output key: (1, 77), output value: -1 (숫자 작은거에서 큰거로 가도록)
 	protected void map(Object key, Text value, Mapper<Object, Text, IntPairWritable, IntWritable>.Context context)
 			throws IOException, InterruptedException {
 		
-		StringTokenizer st = new StringTokenizer(value.toString());
-		int u = Integer.parseInt(st.nextToken());
-		int v = Integer.parseInt(st.nextToken());
+		if (!parser.parse(value, context)) return; // blank, comment or malformed line
+		int u = parser.getFirst();
+		int v = parser.getSecond();
 		
 		if (u < v) {
 			ok.set(u, v);
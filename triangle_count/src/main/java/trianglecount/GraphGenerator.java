@@ -0,0 +1,391 @@
+package trianglecount;
+
+import java.io.BufferedWriter;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.conf.Configured;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.IntWritable;
+import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.io.Writable;
+import org.apache.hadoop.mapreduce.InputFormat;
+import org.apache.hadoop.mapreduce.InputSplit;
+import org.apache.hadoop.mapreduce.Job;
+import org.apache.hadoop.mapreduce.JobContext;
+import org.apache.hadoop.mapreduce.Mapper;
+import org.apache.hadoop.mapreduce.RecordReader;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+import org.apache.hadoop.mapreduce.lib.output.FileOutputFormat;
+import org.apache.hadoop.mapreduce.lib.output.TextOutputFormat;
+import org.apache.hadoop.util.Tool;
+import org.apache.hadoop.util.ToolRunner;
+
+/**
+ * GraphGenerator - Synthetic edge lists of a chosen size and seed for scale testing
+ *
+ * Models (-D generator.model):
+ * - rmat (default): R-MAT recursive quadrants, 2^ceil(log2 n) vertex IDs,
+ *   probabilities generator.rmat.a/b/c (default 0.57/0.19/0.19, d = rest)
+ * - er:      Erdős–Rényi G(n, m), both endpoints uniform
+ * - chunglu: Chung–Lu, endpoint i drawn with weight (i + 1)^(-1/(gamma - 1)),
+ *            a power-law degree tail with exponent generator.chunglu.gamma (default 2.1)
+ *
+ * Settings:
+ * - generator.vertices n (default 1048576), generator.edges m (default 16 n)
+ * - generator.seed (default 1): the same settings, seed and task count give the
+ *   same graph (each task draws from its own stream seeded by seed and task index)
+ * - generator.tasks (default 4): map tasks writing in parallel, one part file each
+ * - generator.format: text (default, "u	v" lines, <output>/part-m-*) or
+ *   binary (the EdgeIngest store, u < v, written to <output>.edges; the
+ *   _GENERATOR file marks it for reuse, so the drivers skip ingestion; run
+ *   them on <output>)
+ * - generator.planted.triangles k (default 0): with k > 0 the background is made
+ *   bipartite (first endpoint even, second odd), so it has no triangles, and k
+ *   triangles (a, b, c) are added: (a, b) is a background-style pair and c a
+ *   new vertex above the background IDs joined only to a and b. The graph
+ *   then has exactly k triangles.
+ *
+ * Self-loops are redrawn; duplicate edges are kept (Step 1 removes them).
+ * The settings and the expected triangle count (if planted) are written to
+ * _GENERATOR in the output directory.
+ *
+ * Usage: hadoop jar triangle_count.jar trianglecount.GraphGenerator
+ *          -D generator.model=rmat -D generator.edges=m <output>
+ */
+public class GraphGenerator extends Configured implements Tool {
+
+	public static final String MODEL_KEY = "generator.model";
+	public static final String VERTICES_KEY = "generator.vertices";
+	public static final String EDGES_KEY = "generator.edges";
+	public static final String SEED_KEY = "generator.seed";
+	public static final String TASKS_KEY = "generator.tasks";
+	public static final String FORMAT_KEY = "generator.format";
+	public static final String PLANTED_KEY = "generator.planted.triangles";
+	public static final String RMAT_A_KEY = "generator.rmat.a";
+	public static final String RMAT_B_KEY = "generator.rmat.b";
+	public static final String RMAT_C_KEY = "generator.rmat.c";
+	public static final String GAMMA_KEY = "generator.chunglu.gamma";
+
+	/** Settings file written next to the generated part files */
+	static final String INFO_FILE = "_GENERATOR";
+
+	public static void main(String[] args) throws Exception {
+		ToolRunner.run(new GraphGenerator(), args);
+	}
+
+	/**
+	 * Endpoint pair source of one model; one instance per task
+	 */
+	abstract static class Model {
+		final SplittableRandom random;
+		final int numVertices;
+
+		Model(SplittableRandom random, int numVertices) {
+			this.random = random;
+			this.numVertices = numVertices;
+		}
+
+		/** Next pair, packed (u << 32) | v; may be a self-loop */
+		abstract long next();
+
+		static Model create(Configuration conf, SplittableRandom random) {
+			int n = conf.getInt(VERTICES_KEY, 1 << 20);
+			String model = conf.get(MODEL_KEY, "rmat");
+			switch (model) {
+			case "rmat":
+				return new RMat(random, n, conf.getDouble(RMAT_A_KEY, 0.57),
+						conf.getDouble(RMAT_B_KEY, 0.19), conf.getDouble(RMAT_C_KEY, 0.19));
+			case "er":
+				return new Model(random, n) {
+					long next() {
+						return CsrGraph.pack(random.nextInt(numVertices), random.nextInt(numVertices));
+					}
+				};
+			case "chunglu":
+				return new ChungLu(random, n, conf.getDouble(GAMMA_KEY, 2.1));
+			default:
+				throw new IllegalArgumentException("Unknown " + MODEL_KEY + ": " + model + " (rmat, er, chunglu)");
+			}
+		}
+
+		/** Vertex ID space of the model (planted vertices start here) */
+		int idSpace() {
+			return numVertices;
+		}
+	}
+
+	static class RMat extends Model {
+		final int scale;
+		final double a;
+		final double ab;
+		final double abc;
+
+		RMat(SplittableRandom random, int numVertices, double a, double b, double c) {
+			super(random, numVertices);
+			this.scale = 32 - Integer.numberOfLeadingZeros(Math.max(1, numVertices - 1));
+			this.a = a;
+			this.ab = a + b;
+			this.abc = a + b + c;
+		}
+
+		long next() {
+			int u = 0;
+			int v = 0;
+			for (int bit = scale - 1; bit >= 0; bit--) {
+				double r = random.nextDouble();
+				if (r >= abc) {
+					u |= 1 << bit;
+					v |= 1 << bit;
+				} else if (r >= ab) {
+					u |= 1 << bit;
+				} else if (r >= a) {
+					v |= 1 << bit;
+				}
+			}
+			return CsrGraph.pack(u, v);
+		}
+
+		int idSpace() {
+			return 1 << scale;
+		}
+	}
+
+	static class ChungLu extends Model {
+		final double exponent;   // 1 - beta, weight (i + 1)^-beta
+		final double top;        // (n + 1)^(1 - beta) - 1
+
+		ChungLu(SplittableRandom random, int numVertices, double gamma) {
+			super(random, numVertices);
+			if (gamma <= 2) {
+				throw new IllegalArgumentException(GAMMA_KEY + " must be > 2: " + gamma);
+			}
+			this.exponent = 1 - 1 / (gamma - 1);
+			this.top = Math.pow(numVertices + 1, exponent) - 1;
+		}
+
+		/** Inverse CDF of the continuous weight density: P(i) ~ (i + 1)^-beta */
+		int endpoint() {
+			double x = Math.pow(1 + random.nextDouble() * top, 1 / exponent) - 1;
+			return (int) Math.min(numVertices - 1, (long) x);
+		}
+
+		long next() {
+			return CsrGraph.pack(endpoint(), endpoint());
+		}
+	}
+
+	/**
+	 * Mapper: one record per task (its index) -> that task's share of edges
+	 * and planted triangles
+	 */
+	public static class GeneratorMapper extends Mapper<IntWritable, NullWritable, IntPairWritable, NullWritable> {
+
+		private IntPairWritable ok = new IntPairWritable();
+		private boolean binary;
+
+		@Override
+		protected void map(IntWritable key, NullWritable value, Context context)
+				throws IOException, InterruptedException {
+			Configuration conf = context.getConfiguration();
+			int task = key.get();
+			int tasks = conf.getInt(TASKS_KEY, 4);
+			long numEdges = conf.getLong(EDGES_KEY, 16L * conf.getInt(VERTICES_KEY, 1 << 20));
+			long planted = conf.getLong(PLANTED_KEY, 0);
+			binary = "binary".equals(conf.get(FORMAT_KEY, "text"));
+
+			SplittableRandom random = new SplittableRandom(conf.getLong(SEED_KEY, 1) * 0x9E3779B97F4A7C15L + task);
+			Model model = Model.create(conf, random);
+			boolean bipartite = planted > 0;
+
+			for (long i = share(numEdges, tasks, task); i > 0; i--) {
+				long e = nextEdge(model, bipartite);
+				emit(CsrGraph.first(e), CsrGraph.second(e), context);
+				if ((i & 0xFFFFF) == 0) context.progress();
+			}
+
+			// + 1: the odd fix-up of the second endpoint may reach idSpace itself
+			long c = model.idSpace() + 1L + first(planted, tasks, task);
+			for (long i = share(planted, tasks, task); i > 0; i--, c++) {
+				if (c > Integer.MAX_VALUE) {
+					throw new IOException("Planted vertex IDs exceed the int range");
+				}
+				long e = nextEdge(model, true);
+				int a = CsrGraph.first(e);
+				int b = CsrGraph.second(e);
+				emit(a, b, context);
+				emit(a, (int) c, context);
+				emit(b, (int) c, context);
+			}
+		}
+
+		/** Next non-loop pair; bipartite: first endpoint even, second odd */
+		private static long nextEdge(Model model, boolean bipartite) {
+			while (true) {
+				long e = model.next();
+				int u = CsrGraph.first(e);
+				int v = CsrGraph.second(e);
+				if (bipartite) {
+					u &= ~1;
+					v |= 1;
+				}
+				if (u != v) return CsrGraph.pack(u, v);
+			}
+		}
+
+		private void emit(int u, int v, Context context) throws IOException, InterruptedException {
+			if (binary && u > v) {
+				ok.set(v, u);  // the binary store is oriented u < v
+			} else {
+				ok.set(u, v);
+			}
+			context.write(ok, NullWritable.get());
+		}
+	}
+
+	/** Number of the total items generated by task t of n */
+	static long share(long total, int tasks, int t) {
+		return total / tasks + (t < total % tasks ? 1 : 0);
+	}
+
+	/** Index of the first item of task t of n */
+	static long first(long total, int tasks, int t) {
+		return t * (total / tasks) + Math.min(t, total % tasks);
+	}
+
+	/**
+	 * generator.tasks splits without input, one record (the task index) each
+	 */
+	public static class GeneratorInputFormat extends InputFormat<IntWritable, NullWritable> {
+
+		@Override
+		public List<InputSplit> getSplits(JobContext context) {
+			int tasks = context.getConfiguration().getInt(TASKS_KEY, 4);
+			List<InputSplit> splits = new ArrayList<>();
+			for (int t = 0; t < tasks; t++) {
+				splits.add(new TaskSplit(t));
+			}
+			return splits;
+		}
+
+		@Override
+		public RecordReader<IntWritable, NullWritable> createRecordReader(InputSplit split, TaskAttemptContext context) {
+			return new RecordReader<IntWritable, NullWritable>() {
+				private final IntWritable key = new IntWritable();
+				private boolean done;
+
+				@Override
+				public void initialize(InputSplit split, TaskAttemptContext context) {
+					key.set(((TaskSplit) split).task);
+				}
+
+				@Override
+				public boolean nextKeyValue() {
+					if (done) return false;
+					done = true;
+					return true;
+				}
+
+				@Override
+				public IntWritable getCurrentKey() {
+					return key;
+				}
+
+				@Override
+				public NullWritable getCurrentValue() {
+					return NullWritable.get();
+				}
+
+				@Override
+				public float getProgress() {
+					return done ? 1.0f : 0.0f;
+				}
+
+				@Override
+				public void close() {
+				}
+			};
+		}
+	}
+
+	public static class TaskSplit extends InputSplit implements Writable {
+		int task;
+
+		public TaskSplit() {
+		}
+
+		TaskSplit(int task) {
+			this.task = task;
+		}
+
+		@Override
+		public long getLength() {
+			return 0;
+		}
+
+		@Override
+		public String[] getLocations() {
+			return new String[0];
+		}
+
+		public void write(DataOutput out) throws IOException {
+			out.writeInt(task);
+		}
+
+		public void readFields(DataInput in) throws IOException {
+			task = in.readInt();
+		}
+	}
+
+	public int run(String[] args) throws Exception {
+
+		Configuration conf = getConf();
+		boolean binary = "binary".equals(conf.get(FORMAT_KEY, "text"));
+		String outputPath = binary ? args[0] + ".edges" : args[0];
+		long planted = conf.getLong(PLANTED_KEY, 0);
+
+		Job job = Job.getInstance(conf);
+		job.setJobName("GraphGenerator-" + conf.get(MODEL_KEY, "rmat"));
+		job.setJarByClass(GraphGenerator.class);
+
+		job.setMapperClass(GeneratorMapper.class);
+		job.setNumReduceTasks(0);
+
+		job.setOutputKeyClass(IntPairWritable.class);
+		job.setOutputValueClass(NullWritable.class);
+
+		job.setInputFormatClass(GeneratorInputFormat.class);
+		job.setOutputFormatClass(binary ? BinaryEdgeOutputFormat.class : TextOutputFormat.class);
+
+		FileOutputFormat.setOutputPath(job, new Path(outputPath));
+
+		long start = System.currentTimeMillis();
+		JobMetrics.waitForCompletion(job);
+
+		Path output = new Path(outputPath);
+		try (BufferedWriter out = new BufferedWriter(new OutputStreamWriter(
+				output.getFileSystem(conf).create(new Path(output, INFO_FILE)), StandardCharsets.UTF_8))) {
+			int n = conf.getInt(VERTICES_KEY, 1 << 20);
+			out.write(MODEL_KEY + "\t" + conf.get(MODEL_KEY, "rmat")); out.newLine();
+			out.write(VERTICES_KEY + "\t" + n); out.newLine();
+			out.write(EDGES_KEY + "\t" + conf.getLong(EDGES_KEY, 16L * n)); out.newLine();
+			out.write(SEED_KEY + "\t" + conf.getLong(SEED_KEY, 1)); out.newLine();
+			out.write(TASKS_KEY + "\t" + conf.getInt(TASKS_KEY, 4)); out.newLine();
+			out.write(FORMAT_KEY + "\t" + (binary ? "binary" : "text")); out.newLine();
+			if (planted > 0) {
+				out.write("triangles\t" + planted); out.newLine();
+			}
+		}
+
+		System.out.println("Generated " + outputPath + " (" + (System.currentTimeMillis() - start) + " ms)"
+				+ (planted > 0 ? ", exactly " + planted + " triangles" : ""));
+		return 0;
+	}
+}
@@ -0,0 +1,284 @@
+package trianglecount;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.mapreduce.Job;
+import org.apache.hadoop.mapreduce.MRJobConfig;
+import org.apache.hadoop.mapreduce.TaskAttemptID;
+import org.apache.hadoop.mapreduce.TaskID;
+import org.apache.hadoop.mapreduce.TaskInputOutputContext;
+import org.apache.hadoop.mapreduce.lib.output.FileOutputFormat;
+
+/**
+ * GroupSkew - Reduce group sizes and task times, merged into a per-job skew report
+ *
+ * Purpose: Show which reduce groups make a step slow before tuning hub splitting
+ *          (WedgeSkew) or partitioning (PartitionMode).
+ *
+ * Enabled with -D group.skew.report=true. Every job run through
+ * JobMetrics.waitForCompletion then gets group.skew.dir = <output>.skew, and the
+ * instrumented reducers record per task:
+ * - the number of values of every group in log2 buckets: [1, 2), [2, 4), [4, 8), ...
+ * - the largest group.skew.top (default 20) groups: key and number of values
+ * - the task's reduce wall time (setup to cleanup), groups and values
+ * and write them to <output>.skew/<attempt id> in cleanup. Reduce speculation
+ * is turned off for the job, so the last attempt of every task is the one
+ * that succeeded; after the job those files are merged into
+ * <output>.skew/report.txt and a summary is printed. A job whose reducer is
+ * not instrumented gets a note instead; map-only jobs are skipped.
+ *
+ * Instrumented reducers and their group size:
+ * - wedge steps: WedgeReducer, WedgeBloomReducer, WedgeJoinReducer,
+ *   WedgeAdjacencyReducer (neighbors per center), SaltedWedgeReducer
+ *   (neighbors per center block pair)
+ * - degree step: DegreeReducer, StreamingDegreeReducer, DegreeAdjacencyReducer
+ *   (edges per vertex)
+ * - triangle step: TriangleReducer, StreamingTriangleReducer,
+ *   TriangleTallyReducer (edge markers + wedge values per pair)
+ *
+ * Usage: hadoop jar triangle_count.jar trianglecount.DegreeOptDriver -D group.skew.report=true <input>
+ */
+public class GroupSkew {
+
+	public static final String ENABLED_KEY = "group.skew.report";
+	public static final String TOP_KEY = "group.skew.top";
+	static final String DIR_KEY = "group.skew.dir";
+
+	static final int BUCKETS = 64;
+
+	public static boolean isEnabled(Configuration conf) {
+		return conf.getBoolean(ENABLED_KEY, false);
+	}
+
+	/**
+	 * Point the job's instrumented reducers at <output>.skew and turn off reduce
+	 * speculation (before submission)
+	 * @return the skew directory, or null if disabled, map-only or without an output path
+	 */
+	static Path configure(Job job) throws IOException {
+		Path output = FileOutputFormat.getOutputPath(job);
+		if (!isEnabled(job.getConfiguration()) || output == null || job.getNumReduceTasks() == 0) {
+			return null;
+		}
+		Path dir = new Path(output.getParent(), output.getName() + ".skew");
+		dir.getFileSystem(job.getConfiguration()).delete(dir, true);
+		job.getConfiguration().set(DIR_KEY, dir.toString());
+		job.setReduceSpeculativeExecution(false);
+		return dir;
+	}
+
+	/**
+	 * Task-side recorder for one reduce task, null if the report is disabled
+	 */
+	public static Recorder recorder(TaskInputOutputContext<?, ?, ?, ?> context) {
+		String dir = context.getConfiguration().get(DIR_KEY);
+		return dir == null ? null : new Recorder(new Path(dir), context.getConfiguration().getInt(TOP_KEY, 20));
+	}
+
+	/** Log2 bucket of a group size >= 1 */
+	static int bucket(long size) {
+		return 63 - Long.numberOfLeadingZeros(Math.max(1, size));
+	}
+
+	/**
+	 * Group sizes of one task: histogram, largest groups and wall time
+	 */
+	public static class Recorder {
+
+		private final Path dir;
+		private final int top;
+		private final long start = System.currentTimeMillis();
+		private final long[] groups = new long[BUCKETS];
+		private final long[] values = new long[BUCKETS];
+		private final PriorityQueue<Group> largest = new PriorityQueue<>();
+
+		Recorder(Path dir, int top) {
+			this.dir = dir;
+			this.top = top;
+		}
+
+		/**
+		 * Record one group; the key is only converted to text if it is among the largest
+		 */
+		public void add(Object key, long size) {
+			int b = bucket(size);
+			groups[b]++;
+			values[b] += size;
+			if (largest.size() < top) {
+				largest.add(new Group(key.toString(), size));
+			} else if (top > 0 && size > largest.peek().size) {
+				largest.poll();
+				largest.add(new Group(key.toString(), size));
+			}
+		}
+
+		/**
+		 * Write the task file: "task", "bucket" and "top" lines
+		 */
+		public void close(TaskInputOutputContext<?, ?, ?, ?> context) throws IOException {
+			long wallMs = System.currentTimeMillis() - start;
+			long totalGroups = 0;
+			long totalValues = 0;
+			for (int b = 0; b < BUCKETS; b++) {
+				totalGroups += groups[b];
+				totalValues += values[b];
+			}
+
+			String task = context.getTaskAttemptID().getTaskID().toString();
+			Path file = new Path(dir, context.getTaskAttemptID().toString());
+			try (BufferedWriter out = new BufferedWriter(new OutputStreamWriter(
+					file.getFileSystem(context.getConfiguration()).create(file, true), StandardCharsets.UTF_8))) {
+				out.write("task\t" + task + "\t" + wallMs + "\t" + totalGroups + "\t" + totalValues);
+				out.newLine();
+				for (int b = 0; b < BUCKETS; b++) {
+					if (groups[b] > 0) {
+						out.write("bucket\t" + b + "\t" + groups[b] + "\t" + values[b]);
+						out.newLine();
+					}
+				}
+				for (Group g : largest) {
+					out.write("top\t" + g.key.replace('\t', ',') + "\t" + g.size);
+					out.newLine();
+				}
+			}
+		}
+	}
+
+	static class Group implements Comparable<Group> {
+		final String key;
+		final long size;
+
+		Group(String key, long size) {
+			this.key = key;
+			this.size = size;
+		}
+
+		public int compareTo(Group o) {
+			return Long.compare(size, o.size);
+		}
+	}
+
+	/**
+	 * Merge the task files of a finished job into <dir>/report.txt and print a summary
+	 */
+	static void report(Job job, Path dir) throws IOException {
+		Configuration conf = job.getConfiguration();
+		FileSystem fs = dir.getFileSystem(conf);
+		if (!fs.exists(dir)) {
+			System.out.println("Group skew: " + job.getJobName() + " has no instrumented reducer ("
+					+ conf.get(MRJobConfig.REDUCE_CLASS_ATTR) + "), no report");
+			return;
+		}
+
+		int top = conf.getInt(TOP_KEY, 20);
+		long[] groups = new long[BUCKETS];
+		long[] values = new long[BUCKETS];
+		List<String[]> tasks = new ArrayList<>();
+		PriorityQueue<Group> largest = new PriorityQueue<>();
+
+		for (Path file : lastAttempts(fs, dir)) {
+			try (BufferedReader in = new BufferedReader(new InputStreamReader(fs.open(file), StandardCharsets.UTF_8))) {
+				String line;
+				while ((line = in.readLine()) != null) {
+					String[] f = line.split("\t");
+					switch (f[0]) {
+					case "task":
+						tasks.add(f);
+						break;
+					case "bucket":
+						groups[Integer.parseInt(f[1])] += Long.parseLong(f[2]);
+						values[Integer.parseInt(f[1])] += Long.parseLong(f[3]);
+						break;
+					case "top":
+						largest.add(new Group(f[1], Long.parseLong(f[2])));
+						if (largest.size() > top) largest.poll();
+						break;
+					}
+				}
+			}
+		}
+		if (tasks.isEmpty()) {
+			return;
+		}
+
+		long maxMs = 0, sumMs = 0, maxValues = 0, sumValues = 0, totalGroups = 0;
+		for (String[] t : tasks) {
+			long ms = Long.parseLong(t[2]);
+			long v = Long.parseLong(t[4]);
+			maxMs = Math.max(maxMs, ms);
+			sumMs += ms;
+			maxValues = Math.max(maxValues, v);
+			sumValues += v;
+			totalGroups += Long.parseLong(t[3]);
+		}
+		double meanMs = (double) sumMs / tasks.size();
+		double meanValues = (double) sumValues / tasks.size();
+
+		List<Group> sorted = new ArrayList<>(largest);
+		sorted.sort((a, b) -> Long.compare(b.size, a.size));
+		tasks.sort((a, b) -> Long.compare(Long.parseLong(b[2]), Long.parseLong(a[2])));
+
+		Path reportPath = new Path(dir, "report.txt");
+		try (BufferedWriter out = new BufferedWriter(new OutputStreamWriter(fs.create(reportPath, true), StandardCharsets.UTF_8))) {
+			out.write("job\t" + job.getJobName() + "\n");
+			out.write("groups\t" + totalGroups + "\tvalues\t" + sumValues + "\n");
+			out.write(String.format("tasks\t%d\twall_ms max\t%d\tmean\t%.1f\tmax/mean\t%.3f%n",
+					tasks.size(), maxMs, meanMs, meanMs == 0 ? 0 : maxMs / meanMs));
+			out.write(String.format("task values\tmax\t%d\tmean\t%.1f\tmax/mean\t%.3f%n",
+					maxValues, meanValues, meanValues == 0 ? 0 : maxValues / meanValues));
+			out.write("\n# values per group (log2 buckets): from\tto\tgroups\tvalues\n");
+			for (int b = 0; b < BUCKETS; b++) {
+				if (groups[b] > 0) {
+					out.write((1L << b) + "\t" + ((1L << b) * 2 - 1) + "\t" + groups[b] + "\t" + values[b] + "\n");
+				}
+			}
+			out.write("\n# largest groups: key\tvalues\n");
+			for (Group g : sorted) {
+				out.write(g.key + "\t" + g.size + "\n");
+			}
+			out.write("\n# tasks by wall time: task\twall_ms\tgroups\tvalues\n");
+			for (String[] t : tasks) {
+				out.write(t[1] + "\t" + t[2] + "\t" + t[3] + "\t" + t[4] + "\n");
+			}
+		}
+
+		System.out.println(String.format("Group skew: %d tasks, wall ms max %d / mean %.1f, values max %d / mean %.1f%s -> %s",
+				tasks.size(), maxMs, meanMs, maxValues, meanValues,
+				sorted.isEmpty() ? "" : ", largest group " + sorted.get(0).key + " (" + sorted.get(0).size + ")",
+				reportPath));
+	}
+
+	/**
+	 * Task files of the last attempt of every task (earlier attempts failed)
+	 */
+	static List<Path> lastAttempts(FileSystem fs, Path dir) throws IOException {
+		Map<TaskID, TaskAttemptID> last = new HashMap<>();
+		for (FileStatus status : fs.listStatus(dir)) {
+			if (!status.getPath().getName().startsWith("attempt_")) continue;
+			TaskAttemptID attempt = TaskAttemptID.forName(status.getPath().getName());
+			TaskAttemptID previous = last.get(attempt.getTaskID());
+			if (previous == null || previous.getId() < attempt.getId()) {
+				last.put(attempt.getTaskID(), attempt);
+			}
+		}
+		List<Path> files = new ArrayList<>();
+		for (TaskAttemptID attempt : last.values()) {
+			files.add(new Path(dir, attempt.toString()));
+		}
+		return files;
+	}
+}
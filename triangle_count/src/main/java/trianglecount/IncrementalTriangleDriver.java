@@ -0,0 +1,287 @@
+package trianglecount;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.hadoop.conf.Configured;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapred.FileAlreadyExistsException;
+import org.apache.hadoop.util.LineReader;
+import org.apache.hadoop.util.Tool;
+import org.apache.hadoop.util.ToolRunner;
+
+/**
+ * IncrementalTriangleDriver - Update a triangle count for edge insertions and deletions
+ *
+ * Input:
+ * - previous result: "triangles	n" lines (count-only output, summed over parts)
+ *   or a triangle listing (one line per triangle); default <input>.out_degree
+ * - edge index: SymmetricEdgeIndex of the graph the result was computed on,
+ *   default <input>.edgeindex, built once from <input>.normalized if missing;
+ *   a previous incremental result names its own index instead (see Output)
+ * - delta file: one change per line, "+ u v" (insert) or "- u v" (delete)
+ *
+ * Algorithm: the current graph is the base index plus an overlay of sorted
+ * directed keys: edges added to it and base edges removed from it
+ * (SortedLongSet, loaded from the previous result). Changes are applied in
+ * file order. Inserting (u, v) creates one triangle per common neighbor of u
+ * and v, deleting it destroys as many; the common neighbors are found by
+ * scanning the smaller neighborhood and probing the other side, so the work
+ * is bounded by the delta's neighborhoods. Inserting an existing edge or
+ * deleting a missing one is ignored.
+ *
+ * Output: <delta>.out_incremental
+ * - part-r-00000: "triangles	n" first, then previous, created, destroyed,
+ *                 inserted, deleted (changes applied), ignored
+ * - _INDEX:       path of the base index the overlay applies to
+ * - added.idx, removed.idx: the overlay, same format as the index; writing
+ *                 it costs the overlay size, not the graph size
+ * - edges.idx:    only when the overlay grew past incremental.compact.fraction
+ *                 (default 0.1) of the base edges: base and overlay merged in
+ *                 one sequential pass; it becomes the base, the overlay is empty
+ * Chain the next delta with -D incremental.previous=<delta>.out_incremental;
+ * keep the directory of the base index named in _INDEX until a later run compacts.
+ *
+ * Usage: hadoop jar triangle_count.jar trianglecount.IncrementalTriangleDriver <input> <delta>
+ */
+public class IncrementalTriangleDriver extends Configured implements Tool {
+
+	public static final String PREVIOUS_KEY = "incremental.previous";
+	public static final String INDEX_KEY = "incremental.index";
+	public static final String COMPACT_KEY = "incremental.compact.fraction";
+
+	static final String INDEX_FILE = "_INDEX";
+	static final String ADDED_FILE = "added.idx";
+	static final String REMOVED_FILE = "removed.idx";
+	static final String COMPACTED_FILE = "edges.idx";
+
+	private SymmetricEdgeIndex base;
+	private SortedLongSet added = new SortedLongSet();    // directed keys, not in base
+	private SortedLongSet removed = new SortedLongSet();  // directed keys, in base
+	private final SortedLongSet.Cursor cursor = new SortedLongSet.Cursor();
+
+	public static void main(String[] args) throws Exception {
+		ToolRunner.run(new IncrementalTriangleDriver(), args);
+	}
+
+	public int run(String[] args) throws Exception {
+
+		String inputPath = args[0];
+		String deltaPath = args[1];
+		String previousPath = getConf().get(PREVIOUS_KEY, inputPath + ".out_degree");
+		String outputPath = deltaPath + ".out_incremental";
+
+		FileSystem fs = FileSystem.get(getConf());
+		Path output = new Path(outputPath);
+		if (fs.exists(output)) {
+			throw new FileAlreadyExistsException("Output directory " + output + " already exists");
+		}
+
+		long start = System.currentTimeMillis();
+		Path previous = new Path(previousPath);
+		Path indexPath = readIndexPath(fs, previous);
+		if (indexPath != null) {
+			added = readOverlay(fs, new Path(previous, ADDED_FILE));
+			removed = readOverlay(fs, new Path(previous, REMOVED_FILE));
+		} else {
+			indexPath = new Path(getConf().get(INDEX_KEY, inputPath + ".edgeindex"));
+			if (!fs.exists(indexPath)) {
+				SymmetricEdgeIndex.build(getConf(), inputPath + ".normalized", indexPath.toString());
+			}
+		}
+		base = SymmetricEdgeIndex.load(getConf(), indexPath);
+		long previousCount = readPreviousCount(fs, previous);
+
+		long created = 0;
+		long destroyed = 0;
+		long inserted = 0;
+		long deleted = 0;
+		long ignored = 0;
+		long changes = 0;
+		Path delta = new Path(deltaPath);
+		try (LineReader reader = new LineReader(delta.getFileSystem(getConf()).open(delta))) {
+			EdgeLineParser parser = new EdgeLineParser();
+			Text line = new Text();
+			while (reader.readLine(line) > 0) {
+				byte[] bytes = line.getBytes();
+				int end = line.getLength();
+				int pos = 0;
+				while (pos < end && (bytes[pos] == ' ' || bytes[pos] == '\t')) pos++;
+				if (pos == end || bytes[pos] == '#') continue;
+
+				byte op = bytes[pos];
+				if ((op != '+' && op != '-') || !parser.parse(bytes, pos + 1, end)) {
+					System.err.println("Skipping malformed delta line: " + line);
+					continue;
+				}
+				int u = parser.getFirst();
+				int v = parser.getSecond();
+				changes++;
+				if (u == v) {
+					ignored++;
+				} else if (op == '+') {
+					if (contains(u, v)) {
+						ignored++;
+					} else {
+						created += commonNeighbors(u, v);
+						insert(u, v);
+						inserted++;
+					}
+				} else {
+					if (!contains(u, v)) {
+						ignored++;
+					} else {
+						delete(u, v);
+						deleted++;
+						destroyed += commonNeighbors(u, v);
+					}
+				}
+			}
+		}
+		long triangles = previousCount + created - destroyed;
+		long elapsed = System.currentTimeMillis() - start;
+
+		long overlayEdges = (added.size() + removed.size()) / 2;
+		long edges = base.numEdges() + (added.size() - removed.size()) / 2;
+		if (overlayEdges > getConf().getFloat(COMPACT_KEY, 0.1f) * base.numEdges()) {
+			indexPath = new Path(output, COMPACTED_FILE);
+			try (OutputStream out = fs.create(indexPath)) {
+				base.writeUpdated(out, added, removed);
+			}
+			System.out.println("Edge index compacted: " + overlayEdges + " overlay edges merged -> " + indexPath);
+		} else {
+			try (OutputStream out = fs.create(new Path(output, ADDED_FILE))) {
+				SymmetricEdgeIndex.write(out, added);
+			}
+			try (OutputStream out = fs.create(new Path(output, REMOVED_FILE))) {
+				SymmetricEdgeIndex.write(out, removed);
+			}
+		}
+		try (BufferedWriter out = new BufferedWriter(new OutputStreamWriter(
+				fs.create(new Path(output, INDEX_FILE)), StandardCharsets.UTF_8))) {
+			out.write(fs.makeQualified(indexPath).toString()); out.newLine();
+		}
+		try (BufferedWriter out = new BufferedWriter(new OutputStreamWriter(
+				fs.create(new Path(output, "part-r-00000")), StandardCharsets.UTF_8))) {
+			out.write("triangles\t" + triangles); out.newLine();
+			out.write("previous\t" + previousCount); out.newLine();
+			out.write("created\t" + created); out.newLine();
+			out.write("destroyed\t" + destroyed); out.newLine();
+			out.write("inserted\t" + inserted); out.newLine();
+			out.write("deleted\t" + deleted); out.newLine();
+			out.write("ignored\t" + ignored); out.newLine();
+		}
+		fs.create(new Path(output, "_SUCCESS")).close();
+
+		System.out.println("Changes: " + changes + " (+" + created + " / -" + destroyed + " triangles, "
+				+ ignored + " ignored, " + elapsed + " ms), edges now " + edges);
+		System.out.println("Triangles: " + triangles);
+		return 0;
+	}
+
+	/**
+	 * Base index named by a previous incremental result, null for any other result
+	 */
+	static Path readIndexPath(FileSystem fs, Path previous) throws IOException {
+		Path file = new Path(previous, INDEX_FILE);
+		if (!fs.exists(file) || !fs.getFileStatus(file).isFile()) {
+			return null;
+		}
+		try (BufferedReader in = new BufferedReader(new InputStreamReader(fs.open(file), StandardCharsets.UTF_8))) {
+			return new Path(in.readLine().trim());
+		}
+	}
+
+	private SortedLongSet readOverlay(FileSystem fs, Path file) throws IOException {
+		return fs.exists(file) ? SymmetricEdgeIndex.load(getConf(), file).toSet() : new SortedLongSet();
+	}
+
+	/**
+	 * Previous total: sum of "triangles	n" lines, or the number of lines of a listing
+	 */
+	static long readPreviousCount(FileSystem fs, Path path) throws IOException {
+		long summed = 0;
+		long listed = 0;
+		boolean counted = false;
+		for (FileStatus part : CsrGraph.listInputFiles(fs, path)) {
+			if (part.isDirectory() || part.getPath().getName().endsWith(".idx")) continue;
+			try (BufferedReader in = new BufferedReader(new InputStreamReader(
+					fs.open(part.getPath()), StandardCharsets.UTF_8))) {
+				String line;
+				while ((line = in.readLine()) != null) {
+					if (line.startsWith("triangles\t")) {
+						summed += Long.parseLong(line.substring("triangles\t".length()).trim());
+						counted = true;
+					} else if (!line.trim().isEmpty()) {
+						listed++;
+					}
+				}
+			}
+		}
+		return counted ? summed : listed;
+	}
+
+	// ---- current graph = base index - removed + added ----------------------
+
+	private boolean contains(int x, int y) {
+		long key = CsrGraph.pack(x, y);
+		if (added.contains(key)) return true;
+		return !removed.contains(key) && base.contains(x, y);
+	}
+
+	private void insert(int u, int v) {
+		if (removed.remove(CsrGraph.pack(u, v))) {  // re-inserting a removed base edge restores it
+			removed.remove(CsrGraph.pack(v, u));
+		} else {
+			added.add(CsrGraph.pack(u, v));
+			added.add(CsrGraph.pack(v, u));
+		}
+	}
+
+	private void delete(int u, int v) {
+		if (added.remove(CsrGraph.pack(u, v))) {
+			added.remove(CsrGraph.pack(v, u));
+		} else {
+			removed.add(CsrGraph.pack(u, v));
+			removed.add(CsrGraph.pack(v, u));
+		}
+	}
+
+	/** Neighbors of x in the added overlay */
+	private int addedDegree(int x) {
+		int n = 0;
+		for (added.seek(CsrGraph.pack(x, 0), cursor); cursor.hasNext() && CsrGraph.first(cursor.peek()) == x; cursor.next()) {
+			n++;
+		}
+		return n;
+	}
+
+	/**
+	 * Number of common neighbors of u and v in the current graph:
+	 * scan the smaller neighborhood, probe edges to the other endpoint
+	 */
+	private long commonNeighbors(int u, int v) {
+		int sizeU = base.neighborEnd(u) - base.neighborStart(u) + addedDegree(u);
+		int sizeV = base.neighborEnd(v) - base.neighborStart(v) + addedDegree(v);
+		int x = sizeU <= sizeV ? u : v;
+		int other = x == u ? v : u;
+
+		long common = 0;
+		for (int i = base.neighborStart(x), end = base.neighborEnd(x); i < end; i++) {
+			int w = base.neighborAt(i);
+			if (!removed.contains(CsrGraph.pack(x, w)) && contains(w, other)) common++;
+		}
+		for (added.seek(CsrGraph.pack(x, 0), cursor); cursor.hasNext() && CsrGraph.first(cursor.peek()) == x; ) {
+			if (contains(CsrGraph.second(cursor.next()), other)) common++;
+		}
+		return common;
+	}
+}
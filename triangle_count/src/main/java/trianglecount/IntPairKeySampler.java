@@ -0,0 +1,115 @@
+package trianglecount;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.SequenceFile;
+
+/**
+ * IntPairKeySampler - Random sample of the IntPairWritable keys of a SequenceFile input
+ * 
+ * Purpose: Split points for range partitioning (see PartitionMode) without a
+ *          full pass over large inputs such as the wedge files.
+ * 
+ * Algorithm (per part file, samples proportional to file length):
+ * - Small files (<= SCAN_BYTES): reservoir sample over all keys
+ * - Large files: stratified random offsets, sync to the next record
+ *   boundary and read a short run of keys from each
+ * 
+ * Keys are returned packed into longs in IntPairWritable sort order (see pack()).
+ */
+public class IntPairKeySampler {
+	
+	static final long SCAN_BYTES = 64L << 20;
+	static final int RUN_LENGTH = 16;
+	
+	public static final String SEED_KEY = "partition.sample.seed";
+	
+	/**
+	 * @return sorted packed keys, about sampleSize of them
+	 */
+	public static long[] sample(Configuration conf, String inputPath, int sampleSize) throws IOException {
+		Path path = new Path(inputPath);
+		FileSystem fs = path.getFileSystem(conf);
+		FileStatus[] files = CsrGraph.listInputFiles(fs, path);
+		Random random = new Random(conf.getLong(SEED_KEY, 0x5EED));
+		
+		long totalBytes = 0;
+		for (FileStatus file : files) {
+			totalBytes += file.getLen();
+		}
+		
+		long[] samples = new long[0];
+		int n = 0;
+		for (FileStatus file : files) {
+			if (file.getLen() == 0) continue;
+			int quota = (int) Math.ceil((double) sampleSize * file.getLen() / totalBytes);
+			long[] part = file.getLen() <= SCAN_BYTES
+					? reservoir(conf, file.getPath(), quota, random)
+					: seekRuns(conf, file, quota, random);
+			samples = Arrays.copyOf(samples, n + part.length);
+			System.arraycopy(part, 0, samples, n, part.length);
+			n += part.length;
+		}
+		Arrays.sort(samples);
+		return samples;
+	}
+	
+	private static long[] reservoir(Configuration conf, Path file, int quota, Random random) throws IOException {
+		long[] reservoir = new long[quota];
+		long seen = 0;
+		IntPairWritable key = new IntPairWritable();
+		try (SequenceFile.Reader reader = new SequenceFile.Reader(conf, SequenceFile.Reader.file(file))) {
+			while (reader.next(key)) {
+				if (seen < quota) {
+					reservoir[(int) seen] = pack(key.getFirst(), key.getSecond());
+				} else {
+					long slot = (long) (random.nextDouble() * (seen + 1));
+					if (slot < quota) {
+						reservoir[(int) slot] = pack(key.getFirst(), key.getSecond());
+					}
+				}
+				seen++;
+			}
+		}
+		return Arrays.copyOf(reservoir, (int) Math.min(seen, quota));
+	}
+	
+	private static long[] seekRuns(Configuration conf, FileStatus file, int quota, Random random) throws IOException {
+		int runs = (quota + RUN_LENGTH - 1) / RUN_LENGTH;
+		long[] samples = new long[runs * RUN_LENGTH];
+		int n = 0;
+		IntPairWritable key = new IntPairWritable();
+		try (SequenceFile.Reader reader = new SequenceFile.Reader(conf, SequenceFile.Reader.file(file.getPath()))) {
+			long stride = file.getLen() / runs;
+			for (int r = 0; r < runs; r++) {
+				reader.sync(r * stride + (long) (random.nextDouble() * stride));
+				for (int i = 0; i < RUN_LENGTH && reader.next(key); i++) {
+					samples[n++] = pack(key.getFirst(), key.getSecond());
+				}
+			}
+		}
+		return Arrays.copyOf(samples, n);
+	}
+	
+	/**
+	 * Pack (u, v) so that signed long order equals IntPairWritable order
+	 * (signed u, then signed v)
+	 */
+	static long pack(int u, int v) {
+		return ((long) u << 32) | ((v ^ 0x80000000) & 0xFFFFFFFFL);
+	}
+	
+	static int first(long packed) {
+		return (int) (packed >> 32);
+	}
+	
+	static int second(long packed) {
+		return (int) packed ^ 0x80000000;
+	}
+}
@@ -0,0 +1,70 @@
+package trianglecount;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.apache.hadoop.conf.Configurable;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.io.SequenceFile;
+import org.apache.hadoop.mapreduce.Partitioner;
+
+/**
+ * IntPairRangePartitioner - Range partitioner over sampled split points (see PartitionMode)
+ * 
+ * Purpose: Partition i receives the keys in [split[i-1], split[i]), so each
+ *          reducer gets about the same number of records however the IDs
+ *          are distributed. Split points are read once per task from the
+ *          distributed cache.
+ */
+public class IntPairRangePartitioner<V> extends Partitioner<IntPairWritable, V> implements Configurable {
+	
+	private Configuration conf;
+	private long[] splits;
+	
+	@Override
+	public void setConf(Configuration conf) {
+		this.conf = conf;
+		try {
+			splits = readSplitPoints(conf, new Path(conf.get(PartitionMode.SPLIT_PATH_KEY)));
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Cannot read split points", e);
+		}
+	}
+	
+	@Override
+	public Configuration getConf() {
+		return conf;
+	}
+	
+	@Override
+	public int getPartition(IntPairWritable key, V value, int numReduceTasks) {
+		return partition(splits, key.getFirst(), key.getSecond(), numReduceTasks);
+	}
+	
+	/**
+	 * Number of split points <= (u, v)
+	 */
+	static int partition(long[] splits, int u, int v, int numReduceTasks) {
+		int pos = Arrays.binarySearch(splits, IntPairKeySampler.pack(u, v));
+		int partition = pos >= 0 ? pos + 1 : -(pos + 1);
+		return Math.min(partition, numReduceTasks - 1);
+	}
+	
+	static long[] readSplitPoints(Configuration conf, Path path) throws IOException {
+		FileSystem localFs = FileSystem.getLocal(conf);
+		Path local = localFs.makeQualified(new Path(CacheFiles.localFile(conf, path).getAbsolutePath()));
+		IntPairWritable key = new IntPairWritable();
+		long[] splits = new long[16];
+		int n = 0;
+		try (SequenceFile.Reader reader = new SequenceFile.Reader(conf, SequenceFile.Reader.file(local))) {
+			while (reader.next(key, NullWritable.get())) {
+				if (n == splits.length) splits = Arrays.copyOf(splits, n * 2);
+				splits[n++] = IntPairKeySampler.pack(key.getFirst(), key.getSecond());
+			}
+		}
+		return Arrays.copyOf(splits, n);
+	}
+}
@@ -5,6 +5,7 @@ import java.io.DataOutput;
 import java.io.IOException;
 
 import org.apache.hadoop.io.WritableComparable;
+import org.apache.hadoop.io.WritableComparator;
 
 public class IntPairWritable implements WritableComparable<IntPairWritable> {
 	
@@ -43,7 +44,46 @@ public class IntPairWritable implements WritableComparable<IntPairWritable> {
 		}
 	}
 	
+	@Override
+	public boolean equals(Object o) {
+		if (!(o instanceof IntPairWritable)) {
+			return false;
+		}
+		IntPairWritable other = (IntPairWritable) o;
+		return u == other.u && v == other.v;
+	}
+	
+	@Override
+	public int hashCode() {
+		return u * 163 + v;
+	}
+	
 	public String toString() {
 		return u + "\t" + v;
 	}
+	
+	/**
+	 * Raw comparator: compares the 8 serialized bytes (u, v as big-endian ints)
+	 * so the shuffle sort never deserializes keys.
+	 */
+	public static class Comparator extends WritableComparator {
+		
+		public Comparator() {
+			super(IntPairWritable.class);
+		}
+		
+		@Override
+		public int compare(byte[] b1, int s1, int l1, byte[] b2, int s2, int l2) {
+			int u1 = readInt(b1, s1);
+			int u2 = readInt(b2, s2);
+			if (u1 != u2) {
+				return Integer.compare(u1, u2);
+			}
+			return Integer.compare(readInt(b1, s1 + 4), readInt(b2, s2 + 4));
+		}
+	}
+	
+	static { // register raw comparator
+		WritableComparator.define(IntPairWritable.class, new Comparator());
+	}
 }
@@ -0,0 +1,141 @@
+package trianglecount;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.mapreduce.Counters;
+import org.apache.hadoop.mapreduce.Job;
+import org.apache.hadoop.mapreduce.TaskCounter;
+
+/**
+ * JobMetrics - Wall time and framework counters of every finished job
+ *
+ * Purpose: The drivers used to call job.waitForCompletion(true) and drop the
+ *          job's Counters. All pipeline jobs now run through
+ *          JobMetrics.waitForCompletion, which times the job and, when
+ *          -D metrics.log=<local file> is set, appends one tab-separated line
+ *          per job to that file:
+ *
+ *          job, succeeded, wall ms, reduce tasks, map input records,
+ *          map output records, shuffle bytes, spilled records,
+ *          reduce input groups, reduce output records
+ *
+ * A job that fails is still recorded (and ends the active PipelineReport as
+ * failed), then waitForCompletion throws an IOException naming it, so the
+ * driver stops at the failed step.
+ * Shuffle bytes are the reducers' REDUCE_SHUFFLE_BYTES (0 for map-only jobs).
+ * The log is read back with read() (ScalingBenchmark). Jobs finished while a
+ * PipelineReport is active are also kept in memory for that report; outside
+ * of one nothing is kept.
+ * With -D group.skew.report=true each job also gets a GroupSkew report.
+ *
+ * Usage: hadoop jar triangle_count.jar trianglecount.DegreeOptDriver -D metrics.log=/tmp/run.tsv <input>
+ */
+public class JobMetrics {
+
+	public static final String LOG_KEY = "metrics.log";
+
+	public static final String[] COLUMNS = { "job", "succeeded", "wall_ms", "reduce_tasks",
+			"map_input_records", "map_output_records", "shuffle_bytes", "spilled_records",
+			"reduce_input_groups", "reduce_output_records" };
+
+	private static final TaskCounter[] COUNTERS = { TaskCounter.MAP_INPUT_RECORDS,
+			TaskCounter.MAP_OUTPUT_RECORDS, TaskCounter.REDUCE_SHUFFLE_BYTES, TaskCounter.SPILLED_RECORDS,
+			TaskCounter.REDUCE_INPUT_GROUPS, TaskCounter.REDUCE_OUTPUT_RECORDS };
+
+	/**
+	 * A finished job: its COLUMNS values and all of its counters
+	 */
+	static class Finished {
+		final String[] values;
+		final Counters counters;
+
+		Finished(String[] values, Counters counters) {
+			this.values = values;
+			this.counters = counters;
+		}
+	}
+
+	/**
+	 * Run the job to completion (verbose, as before) and record its metrics
+	 * @throws IOException if the job did not succeed
+	 */
+	public static void waitForCompletion(Job job) throws IOException, InterruptedException, ClassNotFoundException {
+		Path skewDir = GroupSkew.configure(job);
+		long start = System.currentTimeMillis();
+		boolean succeeded = job.waitForCompletion(true);
+		long wallMs = System.currentTimeMillis() - start;
+		if (skewDir != null && succeeded) {
+			GroupSkew.report(job, skewDir);
+		}
+
+		Counters counters = job.getCounters();
+		String[] values = values(job, succeeded, wallMs, counters);
+		PipelineReport.add(new Finished(values, counters));
+		String log = job.getConfiguration().get(LOG_KEY);
+		if (log != null) {
+			append(new File(log), String.join("\t", values));
+		}
+		if (!succeeded) {
+			PipelineReport.fail();
+			throw new IOException("Job failed: " + job.getJobName());
+		}
+	}
+
+	/**
+	 * COLUMNS values of a finished job
+	 */
+	static String[] values(Job job, boolean succeeded, long wallMs, Counters counters) {
+		String[] values = new String[COLUMNS.length];
+		values[0] = job.getJobName();
+		values[1] = Boolean.toString(succeeded);
+		values[2] = Long.toString(wallMs);
+		values[3] = Integer.toString(job.getNumReduceTasks());
+		for (int i = 0; i < COUNTERS.length; i++) {
+			values[4 + i] = Long.toString(counters == null ? 0 : counters.findCounter(COUNTERS[i]).getValue());
+		}
+		return values;
+	}
+
+	private static synchronized void append(File log, String line) throws IOException {
+		try (BufferedWriter out = new BufferedWriter(new OutputStreamWriter(
+				new FileOutputStream(log, true), StandardCharsets.UTF_8))) {
+			out.write(line);
+			out.newLine();
+		}
+	}
+
+	/**
+	 * Lines of a metrics log, split into COLUMNS fields; none if the file is missing
+	 */
+	public static List<String[]> read(File log) throws IOException {
+		List<String[]> records = new ArrayList<>();
+		if (!log.isFile()) {
+			return records;
+		}
+		for (String line : Files.readAllLines(log.toPath(), StandardCharsets.UTF_8)) {
+			if (!line.isEmpty()) {
+				records.add(line.split("\t", -1));
+			}
+		}
+		return records;
+	}
+
+	/**
+	 * Metrics log setting for a run: a fresh local file
+	 */
+	public static File configureLog(Configuration conf, File log) {
+		log.delete();
+		conf.set(LOG_KEY, log.getAbsolutePath());
+		return log;
+	}
+}
@@ -0,0 +1,30 @@
+package trianglecount;
+
+import java.io.IOException;
+
+import org.apache.hadoop.io.IntWritable;
+import org.apache.hadoop.mapreduce.Reducer;
+
+/**
+ * LongPairSumCombiner - Component-wise sum of (degree, triangles) partial counts
+ * 
+ * Input:  (x, [(d1, t1), (d2, t2), ...])
+ * Output: (x, (d1 + d2 + ..., t1 + t2 + ...))
+ */
+public class LongPairSumCombiner extends Reducer<IntWritable, LongPairWritable, IntWritable, LongPairWritable> {
+	
+	private LongPairWritable sum = new LongPairWritable();
+	
+	@Override
+	protected void reduce(IntWritable key, Iterable<LongPairWritable> values, Context context)
+			throws IOException, InterruptedException {
+		long first = 0;
+		long second = 0;
+		for (LongPairWritable v : values) {
+			first += v.getFirst();
+			second += v.getSecond();
+		}
+		sum.set(first, second);
+		context.write(key, sum);
+	}
+}
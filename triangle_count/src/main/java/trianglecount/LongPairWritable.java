@@ -0,0 +1,45 @@
+package trianglecount;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import org.apache.hadoop.io.Writable;
+
+/**
+ * LongPairWritable - Pair of long counters, summed component-wise
+ * 
+ * Used as the value of the per-vertex statistics job (degree, triangles),
+ * see VertexStatsDriver. Serialized as two big-endian longs.
+ */
+public class LongPairWritable implements Writable {
+	
+	long first, second;
+	
+	public void set(long first, long second) {
+		this.first = first;
+		this.second = second;
+	}
+	
+	public long getFirst() {
+		return first;
+	}
+	
+	public long getSecond() {
+		return second;
+	}
+	
+	public void readFields(DataInput in) throws IOException {
+		first = in.readLong();
+		second = in.readLong();
+	}
+	
+	public void write(DataOutput out) throws IOException {
+		out.writeLong(first);
+		out.writeLong(second);
+	}
+	
+	public String toString() {
+		return first + "\t" + second;
+	}
+}
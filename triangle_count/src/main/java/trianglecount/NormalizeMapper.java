@@ -3,7 +3,6 @@ package trianglecount;
 import org.apache.hadoop.io.IntWritable;
 import org.apache.hadoop.io.Text;
 import org.apache.hadoop.mapreduce.Mapper;
-import java.util.StringTokenizer;
 import java.io.IOException;
 import trianglecount.IntPairWritable;
 
@@ -21,14 +20,17 @@ public class NormalizeMapper extends Mapper<Object, Text, IntPairWritable, IntWr
 	IntWritable out_value = new IntWritable(-1);
 	//Text out_value = new Text("$");
 	
+	EdgeLineParser parser = new EdgeLineParser();
 	int v1 = -1;
 	int v2 = -1;
+	long edges = 0;
+	long selfLoops = 0;
 	
 	protected void map(Object key, Text value, Mapper<Object, Text, IntPairWritable, IntWritable>.Context context) throws IOException, InterruptedException {
-		StringTokenizer st = new StringTokenizer(value.toString());
-		System.out.println("mapper1: "+ value);
-		v1 = Integer.parseInt(st.nextToken());
-		v2 = Integer.parseInt(st.nextToken());
+		if (!parser.parse(value, context)) return; // blank, comment or malformed line
+		v1 = parser.getFirst();
+		v2 = parser.getSecond();
+		edges++;
 		
 		if (v1 < v2) {
 			out_key.set(v1, v2);
@@ -38,5 +40,14 @@ public class NormalizeMapper extends Mapper<Object, Text, IntPairWritable, IntWr
 			out_key.set(v2,  v1);
 			context.write(out_key, out_value);
 		}
+		else {
+			selfLoops++;
+		}
+	}
+	
+	@Override
+	protected void cleanup(Context context) throws IOException, InterruptedException {
+		context.getCounter(PipelineCounter.EDGES_IN).increment(edges);
+		context.getCounter(PipelineCounter.SELF_LOOPS).increment(selfLoops);
 	}
 }
@@ -4,6 +4,7 @@ import org.apache.hadoop.io.IntWritable;
 import org.apache.hadoop.io.Text;
 import org.apache.hadoop.mapreduce.Reducer;
 import java.io.IOException;
+import java.util.Iterator;
 import trianglecount.IntPairWritable;
 
 /**
@@ -16,9 +17,20 @@ import trianglecount.IntPairWritable;
  */
 public class NormalizeReducer extends Reducer<IntPairWritable, IntWritable, IntPairWritable, Text> {
 	Text result = new Text("");
+	long duplicates = 0;
 
 	protected void reduce(IntPairWritable key, Iterable<IntWritable> values, Reducer<IntPairWritable, IntWritable, IntPairWritable, Text>.Context context) throws IOException, InterruptedException {
-		System.out.println("reducer1: " + key);	
+		Iterator<IntWritable> it = values.iterator();
+		it.next();  // the first copy is kept
+		while (it.hasNext()) {
+			it.next();
+			duplicates++;
+		}
 		context.write(key,  result);
 	}
+	
+	@Override
+	protected void cleanup(Context context) throws IOException, InterruptedException {
+		context.getCounter(PipelineCounter.DUPLICATE_EDGES).increment(duplicates);
+	}
 }
@@ -0,0 +1,35 @@
+package trianglecount;
+
+import java.io.IOException;
+
+import org.apache.hadoop.io.IntWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.Mapper;
+
+/**
+ * NormalizeSeqMapper - Edge normalization over the binary edge store (Task 1)
+ * 
+ * Purpose: Same as NormalizeMapper, but the edges were already parsed,
+ *          oriented (u < v) and stripped of self-loops by EdgeIngest.
+ *          Duplicates are still removed by NormalizeReducer.
+ * 
+ * Input:  ((u, v), "") - edge from BinaryEdgeInputFormat
+ * Output: ((u, v), -1) - normalized edge
+ */
+public class NormalizeSeqMapper extends Mapper<IntPairWritable, Text, IntPairWritable, IntWritable> {
+	
+	private IntWritable minusOne = new IntWritable(-1);
+	private long edges = 0;
+	
+	@Override
+	protected void map(IntPairWritable key, Text value, Context context)
+			throws IOException, InterruptedException {
+		edges++;
+		context.write(key, minusOne);
+	}
+	
+	@Override
+	protected void cleanup(Context context) throws IOException, InterruptedException {
+		context.getCounter(PipelineCounter.EDGES_IN).increment(edges);
+	}
+}
@@ -0,0 +1,46 @@
+package trianglecount;
+
+import java.io.IOException;
+
+/**
+ * OrientedGraph - Degree-oriented graph that LocalTriangleCounter can count on
+ *
+ * Implemented by the in-memory CsrGraph and the memory-mapped CsrGraphFile.
+ * Orientation follows ReorientReducer: low-degree -> high-degree, vertex ID
+ * as tiebreaker; out-neighbors are sorted by vertex ID.
+ */
+public interface OrientedGraph {
+
+	/** Number of vertex slots (largest vertex ID + 1) */
+	int numVertices();
+
+	/** Number of (oriented) edges */
+	long numEdges();
+
+	/** Undirected degree of u in the normalized graph */
+	int degree(int u);
+
+	int outDegree(int u);
+
+	/**
+	 * Callback for every triangle found by forEachTriangle
+	 */
+	interface TriangleVisitor {
+		/**
+		 * @param center vertex with out-edges to both a and b (the wedge center)
+		 * @param a closing-edge endpoint, a < b
+		 * @param b closing-edge endpoint
+		 */
+		void visit(int center, int a, int b) throws IOException;
+	}
+
+	/**
+	 * Visit each triangle exactly once, at its lowest-ranked vertex
+	 * @return number of triangles
+	 */
+	long forEachTriangle(TriangleVisitor visitor) throws IOException;
+
+	default long countTriangles() throws IOException {
+		return forEachTriangle(null);
+	}
+}
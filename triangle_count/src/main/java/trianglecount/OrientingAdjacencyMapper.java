@@ -0,0 +1,37 @@
+package trianglecount;
+
+import java.io.IOException;
+
+import org.apache.hadoop.io.Text;
+
+/**
+ * OrientingAdjacencyMapper - AdjacencyMapper over normalized edges (see ReorientMode)
+ * 
+ * Purpose: Neighbor blocks for the wedge step when edges are oriented map-side:
+ *          each edge is buffered in the direction given by the DegreeTable.
+ * 
+ * Input:  ((u, v), "") - normalized edge from SequenceFile
+ * Output: (low, [high1, high2, ...]) - sorted out-neighbors seen since the last flush
+ */
+public class OrientingAdjacencyMapper extends AdjacencyMapper {
+	
+	private DegreeTable degrees;
+	
+	@Override
+	protected void setup(Context context) throws IOException, InterruptedException {
+		super.setup(context);
+		degrees = DegreeTable.load(context.getConfiguration());
+	}
+	
+	@Override
+	protected void map(IntPairWritable key, Text value, Context context)
+			throws IOException, InterruptedException {
+		int u = key.getFirst();
+		int v = key.getSecond();
+		if (degrees.isOriented(u, v)) {
+			add(u, v, context);
+		} else {
+			add(v, u, context);
+		}
+	}
+}
@@ -0,0 +1,45 @@
+package trianglecount;
+
+import java.io.IOException;
+
+import org.apache.hadoop.io.IntWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.Mapper;
+
+/**
+ * OrientingWedgeMapper - Orient normalized edges by degree inside the wedge step
+ * 
+ * Purpose: Replaces ReorientMapper/ReorientReducer + WedgeSeqMapper (see ReorientMode).
+ *          Each edge is oriented low -> high degree (vertex ID on ties) by a
+ *          lookup in the memory-mapped DegreeTable.
+ * 
+ * Input:  ((u, v), "") - normalized edge from SequenceFile
+ * Output: (low, high) - source vertex as key, target as value
+ */
+public class OrientingWedgeMapper extends Mapper<IntPairWritable, Text, IntWritable, IntWritable> {
+	
+	IntWritable ok = new IntWritable();
+	IntWritable ov = new IntWritable();
+	
+	private DegreeTable degrees;
+	
+	@Override
+	protected void setup(Context context) throws IOException, InterruptedException {
+		degrees = DegreeTable.load(context.getConfiguration());
+	}
+	
+	@Override
+	protected void map(IntPairWritable key, Text value, Context context)
+			throws IOException, InterruptedException {
+		int u = key.getFirst();
+		int v = key.getSecond();
+		if (degrees.isOriented(u, v)) {
+			ok.set(u);
+			ov.set(v);
+		} else {
+			ok.set(v);
+			ov.set(u);
+		}
+		context.write(ok, ov);
+	}
+}
@@ -0,0 +1,106 @@
+package trianglecount;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Arrays;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.io.SequenceFile;
+import org.apache.hadoop.mapreduce.Job;
+
+/**
+ * PartitionMode - How IntPairWritable keys are spread over reducers
+ * 
+ * Modes (set with -D partition.mode=...):
+ * - hash  (default): 64-bit mix of (u, v), see hash(). Used by IntPairIntPartitioner
+ *                    and IntPairIntPairPartitioner.
+ * - range: the job's key space is sampled before the job (IntPairKeySampler) and
+ *          cut into equal-count ranges (IntPairRangePartitioner), like
+ *          TotalOrderPartitioner. Every reducer gets an even share of records
+ *          and the output parts are globally sorted.
+ * 
+ * Range mode is applied where the key space can be sampled from a SequenceFile:
+ * Step 3 (reorient, edge keys) and Step 5 (find triangles, wedge keys).
+ * 
+ * Usage: hadoop jar triangle_count.jar trianglecount.DegreeOptDriver -D partition.mode=range <input>
+ */
+public class PartitionMode {
+	
+	public static final String MODE_KEY = "partition.mode";
+	public static final String HASH = "hash";
+	public static final String RANGE = "range";
+	
+	public static final String SAMPLE_SIZE_KEY = "partition.sample.size";
+	public static final int DEFAULT_SAMPLE_SIZE = 10000;
+	static final String SPLIT_PATH_KEY = "partition.split.path";
+	
+	public static String get(Configuration conf) {
+		return conf.get(MODE_KEY, HASH).toLowerCase();
+	}
+	
+	public static boolean isRange(Configuration conf) {
+		return RANGE.equals(get(conf));
+	}
+	
+	/**
+	 * Hash partition of the pair (u, v): fmix64 of the packed pair, never negative
+	 */
+	public static int hash(int u, int v, int numReduceTasks) {
+		long h = BlockedBloomFilter.mix(((long) u << 32) | (v & 0xFFFFFFFFL));
+		return (int) ((h >>> 1) % numReduceTasks);
+	}
+	
+	/**
+	 * In range mode, sample the keys of sampledPath (SequenceFile with IntPairWritable keys,
+	 * the job's map output keys), write the split points to splitPath and switch the job
+	 * to IntPairRangePartitioner. Otherwise leave the job unchanged.
+	 */
+	public static void configureRange(Job job, String sampledPath, String splitPath) throws Exception {
+		Configuration conf = job.getConfiguration();
+		int numReduceTasks = job.getNumReduceTasks();
+		if (!isRange(conf) || numReduceTasks <= 1) {
+			return;
+		}
+		
+		long[] samples = IntPairKeySampler.sample(conf, sampledPath, conf.getInt(SAMPLE_SIZE_KEY, DEFAULT_SAMPLE_SIZE));
+		long[] splits = splitPoints(samples, numReduceTasks);
+		writeSplitPoints(conf, splits, splitPath);
+		System.out.println("Range partitioning: " + samples.length + " sampled keys -> "
+				+ (splits.length + 1) + " ranges (" + splitPath + ")");
+		
+		job.addCacheFile(new URI(splitPath));
+		conf.set(SPLIT_PATH_KEY, splitPath);
+		job.setPartitionerClass(IntPairRangePartitioner.class);
+	}
+	
+	/**
+	 * numPartitions - 1 split points at equal-count quantiles of the sorted samples
+	 * (duplicates collapse, so a very skewed sample may yield fewer ranges)
+	 */
+	static long[] splitPoints(long[] sortedSamples, int numPartitions) {
+		long[] splits = new long[numPartitions - 1];
+		int n = 0;
+		for (int i = 1; i < numPartitions && sortedSamples.length > 0; i++) {
+			long split = sortedSamples[(int) ((long) i * sortedSamples.length / numPartitions)];
+			if (n == 0 || split > splits[n - 1]) {
+				splits[n++] = split;
+			}
+		}
+		return Arrays.copyOf(splits, n);
+	}
+	
+	static void writeSplitPoints(Configuration conf, long[] splits, String splitPath) throws IOException {
+		IntPairWritable key = new IntPairWritable();
+		try (SequenceFile.Writer writer = SequenceFile.createWriter(conf,
+				SequenceFile.Writer.file(new Path(splitPath)),
+				SequenceFile.Writer.keyClass(IntPairWritable.class),
+				SequenceFile.Writer.valueClass(NullWritable.class))) {
+			for (long split : splits) {
+				key.set(IntPairKeySampler.first(split), IntPairKeySampler.second(split));
+				writer.append(key, NullWritable.get());
+			}
+		}
+	}
+}
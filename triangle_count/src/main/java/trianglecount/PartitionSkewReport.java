@@ -0,0 +1,94 @@
+package trianglecount;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.conf.Configured;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.SequenceFile;
+import org.apache.hadoop.util.Tool;
+import org.apache.hadoop.util.ToolRunner;
+
+/**
+ * PartitionSkewReport - Reducer load of each partitioning scheme for a key set
+ * 
+ * Purpose: Measure how evenly the records of a shuffle would be spread before
+ *          running the job. Reads every IntPairWritable key of a SequenceFile
+ *          input (e.g. the wedge output of Step 4, or the degree output read
+ *          by Step 3) and counts records per partition for:
+ * - legacy: (u * 31 + v) % n, the old IntPairIntPartitioner formula
+ *           (negative partitions are counted separately; they fail the job)
+ * - hash:   PartitionMode.hash (mixed, current default)
+ * - range:  sampled split points, as with -D partition.mode=range
+ * 
+ * Output: one line per scheme: min, max, mean records per reducer and max/mean
+ * 
+ * Usage: hadoop jar triangle_count.jar trianglecount.PartitionSkewReport <keys> <numReduceTasks>
+ */
+public class PartitionSkewReport extends Configured implements Tool {
+	
+	public static void main(String[] args) throws Exception {
+		ToolRunner.run(new PartitionSkewReport(), args);
+	}
+	
+	public int run(String[] args) throws Exception {
+		
+		String inputPath = args[0];
+		int n = Integer.parseInt(args[1]);
+		Configuration conf = getConf();
+		
+		long[] samples = IntPairKeySampler.sample(conf, inputPath,
+				conf.getInt(PartitionMode.SAMPLE_SIZE_KEY, PartitionMode.DEFAULT_SAMPLE_SIZE));
+		long[] splits = PartitionMode.splitPoints(samples, n);
+		
+		long[] legacy = new long[n];
+		long[] hash = new long[n];
+		long[] range = new long[n];
+		long negative = 0;
+		long records = 0;
+		
+		Path path = new Path(inputPath);
+		FileSystem fs = path.getFileSystem(conf);
+		IntPairWritable key = new IntPairWritable();
+		for (FileStatus file : CsrGraph.listInputFiles(fs, path)) {
+			try (SequenceFile.Reader reader = new SequenceFile.Reader(conf, SequenceFile.Reader.file(file.getPath()))) {
+				while (reader.next(key)) {
+					int u = key.getFirst();
+					int v = key.getSecond();
+					records++;
+					
+					int old = (u * 31 + v) % n;
+					if (old < 0) {
+						negative++;
+					} else {
+						legacy[old]++;
+					}
+					hash[PartitionMode.hash(u, v, n)]++;
+					range[IntPairRangePartitioner.partition(splits, u, v, n)]++;
+				}
+			}
+		}
+		
+		System.out.println("Keys: " + records + " records, " + n + " reducers, "
+				+ samples.length + " samples for range split points");
+		System.out.println("scheme\tmin\tmax\tmean\tmax/mean");
+		print("legacy", legacy, records);
+		if (negative > 0) {
+			System.out.println("legacy\tnegative partition for " + negative + " records (job fails)");
+		}
+		print("hash", hash, records);
+		print("range", range, records);
+		return 0;
+	}
+	
+	private static void print(String scheme, long[] counts, long records) {
+		long min = Long.MAX_VALUE;
+		long max = 0;
+		for (long c : counts) {
+			min = Math.min(min, c);
+			max = Math.max(max, c);
+		}
+		double mean = (double) records / counts.length;
+		System.out.println(String.format("%s\t%d\t%d\t%.1f\t%.3f", scheme, min, max, mean, max / mean));
+	}
+}
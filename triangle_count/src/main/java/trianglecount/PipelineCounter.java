@@ -0,0 +1,18 @@
+package trianglecount;
+
+/**
+ * PipelineCounter - Hadoop counters shared by the triangle count jobs
+ * 
+ * Counter values are summed over all tasks by the framework, so a driver can
+ * read a job-wide total with job.getCounters().findCounter(PipelineCounter.X).
+ */
+public enum PipelineCounter {
+	TRIANGLES,              // triangles confirmed by the final join
+	MALFORMED_EDGE_LINES,   // text lines skipped by EdgeLineParser
+	EDGES_IN,               // edge records read by Step 1 (normalization)
+	SELF_LOOPS,             // edges (u, u) dropped by NormalizeMapper or EdgeIngest
+	DUPLICATE_EDGES,        // repeated edges dropped by NormalizeReducer
+	DEGREE_WEDGES,          // sum of C(degree, 2) over the Step 2 reducers: wedges without orientation
+	WEDGES,                 // wedges generated by the wedge step, before any closing-edge test
+	WEDGES_PRUNED_BY_BLOOM  // of those, dropped because the Bloom filter rules out the closing edge
+}
@@ -0,0 +1,184 @@
+package trianglecount;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.mapreduce.Counter;
+import org.apache.hadoop.mapreduce.CounterGroup;
+import org.apache.hadoop.mapreduce.Counters;
+
+/**
+ * PipelineReport - Machine-readable summary of one driver run
+ *
+ * Purpose: The drivers call begin() first and write() on the returned report
+ *          last; every job in between ran through JobMetrics.waitForCompletion.
+ *          If one of those jobs fails, JobMetrics writes the report right
+ *          away with succeeded = false before the driver stops. Only one
+ *          report is active at a time, and jobs outside of one are not kept.
+ *          The report is a JSON object with
+ * - steps:  per job the JobMetrics columns plus the PipelineCounter values it set
+ * - totals: PipelineCounter values summed over the run (edges in, self-loops,
+ *           duplicates, wedges, wedges pruned by Bloom, triangles, ...)
+ * - bloom_false_positive_rate: wedges passing the Bloom filter without a closing
+ *           edge / wedges without one, (wedges - pruned - triangles) / (wedges - triangles)
+ * - orientation_wedge_ratio: wedges generated / sum of C(degree, 2) (Step 2)
+ * - bloom_wedge_ratio: wedges kept by the Bloom filter / wedges generated
+ * Ratios are null when the run has no such step.
+ *
+ * Output: -D metrics.report=<path> (default <input>.metrics.json)
+ */
+public class PipelineReport {
+
+	public static final String REPORT_KEY = "metrics.report";
+
+	private static PipelineReport active;
+
+	private final Configuration conf;
+	private final String driver;
+	private final String inputPath;
+	private final long start = System.currentTimeMillis();
+	private final List<JobMetrics.Finished> jobs = new ArrayList<>();
+
+	private PipelineReport(Configuration conf, String driver, String inputPath) {
+		this.conf = conf;
+		this.driver = driver;
+		this.inputPath = inputPath;
+	}
+
+	/**
+	 * Start of a run: the jobs from now on belong to the returned report
+	 */
+	public static synchronized PipelineReport begin(Configuration conf, String driver, String inputPath) {
+		active = new PipelineReport(conf, driver, inputPath);
+		return active;
+	}
+
+	/** A finished job (JobMetrics); dropped if no report is active */
+	static synchronized void add(JobMetrics.Finished job) {
+		if (active != null) {
+			active.jobs.add(job);
+		}
+	}
+
+	/** A job failed (JobMetrics): write the active report as failed and end it */
+	static void fail() throws IOException {
+		PipelineReport report;
+		synchronized (PipelineReport.class) {
+			report = active;
+			active = null;
+		}
+		if (report != null) {
+			report.write(false);
+		}
+	}
+
+	/**
+	 * End of a successful run: write the report of its jobs
+	 */
+	public void write() throws IOException {
+		synchronized (PipelineReport.class) {
+			if (active == this) {
+				active = null;
+			}
+		}
+		write(true);
+	}
+
+	private void write(boolean succeeded) throws IOException {
+		long wallMs = System.currentTimeMillis() - start;
+		Map<PipelineCounter, Long> totals = new EnumMap<>(PipelineCounter.class);
+
+		StringBuilder steps = new StringBuilder();
+		for (JobMetrics.Finished job : jobs) {
+			steps.append(steps.length() == 0 ? "" : ",").append("\n    {");
+			for (int c = 0; c < JobMetrics.COLUMNS.length; c++) {
+				steps.append(c > 0 ? ", " : "").append(quote(JobMetrics.COLUMNS[c])).append(": ").append(jsonValue(job.values[c]));
+			}
+			for (Map.Entry<PipelineCounter, Long> counter : pipelineCounters(job.counters).entrySet()) {
+				steps.append(", ").append(quote(name(counter.getKey()))).append(": ").append(counter.getValue());
+				totals.merge(counter.getKey(), counter.getValue(), Long::sum);
+			}
+			steps.append("}");
+		}
+
+		Long wedges = totals.get(PipelineCounter.WEDGES);
+		Long pruned = totals.get(PipelineCounter.WEDGES_PRUNED_BY_BLOOM);
+		Long degreeWedges = totals.get(PipelineCounter.DEGREE_WEDGES);
+		long triangles = totals.getOrDefault(PipelineCounter.TRIANGLES, 0L);
+		Double falsePositiveRate = null;
+		Double orientationRatio = null;
+		Double bloomRatio = null;
+		if (wedges != null && pruned != null) {
+			falsePositiveRate = ratio(wedges - pruned - triangles, wedges - triangles);
+			bloomRatio = ratio(wedges - pruned, wedges);
+		}
+		if (wedges != null && degreeWedges != null) {
+			orientationRatio = ratio(wedges, degreeWedges);
+		}
+
+		Path path = new Path(conf.get(REPORT_KEY, inputPath + ".metrics.json"));
+		try (BufferedWriter out = new BufferedWriter(new OutputStreamWriter(
+				path.getFileSystem(conf).create(path, true), StandardCharsets.UTF_8))) {
+			out.write("{\n");
+			out.write("  \"driver\": " + quote(driver) + ",\n");
+			out.write("  \"input\": " + quote(inputPath) + ",\n");
+			out.write("  \"succeeded\": " + succeeded + ",\n");
+			out.write("  \"wall_ms\": " + wallMs + ",\n");
+			out.write("  \"steps\": [" + steps + "\n  ],\n");
+			out.write("  \"totals\": {");
+			String separator = "";
+			for (Map.Entry<PipelineCounter, Long> total : totals.entrySet()) {
+				out.write(separator + quote(name(total.getKey())) + ": " + total.getValue());
+				separator = ", ";
+			}
+			out.write("},\n");
+			out.write("  \"bloom_false_positive_rate\": " + falsePositiveRate + ",\n");
+			out.write("  \"orientation_wedge_ratio\": " + orientationRatio + ",\n");
+			out.write("  \"bloom_wedge_ratio\": " + bloomRatio + "\n");
+			out.write("}\n");
+		}
+		System.out.println("Metrics report: " + path);
+	}
+
+	/**
+	 * PipelineCounter values a job set (counters it never touched are absent)
+	 */
+	static Map<PipelineCounter, Long> pipelineCounters(Counters counters) {
+		Map<PipelineCounter, Long> values = new EnumMap<>(PipelineCounter.class);
+		if (counters == null) {
+			return values;
+		}
+		CounterGroup group = counters.getGroup(PipelineCounter.class.getName());
+		for (Counter counter : group) {
+			values.put(PipelineCounter.valueOf(counter.getName()), counter.getValue());
+		}
+		return values;
+	}
+
+	private static Double ratio(long numerator, long denominator) {
+		return denominator == 0 ? null : (double) numerator / denominator;
+	}
+
+	private static String name(PipelineCounter counter) {
+		return counter.name().toLowerCase();
+	}
+
+	static String quote(String value) {
+		return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+	}
+
+	/** Numbers and booleans as is, the empty string as null, everything else quoted */
+	static String jsonValue(String value) {
+		if (value.isEmpty()) return "null";
+		if (value.equals("true") || value.equals("false") || value.matches("-?\\d+")) return value;
+		return quote(value);
+	}
+}
@@ -0,0 +1,41 @@
+package trianglecount;
+
+import java.io.IOException;
+
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.Mapper;
+
+/**
+ * RelabelMapper - Rewrite normalized edges with dense degree-ordered IDs (VertexRelabeler)
+ *
+ * Purpose: Looks up both endpoints in the memory-mapped original -> new
+ *          VertexIdLookup (binary search) and emits the edge with the smaller new ID first.
+ *          Since new IDs grow with degree, that is also the degree orientation.
+ *
+ * Input:  ((u, v), "") - normalized edge from SequenceFile, original IDs
+ * Output: ((a, b), "") - same edge with new IDs, a < b
+ */
+public class RelabelMapper extends Mapper<IntPairWritable, Text, IntPairWritable, Text> {
+
+	private IntPairWritable ok = new IntPairWritable();
+
+	private VertexIdLookup lookup;
+
+	@Override
+	protected void setup(Context context) throws IOException, InterruptedException {
+		lookup = VertexIdLookup.load(context.getConfiguration(),
+				context.getConfiguration().get(VertexRelabeler.LOOKUP_KEY));
+	}
+
+	@Override
+	protected void map(IntPairWritable key, Text value, Context context)
+			throws IOException, InterruptedException {
+		int a = lookup.get(key.getFirst());
+		int b = lookup.get(key.getSecond());
+		if (a == VertexIdMapping.ABSENT || b == VertexIdMapping.ABSENT) {
+			throw new IOException("Vertex missing from the relabeling lookup: " + key);
+		}
+		ok.set(Math.min(a, b), Math.max(a, b));
+		context.write(ok, value);
+	}
+}
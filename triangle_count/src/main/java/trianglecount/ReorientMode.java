@@ -0,0 +1,50 @@
+package trianglecount;
+
+import java.net.URI;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.mapreduce.Job;
+
+/**
+ * ReorientMode - Where edges are oriented from low to high degree
+ * 
+ * Modes (set with -D reorient.mode=...):
+ * - reduce  (default): degree step annotates every edge with both degrees and a
+ *                      reorientation job joins the two halves (Steps 2 and 3)
+ * - mapside: one counting job writes a DegreeTable (vertex -> degree), shipped
+ *            through the distributed cache; the wedge mapper reads normalized
+ *            edges and orients each one by a table lookup. Steps 2 and 3 become
+ *            a single shuffle of one count per vertex.
+ * Hub splitting (WedgeSkew) finds heavy centers on reoriented edges and keeps
+ * the reduce-side reorientation.
+ * 
+ * Usage: hadoop jar triangle_count.jar trianglecount.DegreeOptDriver -D reorient.mode=mapside <input>
+ */
+public class ReorientMode {
+	
+	public static final String MODE_KEY = "reorient.mode";
+	public static final String REDUCE = "reduce";
+	public static final String MAPSIDE = "mapside";
+	
+	/**
+	 * True if edges should be oriented in the wedge mapper
+	 */
+	public static boolean isMapSide(Configuration conf) {
+		return MAPSIDE.equals(conf.get(MODE_KEY, REDUCE).toLowerCase()) && !WedgeSkew.isEnabled(conf);
+	}
+	
+	/**
+	 * Switch a wedge job to normalized input oriented by the degree table.
+	 * Call after AdjacencyShuffle.configureWedgeStep; the mapper is replaced.
+	 */
+	public static void configureWedgeStep(Job job, String degreeTablePath) throws Exception {
+		job.addCacheFile(new URI(degreeTablePath));
+		job.getConfiguration().set(DegreeTable.PATH_KEY, degreeTablePath);
+		
+		if (AdjacencyShuffle.isEnabled(job.getConfiguration())) {
+			job.setMapperClass(OrientingAdjacencyMapper.class);
+		} else {
+			job.setMapperClass(OrientingWedgeMapper.class);
+		}
+	}
+}
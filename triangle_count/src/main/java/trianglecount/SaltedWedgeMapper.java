@@ -0,0 +1,53 @@
+package trianglecount;
+
+import java.io.IOException;
+import java.util.Map;
+
+import org.apache.hadoop.io.IntWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.Mapper;
+
+/**
+ * SaltedWedgeMapper - Wedge mapper with hub splitting (see WedgeSkew)
+ * 
+ * Purpose: Same as WedgeSeqMapper for light centers. For a heavy center with
+ *          B blocks, neighbor v lives in block b = hash(v) % B and is sent to the
+ *          B block pairs (min(b, c), max(b, c)) for every block c.
+ * 
+ * Input:  ((u, v), "") - edge from SequenceFile
+ * Output: ((u, 0), v) for light u, ((u, salt(B, i, j)), v) for heavy u
+ */
+public class SaltedWedgeMapper extends Mapper<IntPairWritable, Text, IntPairWritable, IntWritable> {
+	
+	IntPairWritable ok = new IntPairWritable();
+	IntWritable ov = new IntWritable();
+	
+	private Map<Integer, Integer> heavyBlocks;
+	
+	@Override
+	protected void setup(Context context) throws IOException, InterruptedException {
+		heavyBlocks = WedgeSkew.loadHeavyCenters(context.getConfiguration());
+	}
+	
+	@Override
+	protected void map(IntPairWritable key, Text value, Context context)
+			throws IOException, InterruptedException {
+		
+		int u = key.getFirst();
+		int v = key.getSecond();
+		ov.set(v);
+		
+		Integer blocks = heavyBlocks.get(u);
+		if (blocks == null || blocks == 1) {
+			ok.set(u, 0);
+			context.write(ok, ov);
+			return;
+		}
+		
+		int b = WedgeSkew.block(v, blocks);
+		for (int c = 0; c < blocks; c++) {
+			ok.set(u, WedgeSkew.salt(blocks, Math.min(b, c), Math.max(b, c)));
+			context.write(ok, ov);
+		}
+	}
+}
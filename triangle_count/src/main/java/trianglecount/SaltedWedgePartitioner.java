@@ -0,0 +1,16 @@
+package trianglecount;
+
+import org.apache.hadoop.io.IntWritable;
+import org.apache.hadoop.mapreduce.Partitioner;
+
+/**
+ * SaltedWedgePartitioner - Spread the (center, salt) keys of SaltedWedgeMapper
+ * 
+ * Purpose: Block pairs of one heavy center must land on different reducers,
+ *          so both center and salt are mixed into the partition.
+ */
+public class SaltedWedgePartitioner extends Partitioner<IntPairWritable, IntWritable> {
+	public int getPartition(IntPairWritable key, IntWritable value, int numReduceTasks) {
+		return PartitionMode.hash(key.getFirst(), key.getSecond(), numReduceTasks);
+	}
+}
@@ -0,0 +1,107 @@
+package trianglecount;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.apache.hadoop.io.IntWritable;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.Reducer;
+
+/**
+ * SaltedWedgeReducer - Generate the wedges of one block pair of a center (see WedgeSkew)
+ * 
+ * Purpose: Light centers (salt 0) and diagonal block pairs (i, i) produce all
+ *          neighbor pairs, like WedgeReducer. Off-diagonal pairs (i, j) produce
+ *          only pairs with one neighbor in block i and the other in block j, so
+ *          every wedge of a heavy center is generated exactly once.
+ *          Closing edges are checked with ClosingEdgeCheck (Bloom filter and/or
+ *          exact edge set) when configured.
+ * 
+ * Input:  ((center, salt), [n1, n2, ...]) - neighbors of one block pair
+ * Output: ((ni, nj), center) - wedge (ni < nj); a confirmed triangle if an edge set is
+ *         configured (count-only mode then: one ("triangles", total) line per task)
+ */
+public class SaltedWedgeReducer extends Reducer<IntPairWritable, IntWritable, Object, Object> {
+	
+	IntPairWritable ok = new IntPairWritable();
+	IntWritable ov = new IntWritable();
+	
+	private ClosingEdgeCheck closingEdge;
+	private boolean countOnly;
+	private long triangles = 0;
+	private GroupSkew.Recorder skew;
+	private int[] first = new int[64];
+	private int[] second = new int[64];
+	
+	@Override
+	protected void setup(Context context) throws IOException, InterruptedException {
+		closingEdge = ClosingEdgeCheck.load(context.getConfiguration());
+		skew = GroupSkew.recorder(context);
+		countOnly = closingEdge.isExact() && TriangleOutputMode.isCountOnly(context.getConfiguration());
+	}
+	
+	@Override
+	protected void reduce(IntPairWritable key, Iterable<IntWritable> values, Context context)
+			throws IOException, InterruptedException {
+		
+		int center = key.getFirst();
+		int salt = key.getSecond();
+		ov.set(center);
+		
+		int blocks = WedgeSkew.saltBlocks(salt);
+		int i = WedgeSkew.saltFirst(salt);
+		int j = WedgeSkew.saltSecond(salt);
+		boolean diagonal = salt == 0 || i == j;
+		
+		// diagonal: all neighbors in first; off-diagonal: block i in first, block j in second
+		int n1 = 0, n2 = 0;
+		for (IntWritable v : values) {
+			int x = v.get();
+			if (diagonal || WedgeSkew.block(x, blocks) == i) {
+				if (n1 == first.length) first = Arrays.copyOf(first, n1 * 2);
+				first[n1++] = x;
+			} else {
+				if (n2 == second.length) second = Arrays.copyOf(second, n2 * 2);
+				second[n2++] = x;
+			}
+		}
+		if (skew != null) skew.add(key, n1 + n2);
+		
+		if (diagonal) {
+			for (int a = 0; a < n1; a++) {
+				for (int b = a + 1; b < n1; b++) {
+					emit(first[a], first[b], context);
+				}
+			}
+		} else {
+			for (int a = 0; a < n1; a++) {
+				for (int b = 0; b < n2; b++) {
+					emit(first[a], second[b], context);
+				}
+			}
+		}
+	}
+	
+	private void emit(int u, int w, Context context) throws IOException, InterruptedException {
+		if (!closingEdge.accept(u, w)) return;
+		
+		triangles++;
+		if (!countOnly) {
+			ok.set(Math.min(u, w), Math.max(u, w));
+			context.write(ok, ov);
+		}
+	}
+	
+	@Override
+	protected void cleanup(Context context) throws IOException, InterruptedException {
+		closingEdge.addCounters(context);
+		if (skew != null) skew.close(context);
+		if (closingEdge.isExact()) {
+			context.getCounter(PipelineCounter.TRIANGLES).increment(triangles);
+		}
+		if (countOnly) {
+			context.write(new Text("triangles"), new LongWritable(triangles));
+		}
+	}
+}
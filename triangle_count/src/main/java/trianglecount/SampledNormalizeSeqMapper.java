@@ -0,0 +1,32 @@
+package trianglecount;
+
+import java.io.IOException;
+
+import org.apache.hadoop.io.Text;
+
+/**
+ * SampledNormalizeSeqMapper - NormalizeSeqMapper on a DOULION-sparsified graph
+ * 
+ * Purpose: Drop each edge before the shuffle unless its coin (see ApproxSampling)
+ *          keeps it. All copies of a duplicate edge get the same coin.
+ * 
+ * Input:  ((u, v), "") - edge from BinaryEdgeInputFormat
+ * Output: ((u, v), -1) - kept edge, with probability approx.edge.probability
+ */
+public class SampledNormalizeSeqMapper extends NormalizeSeqMapper {
+	
+	private ApproxSampling sampling;
+	
+	@Override
+	protected void setup(Context context) throws IOException, InterruptedException {
+		sampling = ApproxSampling.get(context.getConfiguration());
+	}
+	
+	@Override
+	protected void map(IntPairWritable key, Text value, Context context)
+			throws IOException, InterruptedException {
+		if (sampling.keepEdge(key.getFirst(), key.getSecond())) {
+			super.map(key, value, context);
+		}
+	}
+}
@@ -0,0 +1,26 @@
+package trianglecount;
+
+/**
+ * SampledWedgeReducer - WedgeReducer that keeps each wedge with probability q
+ * 
+ * Purpose: Wedge sampling for ApproxTriangleDriver; the coin of a wedge depends
+ *          only on (ni, nj, center) and the seed (see ApproxSampling).
+ * 
+ * Input:  (center, [n1, n2, n3, ...]) - center vertex with all out-neighbors
+ * Output: ((ni, nj), center) - sampled wedge (ni < nj)
+ */
+public class SampledWedgeReducer extends WedgeReducer {
+	
+	private ApproxSampling sampling;
+	
+	@Override
+	protected void setup(Context context) {
+		super.setup(context);
+		sampling = ApproxSampling.get(context.getConfiguration());
+	}
+	
+	@Override
+	protected boolean keepWedge(int u, int v, int center) {
+		return sampling.keepWedge(u, v, center);
+	}
+}
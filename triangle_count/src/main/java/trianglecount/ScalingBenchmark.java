@@ -0,0 +1,197 @@
+package trianglecount;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.conf.Configured;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.util.Tool;
+import org.apache.hadoop.util.ToolRunner;
+
+/**
+ * ScalingBenchmark - Run the MapReduce drivers over a grid of graph sizes and reducer counts
+ *
+ * Purpose: Replace the hand-written timing table with a repeatable record.
+ *          For every graph size a GraphGenerator graph is written once to
+ *          <workdir>/m<edges>/graph; every driver then runs on it once per
+ *          reducer count (mapreduce.job.reduces), with a fresh metrics log
+ *          (JobMetrics) collecting each job's wall time, shuffle bytes,
+ *          spilled records and map/reduce record counts. All intermediate
+ *          paths of a run are deleted before the next one, so every run
+ *          includes its own ingestion.
+ *
+ * Settings:
+ * - scaling.edges (default 100000,1000000): graph sizes m
+ * - scaling.reducers (default 1,4): reducer counts
+ * - scaling.drivers (default baseline,degree,bloom,wedgecount)
+ * - scaling.mean.degree (default 16): generator.vertices = 2 m / mean degree
+ * - scaling.label (default empty): copied into every row, e.g. the commit hash
+ * - generator.* (see GraphGenerator) and all driver modes pass through
+ *
+ * Runs in whatever mode the configuration selects: the local job runner by
+ * default, or the cluster given to hadoop jar.
+ *
+ * Output: <workdir>/scaling.csv and <workdir>/scaling.json, one row per job plus
+ *         one "total" row per driver run (driver wall time, succeeded = exit code 0)
+ *
+ * Usage: hadoop jar triangle_count.jar trianglecount.ScalingBenchmark
+ *          -D scaling.edges=100000,1000000 -D scaling.reducers=1,4 -D scaling.label=<commit> <workdir>
+ */
+public class ScalingBenchmark extends Configured implements Tool {
+
+	public static final String EDGES_KEY = "scaling.edges";
+	public static final String REDUCERS_KEY = "scaling.reducers";
+	public static final String DRIVERS_KEY = "scaling.drivers";
+	public static final String MEAN_DEGREE_KEY = "scaling.mean.degree";
+	public static final String LABEL_KEY = "scaling.label";
+
+	private static final String[] RUN_COLUMNS = { "label", "driver", "edges", "reducers" };
+
+	public static void main(String[] args) throws Exception {
+		ToolRunner.run(new ScalingBenchmark(), args);
+	}
+
+	static Tool driver(String name) {
+		switch (name) {
+		case "baseline":
+			return new BaselineDriver();
+		case "degree":
+			return new DegreeOptDriver();
+		case "bloom":
+			return new BloomFilterDriver();
+		case "wedgecount":
+			return new WedgeCountDriver();
+		default:
+			throw new IllegalArgumentException("Unknown driver in " + DRIVERS_KEY + ": " + name
+					+ " (baseline, degree, bloom, wedgecount)");
+		}
+	}
+
+	public int run(String[] args) throws Exception {
+
+		Configuration conf = getConf();
+		Path workPath = new Path(args[0]);
+		FileSystem fs = workPath.getFileSystem(conf);
+		String label = conf.get(LABEL_KEY, "");
+		String[] drivers = conf.getTrimmedStrings(DRIVERS_KEY, "baseline", "degree", "bloom", "wedgecount");
+		int meanDegree = conf.getInt(MEAN_DEGREE_KEY, 16);
+		File log = File.createTempFile("scaling", ".tsv");
+		log.deleteOnExit();
+
+		List<String[]> rows = new ArrayList<>();
+		for (String edges : conf.getTrimmedStrings(EDGES_KEY, "100000", "1000000")) {
+			long m = Long.parseLong(edges);
+			Path graphDir = new Path(workPath, "m" + m);
+			Path graphPath = new Path(graphDir, "graph");
+			if (!fs.exists(new Path(graphPath, "_SUCCESS"))) {
+				System.out.println("=== Generating " + graphPath + " ===");
+				Configuration generatorConf = new Configuration(conf);
+				generatorConf.setLong(GraphGenerator.EDGES_KEY, m);
+				generatorConf.set(GraphGenerator.FORMAT_KEY, "text");  // drivers ingest it themselves
+				if (conf.get(GraphGenerator.VERTICES_KEY) == null) {
+					generatorConf.setLong(GraphGenerator.VERTICES_KEY, Math.max(2, 2 * m / meanDegree));
+				}
+				generatorConf.unset(JobMetrics.LOG_KEY);
+				if (ToolRunner.run(generatorConf, new GraphGenerator(), new String[] { graphPath.toString() }) != 0) {
+					throw new IOException("Generating " + graphPath + " failed");
+				}
+			}
+
+			for (String reducerCount : conf.getTrimmedStrings(REDUCERS_KEY, "1", "4")) {
+				int reducers = Integer.parseInt(reducerCount);
+				for (String name : drivers) {
+					System.out.println("=== " + name + ", " + m + " edges, " + reducers + " reducers ===");
+					deleteRunOutputs(fs, graphDir, graphPath);
+
+					Configuration runConf = new Configuration(conf);
+					runConf.setInt("mapreduce.job.reduces", reducers);
+					JobMetrics.configureLog(runConf, log);
+
+					boolean succeeded;
+					long start = System.currentTimeMillis();
+					try {
+						succeeded = ToolRunner.run(runConf, driver(name), new String[] { graphPath.toString() }) == 0;
+					} catch (Exception e) {
+						e.printStackTrace();
+						succeeded = false;
+					}
+					long wallMs = System.currentTimeMillis() - start;
+
+					String[] run = { label, name, Long.toString(m), Integer.toString(reducers) };
+					for (String[] job : JobMetrics.read(log)) {
+						rows.add(concat(run, job));
+					}
+					String[] total = new String[JobMetrics.COLUMNS.length];
+					Arrays.fill(total, "");
+					total[0] = "total";
+					total[1] = Boolean.toString(succeeded);
+					total[2] = Long.toString(wallMs);
+					total[3] = Integer.toString(reducers);
+					rows.add(concat(run, total));
+				}
+			}
+			deleteRunOutputs(fs, graphDir, graphPath);
+		}
+
+		String[] columns = concat(RUN_COLUMNS, JobMetrics.COLUMNS);
+		writeCsv(fs, new Path(workPath, "scaling.csv"), columns, rows);
+		writeJson(fs, new Path(workPath, "scaling.json"), columns, rows);
+		System.out.println("Report: " + new Path(workPath, "scaling.csv") + ", " + new Path(workPath, "scaling.json"));
+		return 0;
+	}
+
+	/**
+	 * Delete everything a driver wrote next to the graph (<graph>.*)
+	 */
+	private static void deleteRunOutputs(FileSystem fs, Path graphDir, Path graphPath) throws IOException {
+		for (FileStatus status : fs.listStatus(graphDir)) {
+			if (!status.getPath().getName().equals(graphPath.getName())) {
+				fs.delete(status.getPath(), true);
+			}
+		}
+	}
+
+	private static String[] concat(String[] a, String[] b) {
+		String[] c = Arrays.copyOf(a, a.length + b.length);
+		System.arraycopy(b, 0, c, a.length, b.length);
+		return c;
+	}
+
+	private static void writeCsv(FileSystem fs, Path path, String[] columns, List<String[]> rows) throws IOException {
+		try (BufferedWriter out = new BufferedWriter(new OutputStreamWriter(fs.create(path, true), StandardCharsets.UTF_8))) {
+			out.write(String.join(",", columns));
+			out.newLine();
+			for (String[] row : rows) {
+				out.write(String.join(",", row));
+				out.newLine();
+			}
+		}
+	}
+
+	private static void writeJson(FileSystem fs, Path path, String[] columns, List<String[]> rows) throws IOException {
+		try (BufferedWriter out = new BufferedWriter(new OutputStreamWriter(fs.create(path, true), StandardCharsets.UTF_8))) {
+			out.write("[");
+			for (int r = 0; r < rows.size(); r++) {
+				String[] row = rows.get(r);
+				out.newLine();
+				out.write("  {");
+				for (int c = 0; c < columns.length; c++) {
+					out.write((c > 0 ? ", " : "") + "\"" + columns[c] + "\": " + PipelineReport.jsonValue(row[c]));
+				}
+				out.write(r < rows.size() - 1 ? "}," : "}");
+			}
+			out.newLine();
+			out.write("]");
+			out.newLine();
+		}
+	}
+}
@@ -0,0 +1,241 @@
+package trianglecount;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.PriorityQueue;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.SequenceFile;
+import org.apache.hadoop.io.Text;
+
+/**
+ * SortedEdgeSet - Exact edge-existence lookup over a sorted, memory-mapped long[]
+ *
+ * Purpose: Ship the normalized edge set once through the distributed cache so
+ *          closing edges can be checked exactly inside the wedge reducer
+ *          (map-side join), instead of shuffling all wedges with all edges.
+ *
+ * File format (little-endian):
+ * - 8-byte header: magic, version
+ * - one long per edge, (u << 32) | v with u < v, strictly increasing
+ *
+ * Lookup: binary search over the mapped LongBuffer, no allocation per probe.
+ */
+public class SortedEdgeSet {
+
+	public static final String PATH_KEY = "edge.set.path";
+
+	static final int MAGIC = 0x53455354;  // "TSES"
+	static final int VERSION = 1;
+	static final int HEADER_BYTES = 8;
+
+	private final LongBuffer edges;
+	private final int size;
+
+	private SortedEdgeSet(LongBuffer edges) {
+		this.edges = edges;
+		this.size = edges.limit();
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean contains(int u, int v) {
+		return contains(BlockedBloomFilter.edgeKey(u, v));
+	}
+
+	public boolean contains(long key) {
+		int lo = 0;
+		int hi = size - 1;
+		while (lo <= hi) {
+			int mid = (lo + hi) >>> 1;
+			long e = edges.get(mid);
+			if (e < key) {
+				lo = mid + 1;
+			} else if (e > key) {
+				hi = mid - 1;
+			} else {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Memory-map an edge set file from the local disk (read-only, off-heap)
+	 */
+	public static SortedEdgeSet map(File file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			if (channel.size() > Integer.MAX_VALUE) {
+				throw new IOException("Edge set larger than 2 GB cannot be mapped: " + file);
+			}
+			ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())
+					.order(ByteOrder.LITTLE_ENDIAN);
+			if (mapped.limit() < HEADER_BYTES || mapped.getInt(0) != MAGIC
+					|| (mapped.limit() - HEADER_BYTES) % 8 != 0) {
+				throw new IOException("Not a sorted edge set file: " + file);
+			}
+			mapped.position(HEADER_BYTES);
+			return new SortedEdgeSet(mapped.slice().order(ByteOrder.LITTLE_ENDIAN).asLongBuffer());
+		}
+	}
+
+	/**
+	 * Load the edge set named by edge.set.path for a task (see CacheFiles.localFile)
+	 */
+	public static SortedEdgeSet load(Configuration conf) throws IOException {
+		String path = conf.get(PATH_KEY);
+		if (path == null) {
+			throw new IOException(PATH_KEY + " is not set");
+		}
+		return map(CacheFiles.localFile(conf, new Path(path)));
+	}
+
+	/**
+	 * Build the edge set file from NormalizeReducer output (SequenceFile of ((u, v), "")).
+	 * Each part file is already sorted by IntPairWritable order, so the parts are
+	 * k-way merged in one streaming pass.
+	 * @return number of edges written
+	 */
+	public static long writeFromNormalized(Configuration conf, String normalizedPath, String edgeSetPath)
+			throws IOException {
+		return write(conf, normalizedPath, edgeSetPath, false);
+	}
+
+	/**
+	 * Build the edge set file from a binary edge store whose part files are each
+	 * sorted with u < v (VertexRelabeler output), merged the same way
+	 * @return number of edges written
+	 */
+	public static long writeFromEdgeStore(Configuration conf, String edgesPath, String edgeSetPath)
+			throws IOException {
+		return write(conf, edgesPath, edgeSetPath, true);
+	}
+
+	private static long write(Configuration conf, String inputPath, String edgeSetPath, boolean binary)
+			throws IOException {
+		Path input = new Path(inputPath);
+		FileSystem fs = input.getFileSystem(conf);
+
+		PriorityQueue<PartCursor> queue = new PriorityQueue<>();
+		long written = 0;
+		try {
+			for (FileStatus part : CsrGraph.listInputFiles(fs, input)) {
+				PartCursor cursor = binary
+						? new EdgeStoreCursor(new DataInputStream(new BufferedInputStream(fs.open(part.getPath()), 64 * 1024)))
+						: new SequenceFileCursor(new SequenceFile.Reader(conf, SequenceFile.Reader.file(part.getPath())));
+				if (cursor.advance()) {
+					queue.add(cursor);
+				} else {
+					cursor.close();
+				}
+			}
+
+			try (OutputStream out = fs.create(new Path(edgeSetPath), true)) {
+				ByteBuffer buffer = ByteBuffer.allocate(64 * 1024).order(ByteOrder.LITTLE_ENDIAN);
+				buffer.putInt(MAGIC).putInt(VERSION);
+
+				long last = Long.MIN_VALUE;
+				while (!queue.isEmpty()) {
+					PartCursor cursor = queue.poll();
+					if (cursor.current != last) {  // parts are disjoint; guard anyway
+						if (!buffer.hasRemaining()) {
+							out.write(buffer.array(), 0, buffer.position());
+							buffer.clear();
+						}
+						buffer.putLong(cursor.current);
+						last = cursor.current;
+						written++;
+					}
+					if (cursor.advance()) {
+						queue.add(cursor);
+					} else {
+						cursor.close();
+					}
+				}
+				out.write(buffer.array(), 0, buffer.position());
+			}
+		} finally {
+			for (PartCursor cursor : queue) {
+				cursor.close();
+			}
+		}
+		return written;
+	}
+
+	/**
+	 * Current edge of one sorted part file during the k-way merge
+	 */
+	private abstract static class PartCursor implements Comparable<PartCursor> {
+		long current;
+
+		abstract boolean advance() throws IOException;
+
+		abstract void close() throws IOException;
+
+		public int compareTo(PartCursor o) {
+			return Long.compare(current, o.current);
+		}
+	}
+
+	private static class SequenceFileCursor extends PartCursor {
+		final SequenceFile.Reader reader;
+		final IntPairWritable key = new IntPairWritable();
+		final Text value = new Text();
+
+		SequenceFileCursor(SequenceFile.Reader reader) {
+			this.reader = reader;
+		}
+
+		boolean advance() throws IOException {
+			if (!reader.next(key, value)) {
+				return false;
+			}
+			current = BlockedBloomFilter.edgeKey(key.getFirst(), key.getSecond());
+			return true;
+		}
+
+		void close() throws IOException {
+			reader.close();
+		}
+	}
+
+	/**
+	 * Cursor over a BinaryEdgeOutputFormat part: 8 bytes per edge, u then v
+	 */
+	private static class EdgeStoreCursor extends PartCursor {
+		final DataInputStream in;
+
+		EdgeStoreCursor(DataInputStream in) {
+			this.in = in;
+		}
+
+		boolean advance() throws IOException {
+			int u;
+			try {
+				u = in.readInt();
+			} catch (EOFException e) {
+				return false;
+			}
+			current = BlockedBloomFilter.edgeKey(u, in.readInt());
+			return true;
+		}
+
+		void close() throws IOException {
+			in.close();
+		}
+	}
+}
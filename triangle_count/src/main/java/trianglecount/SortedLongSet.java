@@ -0,0 +1,184 @@
+package trianglecount;
+
+import java.util.Arrays;
+
+/**
+ * SortedLongSet - Growable sorted set of primitive longs
+ *
+ * Purpose: The edge overlay of IncrementalTriangleDriver: directed edge keys
+ *          (x << 32) | y added to or removed from a SymmetricEdgeIndex, kept
+ *          in key order so the overlay neighbors of x are one run, and
+ *          without a boxed Long per key.
+ *
+ * Layout: sorted long[] blocks of at most BLOCK keys, ordered by their first
+ * key. A lookup is a binary search over the block heads and one inside the
+ * block; an insert or removal shifts one block only, a full block is split in
+ * halves. Keys added in increasing order (loading a file) fill blocks completely.
+ */
+public class SortedLongSet {
+
+	static final int BLOCK = 1024;
+
+	private long[][] blocks = new long[4][];
+	private int[] lengths = new int[4];
+	private int numBlocks;
+	private int size;
+
+	public int size() {
+		return size;
+	}
+
+	public boolean contains(long key) {
+		if (size == 0) {
+			return false;
+		}
+		int b = blockOf(key);
+		return Arrays.binarySearch(blocks[b], 0, lengths[b], key) >= 0;
+	}
+
+	/**
+	 * @return false if the key was already present
+	 */
+	public boolean add(long key) {
+		if (numBlocks == 0) {
+			insertBlock(0, new long[BLOCK], 0);
+		}
+		int b = blockOf(key);
+		int i = Arrays.binarySearch(blocks[b], 0, lengths[b], key);
+		if (i >= 0) {
+			return false;
+		}
+		i = -i - 1;
+		if (lengths[b] == BLOCK) {
+			if (i == BLOCK && b == numBlocks - 1) {  // appending past the last key
+				insertBlock(++b, new long[BLOCK], 0);
+				i = 0;
+			} else {
+				split(b);
+				if (i > lengths[b]) {
+					i -= lengths[b];
+					b++;
+				}
+			}
+		}
+		long[] block = blocks[b];
+		System.arraycopy(block, i, block, i + 1, lengths[b] - i);
+		block[i] = key;
+		lengths[b]++;
+		size++;
+		return true;
+	}
+
+	/**
+	 * @return false if the key was not present
+	 */
+	public boolean remove(long key) {
+		if (size == 0) {
+			return false;
+		}
+		int b = blockOf(key);
+		int i = Arrays.binarySearch(blocks[b], 0, lengths[b], key);
+		if (i < 0) {
+			return false;
+		}
+		long[] block = blocks[b];
+		System.arraycopy(block, i + 1, block, i, lengths[b] - i - 1);
+		lengths[b]--;
+		size--;
+		if (lengths[b] == 0) {
+			removeBlock(b);
+		}
+		return true;
+	}
+
+	/**
+	 * Position the cursor at the first key >= from; the cursor is invalid after
+	 * the next add or remove
+	 */
+	public void seek(long from, Cursor cursor) {
+		cursor.set = this;
+		cursor.block = numBlocks;
+		cursor.index = 0;
+		if (size == 0) {
+			return;
+		}
+		int b = blockOf(from);
+		int i = Arrays.binarySearch(blocks[b], 0, lengths[b], from);
+		cursor.block = b;
+		cursor.index = i >= 0 ? i : -i - 1;
+		cursor.skipEmpty();
+	}
+
+	/** Last block whose first key is <= key, or block 0 */
+	private int blockOf(long key) {
+		int lo = 0;
+		int hi = numBlocks - 1;
+		while (lo < hi) {
+			int mid = (lo + hi + 1) >>> 1;
+			if (blocks[mid][0] <= key) {
+				lo = mid;
+			} else {
+				hi = mid - 1;
+			}
+		}
+		return lo;
+	}
+
+	private void split(int b) {
+		int half = lengths[b] / 2;
+		long[] upper = new long[BLOCK];
+		System.arraycopy(blocks[b], half, upper, 0, lengths[b] - half);
+		insertBlock(b + 1, upper, lengths[b] - half);
+		lengths[b] = half;
+	}
+
+	private void insertBlock(int b, long[] block, int length) {
+		if (numBlocks == blocks.length) {
+			blocks = Arrays.copyOf(blocks, numBlocks * 2);
+			lengths = Arrays.copyOf(lengths, numBlocks * 2);
+		}
+		System.arraycopy(blocks, b, blocks, b + 1, numBlocks - b);
+		System.arraycopy(lengths, b, lengths, b + 1, numBlocks - b);
+		blocks[b] = block;
+		lengths[b] = length;
+		numBlocks++;
+	}
+
+	private void removeBlock(int b) {
+		System.arraycopy(blocks, b + 1, blocks, b, numBlocks - b - 1);
+		System.arraycopy(lengths, b + 1, lengths, b, numBlocks - b - 1);
+		numBlocks--;
+		blocks[numBlocks] = null;
+	}
+
+	/**
+	 * Reusable forward cursor over the keys in order (see seek)
+	 */
+	public static class Cursor {
+		private SortedLongSet set;
+		private int block;
+		private int index;
+
+		public boolean hasNext() {
+			return set != null && block < set.numBlocks;
+		}
+
+		/** The next key without advancing */
+		public long peek() {
+			return set.blocks[block][index];
+		}
+
+		public long next() {
+			long key = set.blocks[block][index++];
+			skipEmpty();
+			return key;
+		}
+
+		private void skipEmpty() {
+			if (block < set.numBlocks && index == set.lengths[block]) {
+				block++;
+				index = 0;
+			}
+		}
+	}
+}
@@ -0,0 +1,60 @@
+package trianglecount;
+
+import java.io.IOException;
+
+import org.apache.hadoop.io.IntWritable;
+import org.apache.hadoop.mapreduce.Reducer;
+
+/**
+ * StreamingDegreeReducer - Degree step without buffering (see DegreeAnnotation)
+ * 
+ * Purpose: Same output as DegreeReducer. The group of vertex x is sorted by tag,
+ *          so all count records arrive first; their sum is the degree, and every
+ *          following edge record is written immediately. The key object is
+ *          refreshed by the framework for each value, which tells the two apart.
+ * 
+ * Input:  (x, [c1, ..., (count records), y1, y2, ... (edge records)])
+ * Output: ((x, y), (deg_x, -1)) if x < y, ((y, x), (-1, deg_x)) otherwise
+ */
+public class StreamingDegreeReducer extends Reducer<IntPairWritable, IntWritable, IntPairWritable, IntPairWritable> {
+	
+	IntPairWritable ok = new IntPairWritable();
+	IntPairWritable ov = new IntPairWritable();
+	long degreeWedges = 0;
+	GroupSkew.Recorder skew;
+	
+	@Override
+	protected void setup(Context context) {
+		skew = GroupSkew.recorder(context);
+	}
+	
+	@Override
+	protected void reduce(IntPairWritable key, Iterable<IntWritable> values, Context context)
+			throws IOException, InterruptedException {
+		int x = key.getFirst();
+		int degree = 0;
+		for (IntWritable value : values) {
+			if (key.getSecond() == DegreeAnnotation.COUNT) {
+				degree += value.get();
+				continue;
+			}
+			int y = value.get();
+			if (x < y) {
+				ok.set(x, y);
+				ov.set(degree, -1);
+			} else {
+				ok.set(y, x);
+				ov.set(-1, degree);
+			}
+			context.write(ok, ov);
+		}
+		degreeWedges += (long) degree * (degree - 1) / 2;
+		if (skew != null) skew.add(x, degree);
+	}
+	
+	@Override
+	protected void cleanup(Context context) throws IOException, InterruptedException {
+		context.getCounter(PipelineCounter.DEGREE_WEDGES).increment(degreeWedges);
+		if (skew != null) skew.close(context);
+	}
+}
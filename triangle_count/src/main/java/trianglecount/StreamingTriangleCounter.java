@@ -0,0 +1,110 @@
+package trianglecount;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.hadoop.conf.Configured;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.util.LineReader;
+import org.apache.hadoop.util.Tool;
+import org.apache.hadoop.util.ToolRunner;
+
+/**
+ * StreamingTriangleCounter - One-pass triangle estimate over an edge stream
+ *
+ * Reads edge lines (see EdgeLineParser) from a file, a directory of part files,
+ * or stdin ("-" or no input), feeds them one at a time to a
+ * StreamingTriangleEstimator and prints the running estimate. Memory is fixed
+ * by the reservoir size.
+ *
+ * Settings:
+ * - streaming.reservoir.edges M (default 1000000): edges kept in the sample;
+ *   the count is exact while the stream has at most M edges
+ * - streaming.seed (default 1)
+ * - streaming.report.edges N (default 0 = only at the end): print every N edges
+ * - streaming.local=true: also estimate per-vertex counts, written as
+ *   "vertex	estimate" lines to <localOutput>
+ *
+ * Usage: hadoop jar triangle_count.jar trianglecount.StreamingTriangleCounter
+ *          -D streaming.reservoir.edges=M <input|-> [localOutput]
+ */
+public class StreamingTriangleCounter extends Configured implements Tool {
+
+	public static final String RESERVOIR_KEY = "streaming.reservoir.edges";
+	public static final String SEED_KEY = "streaming.seed";
+	public static final String REPORT_KEY = "streaming.report.edges";
+	public static final String LOCAL_KEY = "streaming.local";
+
+	public static void main(String[] args) throws Exception {
+		ToolRunner.run(new StreamingTriangleCounter(), args);
+	}
+
+	public int run(String[] args) throws Exception {
+
+		StreamingTriangleEstimator estimator = new StreamingTriangleEstimator(
+				getConf().getInt(RESERVOIR_KEY, 1000000),
+				getConf().getLong(SEED_KEY, 1),
+				getConf().getBoolean(LOCAL_KEY, false));
+		long reportEvery = getConf().getLong(REPORT_KEY, 0);
+
+		long start = System.currentTimeMillis();
+		long lines = 0;
+		if (args.length == 0 || "-".equals(args[0])) {  // GenericOptionsParser may drop a lone "-"
+			lines = consume(new LineReader(System.in), estimator, reportEvery, start);
+		} else {
+			Path input = new Path(args[0]);
+			FileSystem fs = input.getFileSystem(getConf());
+			for (FileStatus status : CsrGraph.listInputFiles(fs, input)) {
+				try (LineReader reader = new LineReader(fs.open(status.getPath()))) {
+					lines += consume(reader, estimator, reportEvery, start);
+				}
+			}
+		}
+		long elapsed = Math.max(1, System.currentTimeMillis() - start);
+
+		System.out.println("Edges: " + estimator.getEdgesSeen() + " of " + lines + " lines, sampled: "
+				+ estimator.getSampleSize() + " (" + elapsed + " ms, "
+				+ (estimator.getEdgesSeen() * 1000 / elapsed) + " edges/s)");
+		System.out.println("Triangles: ~" + Math.round(estimator.getGlobalEstimate()));
+
+		if (estimator.hasLocalEstimates() && args.length > 1) {
+			Path localOutput = new Path(args[1]);
+			FileSystem fs = localOutput.getFileSystem(getConf());
+			try (BufferedWriter out = new BufferedWriter(new OutputStreamWriter(
+					fs.create(localOutput), StandardCharsets.UTF_8))) {
+				estimator.forEachLocalEstimate((vertex, estimate) -> {
+					out.write(vertex + "\t" + estimate);
+					out.newLine();
+				});
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * Feed every edge line of one reader to the estimator
+	 * @return number of lines read
+	 */
+	private static long consume(LineReader reader, StreamingTriangleEstimator estimator,
+			long reportEvery, long start) throws IOException {
+		EdgeLineParser parser = new EdgeLineParser();
+		Text line = new Text();
+		long lines = 0;
+		while (reader.readLine(line) > 0) {
+			lines++;
+			if (!parser.parse(line)) continue;  // Skip blank, comment and invalid lines
+
+			if (estimator.add(parser.getFirst(), parser.getSecond())
+					&& reportEvery > 0 && estimator.getEdgesSeen() % reportEvery == 0) {
+				System.out.println(estimator.getEdgesSeen() + " edges: ~" + Math.round(estimator.getGlobalEstimate())
+						+ " triangles (" + (System.currentTimeMillis() - start) + " ms)");
+			}
+		}
+		return lines;
+	}
+}
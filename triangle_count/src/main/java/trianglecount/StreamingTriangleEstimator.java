@@ -0,0 +1,336 @@
+package trianglecount;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * StreamingTriangleEstimator - Triangle estimate over an edge stream with a fixed edge budget
+ *
+ * Purpose: TRIÈST-IMPR (De Stefani et al., KDD 2016). A uniform reservoir of at
+ *          most M edges is kept; every arriving edge (u, v) first adds
+ *          eta = max(1, (t-1)(t-2) / (M(M-1))) for each common neighbor of u and v
+ *          in the sample, then may enter the reservoir. The counters are
+ *          unbiased estimates of the global (and per-vertex) triangle counts
+ *          at every point of the stream, and are never decremented.
+ *
+ * Layout (all primitive, sized once from M):
+ * - reservoir: packed edges (min << 32 | max), for uniform eviction
+ * - edgeSet:   open-addressing long set of the same edges, for O(1) closing-edge checks
+ * - vertex table: open-addressing int -> slot, slot -> int[] neighbors
+ *   Slots are recycled when a vertex loses its last sampled edge, so at most
+ *   2M vertices are ever held.
+ * Per-vertex estimates are optional: they need one counter per vertex that
+ * closes a triangle, which grows with the graph, not with M.
+ *
+ * The stream is assumed to hold each undirected edge once (as after
+ * NormalizeReducer); self-loops and repeats of a sampled edge are ignored.
+ */
+public class StreamingTriangleEstimator {
+
+	private final int capacity;          // M
+	private final SplittableRandom random;
+
+	private final long[] reservoir;
+	private int sampled;
+	private long seen;                   // t
+
+	private final long[] edgeSet;        // 0 = empty (the key of the self-loop (0, 0))
+	private final int edgeMask;
+
+	private final int[] vertexKeys;
+	private final int[] vertexSlots;     // slot + 1, 0 = empty
+	private final int vertexMask;
+	private final int[][] neighbors;
+	private final int[] degrees;
+	private final int[] freeSlots;
+	private int numFree;
+
+	private double global;
+	private final LocalCounts local;
+
+	public StreamingTriangleEstimator(int reservoirEdges, long seed, boolean perVertex) {
+		if (reservoirEdges < 2) {
+			throw new IllegalArgumentException("Reservoir must hold at least 2 edges: " + reservoirEdges);
+		}
+		this.capacity = reservoirEdges;
+		this.random = new SplittableRandom(seed);
+		this.reservoir = new long[reservoirEdges];
+
+		this.edgeSet = new long[tableSize(reservoirEdges)];
+		this.edgeMask = edgeSet.length - 1;
+
+		int maxVertices = 2 * reservoirEdges;
+		this.vertexKeys = new int[tableSize(maxVertices)];
+		this.vertexSlots = new int[vertexKeys.length];
+		this.vertexMask = vertexKeys.length - 1;
+		this.neighbors = new int[maxVertices][];
+		this.degrees = new int[maxVertices];
+		this.freeSlots = new int[maxVertices];
+		for (int i = 0; i < maxVertices; i++) {
+			freeSlots[i] = maxVertices - 1 - i;
+		}
+		this.numFree = maxVertices;
+
+		this.local = perVertex ? new LocalCounts() : null;
+	}
+
+	/** Current estimate of the number of triangles in the stream so far */
+	public double getGlobalEstimate() {
+		return global;
+	}
+
+	/** Current estimate of the triangles containing vertex v (0 without per-vertex counts) */
+	public double getLocalEstimate(int v) {
+		return local == null ? 0 : local.get(v);
+	}
+
+	public boolean hasLocalEstimates() {
+		return local != null;
+	}
+
+	/** Edges processed so far (t), not counting ignored ones */
+	public long getEdgesSeen() {
+		return seen;
+	}
+
+	public int getSampleSize() {
+		return sampled;
+	}
+
+	public int getReservoirCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Process the next edge of the stream
+	 * @return false if the edge was ignored (self-loop or already sampled)
+	 */
+	public boolean add(int u, int v) {
+		if (u == v) return false;
+		long key = BlockedBloomFilter.edgeKey(u, v);
+		if (containsEdge(key)) return false;
+
+		seen++;
+		countClosed(u, v);
+
+		if (sampled < capacity) {
+			reservoir[sampled++] = key;
+			insertEdge(key, u, v);
+		} else if (random.nextLong(seen) < capacity) {
+			int victim = random.nextInt(capacity);
+			long old = reservoir[victim];
+			removeEdge(old, (int) (old >> 32), (int) old);
+			reservoir[victim] = key;
+			insertEdge(key, u, v);
+		}
+		return true;
+	}
+
+	/**
+	 * Add eta for every sampled wedge u - w - v that the new edge (u, v) closes
+	 */
+	private void countClosed(int u, int v) {
+		int su = slotOf(u);
+		int sv = slotOf(v);
+		if (su < 0 || sv < 0) return;
+
+		// scan the smaller neighborhood, probe the edge set for the other side
+		int scan = degrees[su] <= degrees[sv] ? su : sv;
+		int other = scan == su ? v : u;
+		int[] list = neighbors[scan];
+		int n = degrees[scan];
+
+		double t = seen;
+		double eta = Math.max(1.0, (t - 1) * (t - 2) / ((double) capacity * (capacity - 1)));
+		int closed = 0;
+		for (int i = 0; i < n; i++) {
+			int w = list[i];
+			if (containsEdge(BlockedBloomFilter.edgeKey(w, other))) {
+				closed++;
+				if (local != null) local.add(w, eta);
+			}
+		}
+		if (closed > 0) {
+			global += closed * eta;
+			if (local != null) {
+				local.add(u, closed * eta);
+				local.add(v, closed * eta);
+			}
+		}
+	}
+
+	/**
+	 * Visit all per-vertex estimates (no-op without per-vertex counts)
+	 */
+	public void forEachLocalEstimate(LocalEstimateVisitor visitor) throws IOException {
+		if (local == null) return;
+		for (int i = 0; i < local.keys.length; i++) {
+			if (local.used[i]) visitor.visit(local.keys[i], local.values[i]);
+		}
+	}
+
+	public interface LocalEstimateVisitor {
+		void visit(int vertex, double estimate) throws IOException;
+	}
+
+	// ---- sampled graph -------------------------------------------------------
+
+	private void insertEdge(long key, int u, int v) {
+		int i = (int) BlockedBloomFilter.mix(key) & edgeMask;
+		while (edgeSet[i] != 0) {
+			i = (i + 1) & edgeMask;
+		}
+		edgeSet[i] = key;
+		addNeighbor(u, v);
+		addNeighbor(v, u);
+	}
+
+	private void removeEdge(long key, int u, int v) {
+		int i = (int) BlockedBloomFilter.mix(key) & edgeMask;
+		while (edgeSet[i] != key) {
+			i = (i + 1) & edgeMask;
+		}
+		// backward-shift deletion keeps probe chains intact without tombstones
+		int hole = i;
+		for (int j = (hole + 1) & edgeMask; edgeSet[j] != 0; j = (j + 1) & edgeMask) {
+			int home = (int) BlockedBloomFilter.mix(edgeSet[j]) & edgeMask;
+			if (((j - home) & edgeMask) >= ((j - hole) & edgeMask)) {
+				edgeSet[hole] = edgeSet[j];
+				hole = j;
+			}
+		}
+		edgeSet[hole] = 0;
+		removeNeighbor(u, v);
+		removeNeighbor(v, u);
+	}
+
+	private boolean containsEdge(long key) {
+		for (int i = (int) BlockedBloomFilter.mix(key) & edgeMask; edgeSet[i] != 0; i = (i + 1) & edgeMask) {
+			if (edgeSet[i] == key) return true;
+		}
+		return false;
+	}
+
+	private void addNeighbor(int x, int y) {
+		int i = vertexIndex(x);
+		int slot;
+		if (vertexSlots[i] == 0) {
+			slot = freeSlots[--numFree];
+			vertexKeys[i] = x;
+			vertexSlots[i] = slot + 1;
+			if (neighbors[slot] == null) neighbors[slot] = new int[4];
+		} else {
+			slot = vertexSlots[i] - 1;
+		}
+		int d = degrees[slot];
+		if (d == neighbors[slot].length) {
+			neighbors[slot] = Arrays.copyOf(neighbors[slot], d * 2);
+		}
+		neighbors[slot][d] = y;
+		degrees[slot] = d + 1;
+	}
+
+	private void removeNeighbor(int x, int y) {
+		int i = vertexIndex(x);
+		int slot = vertexSlots[i] - 1;
+		int[] list = neighbors[slot];
+		int d = degrees[slot] - 1;
+		for (int k = 0; k <= d; k++) {
+			if (list[k] == y) {
+				list[k] = list[d];
+				break;
+			}
+		}
+		degrees[slot] = d;
+		if (d > 0) return;
+
+		// last sampled edge of x: recycle the slot, drop large arrays
+		if (list.length > 64) neighbors[slot] = null;
+		freeSlots[numFree++] = slot;
+		int hole = i;
+		for (int j = (hole + 1) & vertexMask; vertexSlots[j] != 0; j = (j + 1) & vertexMask) {
+			int home = (int) BlockedBloomFilter.mix(vertexKeys[j]) & vertexMask;
+			if (((j - home) & vertexMask) >= ((j - hole) & vertexMask)) {
+				vertexKeys[hole] = vertexKeys[j];
+				vertexSlots[hole] = vertexSlots[j];
+				hole = j;
+			}
+		}
+		vertexSlots[hole] = 0;
+	}
+
+	/** Table index of vertex x: its entry, or the empty position where it would go */
+	private int vertexIndex(int x) {
+		int i = (int) BlockedBloomFilter.mix(x) & vertexMask;
+		while (vertexSlots[i] != 0 && vertexKeys[i] != x) {
+			i = (i + 1) & vertexMask;
+		}
+		return i;
+	}
+
+	private int slotOf(int x) {
+		return vertexSlots[vertexIndex(x)] - 1;
+	}
+
+	/** Power-of-two table size at most half full for n keys */
+	private static int tableSize(int n) {
+		long size = Long.highestOneBit(Math.max(2L, 2L * n - 1)) << 1;
+		if (size > (1 << 30)) {
+			throw new IllegalArgumentException("Reservoir too large: " + n);
+		}
+		return (int) size;
+	}
+
+	/**
+	 * Growable open-addressing int -> double map for per-vertex estimates
+	 */
+	private static class LocalCounts {
+		int[] keys = new int[1 << 10];
+		double[] values = new double[1 << 10];
+		boolean[] used = new boolean[1 << 10];
+		int size;
+
+		double get(int key) {
+			int mask = keys.length - 1;
+			for (int i = (int) BlockedBloomFilter.mix(key) & mask; used[i]; i = (i + 1) & mask) {
+				if (keys[i] == key) return values[i];
+			}
+			return 0;
+		}
+
+		void add(int key, double delta) {
+			int mask = keys.length - 1;
+			int i = (int) BlockedBloomFilter.mix(key) & mask;
+			while (used[i]) {
+				if (keys[i] == key) {
+					values[i] += delta;
+					return;
+				}
+				i = (i + 1) & mask;
+			}
+			used[i] = true;
+			keys[i] = key;
+			values[i] = delta;
+			if (++size * 2 > keys.length) grow();
+		}
+
+		private void grow() {
+			int[] oldKeys = keys;
+			double[] oldValues = values;
+			boolean[] oldUsed = used;
+			keys = new int[oldKeys.length * 2];
+			values = new double[keys.length];
+			used = new boolean[keys.length];
+			int mask = keys.length - 1;
+			for (int j = 0; j < oldKeys.length; j++) {
+				if (!oldUsed[j]) continue;
+				int i = (int) BlockedBloomFilter.mix(oldKeys[j]) & mask;
+				while (used[i]) i = (i + 1) & mask;
+				used[i] = true;
+				keys[i] = oldKeys[j];
+				values[i] = oldValues[j];
+			}
+		}
+	}
+}
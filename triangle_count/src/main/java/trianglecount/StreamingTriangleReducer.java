@@ -0,0 +1,69 @@
+package trianglecount;
+
+import java.io.IOException;
+import java.util.Iterator;
+
+import org.apache.hadoop.io.IntWritable;
+import org.apache.hadoop.mapreduce.Reducer;
+
+/**
+ * StreamingTriangleReducer - Triangle join without buffering (secondary sort)
+ * 
+ * Purpose: Same output as TriangleReducer. The composite key sorts the edge
+ *          marker of (u, v) before its wedges, so the first value decides
+ *          the whole group:
+ * - first value is a wedge: no edge (u, v), the group is dropped unread
+ * - first value is the marker: every following wedge center is written
+ *   straight through
+ *          O(1) memory per group instead of a list of all wedge centers.
+ * 
+ * Input:  ((u, v, tag), [-1, ..., c1, c2, ...]) - grouped by (u, v); the key
+ *         object carries the tag of the current value while iterating
+ * Output: ((u, v), c) - triangle (u, v, c)
+ */
+public class StreamingTriangleReducer extends Reducer<TaggedPairWritable, IntWritable, IntPairWritable, IntWritable> {
+	
+	private IntPairWritable ok = new IntPairWritable();
+	private long triangles = 0;
+	private GroupSkew.Recorder skew;
+	
+	@Override
+	protected void setup(Context context) throws IOException, InterruptedException {
+		skew = GroupSkew.recorder(context);
+	}
+	
+	@Override
+	protected void reduce(TaggedPairWritable key, Iterable<IntWritable> values, Context context)
+			throws IOException, InterruptedException {
+		
+		ok.set(key.getFirst(), key.getSecond());
+		if (key.getTag() != TaggedPairWritable.EDGE) {
+			if (skew != null) skew.add(ok, count(values));  // read only for the report
+			return;  // no closing edge: skip the group
+		}
+		
+		long n = 0;
+		for (IntWritable center : values) {
+			n++;
+			if (key.getTag() == TaggedPairWritable.WEDGE) {  // duplicate edge markers are skipped
+				context.write(ok, center);
+				triangles++;
+			}
+		}
+		if (skew != null) skew.add(ok, n);
+	}
+	
+	private static long count(Iterable<IntWritable> values) {
+		long n = 0;
+		for (Iterator<IntWritable> it = values.iterator(); it.hasNext(); it.next()) {
+			n++;
+		}
+		return n;
+	}
+	
+	@Override
+	protected void cleanup(Context context) throws IOException, InterruptedException {
+		context.getCounter(PipelineCounter.TRIANGLES).increment(triangles);
+		if (skew != null) skew.close(context);
+	}
+}
@@ -0,0 +1,344 @@
+package trianglecount;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.PriorityQueue;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.io.SequenceFile;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.Job;
+import org.apache.hadoop.mapreduce.Mapper;
+import org.apache.hadoop.mapreduce.Reducer;
+import org.apache.hadoop.mapreduce.lib.input.FileInputFormat;
+import org.apache.hadoop.mapreduce.lib.input.SequenceFileInputFormat;
+import org.apache.hadoop.mapreduce.lib.output.FileOutputFormat;
+import org.apache.hadoop.mapreduce.lib.output.SequenceFileOutputFormat;
+
+/**
+ * SymmetricEdgeIndex - Sorted, memory-mapped adjacency of an undirected graph
+ *
+ * Purpose: Neighborhood and edge lookups for IncrementalTriangleDriver without
+ *          loading the graph: every edge is stored in both directions, so the
+ *          neighbors of x are one contiguous run found by binary search, and
+ *          only the pages of the vertices that are looked up are read.
+ *
+ * Build: a job sorts both directions of every normalized edge, the driver
+ * merges the sorted reducer outputs into the file (see build).
+ *
+ * File format (little-endian, same layout as SortedEdgeSet):
+ * - 8-byte header: magic, version
+ * - one long per directed edge, (x << 32) | y, strictly increasing
+ * The same format holds the added and removed overlays of IncrementalTriangleDriver.
+ */
+public class SymmetricEdgeIndex {
+
+	static final int MAGIC = 0x58494553;  // "SEIX"
+	static final int VERSION = 1;
+	static final int HEADER_BYTES = 8;
+
+	private final LongBuffer edges;
+	private final int size;
+
+	private SymmetricEdgeIndex(LongBuffer edges) {
+		this.edges = edges;
+		this.size = edges.limit();
+	}
+
+	/** Number of undirected edges */
+	public long numEdges() {
+		return size / 2;
+	}
+
+	/** Position of the first neighbor of x (end of the run: neighborStart(x + 1)) */
+	public int neighborStart(int x) {
+		return lowerBound(CsrGraph.pack(x, 0));
+	}
+
+	public int neighborEnd(int x) {
+		return x == Integer.MAX_VALUE ? size : lowerBound(CsrGraph.pack(x + 1, 0));
+	}
+
+	/** Neighbor stored at position i (see neighborStart) */
+	public int neighborAt(int i) {
+		return CsrGraph.second(edges.get(i));
+	}
+
+	public boolean contains(int x, int y) {
+		long key = CsrGraph.pack(x, y);
+		int i = lowerBound(key);
+		return i < size && edges.get(i) == key;
+	}
+
+	private int lowerBound(long key) {
+		int lo = 0;
+		int hi = size;
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (edges.get(mid) < key) {
+				lo = mid + 1;
+			} else {
+				hi = mid;
+			}
+		}
+		return lo;
+	}
+
+	/**
+	 * Memory-map an index file from the local disk (read-only, off-heap)
+	 */
+	public static SymmetricEdgeIndex map(File file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			if (channel.size() > Integer.MAX_VALUE) {
+				throw new IOException("Edge index larger than 2 GB cannot be mapped: " + file);
+			}
+			ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())
+					.order(ByteOrder.LITTLE_ENDIAN);
+			if (mapped.limit() < HEADER_BYTES || mapped.getInt(0) != MAGIC
+					|| (mapped.limit() - HEADER_BYTES) % 8 != 0) {
+				throw new IOException("Not a symmetric edge index file: " + file);
+			}
+			mapped.position(HEADER_BYTES);
+			return new SymmetricEdgeIndex(mapped.slice().order(ByteOrder.LITTLE_ENDIAN).asLongBuffer());
+		}
+	}
+
+	/**
+	 * Map the index at a path read by the driver itself (not a task, see CacheFiles.directFile)
+	 */
+	public static SymmetricEdgeIndex load(Configuration conf, Path path) throws IOException {
+		return map(CacheFiles.directFile(conf, path));
+	}
+
+	/**
+	 * Mapper: Both directions of each normalized edge (u, v) as packed keys
+	 */
+	public static class DirectedEdgeMapper extends Mapper<IntPairWritable, Text, LongWritable, NullWritable> {
+
+		private LongWritable directed = new LongWritable();
+
+		@Override
+		protected void map(IntPairWritable key, Text value, Context context)
+				throws IOException, InterruptedException {
+			directed.set(CsrGraph.pack(key.getFirst(), key.getSecond()));
+			context.write(directed, NullWritable.get());
+			directed.set(CsrGraph.pack(key.getSecond(), key.getFirst()));
+			context.write(directed, NullWritable.get());
+		}
+	}
+
+	/**
+	 * Combiner/Reducer: Each directed key once
+	 */
+	public static class DirectedEdgeReducer extends Reducer<LongWritable, NullWritable, LongWritable, NullWritable> {
+
+		@Override
+		protected void reduce(LongWritable key, Iterable<NullWritable> values, Context context)
+				throws IOException, InterruptedException {
+			context.write(key, NullWritable.get());
+		}
+	}
+
+	/**
+	 * Build the index from NormalizeReducer output (SequenceFile of ((u, v), "")).
+	 * The reverse directions are not in key order, so a job sorts the directed
+	 * keys in the shuffle and the driver k-way merges the sorted reducer
+	 * outputs into the file (as DegreeTable.build), holding one key per part.
+	 * @return number of undirected edges written
+	 * @throws IOException if the sorting job fails
+	 */
+	public static long build(Configuration conf, String normalizedPath, String indexPath) throws Exception {
+		String partsPath = indexPath + ".parts";
+
+		Job job = Job.getInstance(conf);
+		job.setJobName("IncrementalTriangle-BuildEdgeIndex");
+		job.setJarByClass(SymmetricEdgeIndex.class);
+
+		job.setMapperClass(DirectedEdgeMapper.class);
+		job.setCombinerClass(DirectedEdgeReducer.class);
+		job.setReducerClass(DirectedEdgeReducer.class);
+
+		job.setMapOutputKeyClass(LongWritable.class);
+		job.setMapOutputValueClass(NullWritable.class);
+		job.setOutputKeyClass(LongWritable.class);
+		job.setOutputValueClass(NullWritable.class);
+
+		job.setInputFormatClass(SequenceFileInputFormat.class);
+		job.setOutputFormatClass(SequenceFileOutputFormat.class);
+
+		FileInputFormat.addInputPath(job, new Path(normalizedPath));
+		FileOutputFormat.setOutputPath(job, new Path(partsPath));
+
+		long edges;
+		try {
+			JobMetrics.waitForCompletion(job);  // throws if the job failed, no index is written
+			edges = writeFromParts(conf, partsPath, indexPath);
+		} finally {
+			new Path(partsPath).getFileSystem(conf).delete(new Path(partsPath), true);
+		}
+		System.out.println("Edge index: " + edges + " edges -> " + indexPath);
+		return edges;
+	}
+
+	/**
+	 * Merge sorted (directed key, null) part files into the index file
+	 */
+	static long writeFromParts(Configuration conf, String partsPath, String indexPath) throws IOException {
+		Path parts = new Path(partsPath);
+		FileSystem fs = parts.getFileSystem(conf);
+
+		PriorityQueue<PartCursor> queue = new PriorityQueue<>();
+		try {
+			for (FileStatus part : CsrGraph.listInputFiles(fs, parts)) {
+				PartCursor cursor = new PartCursor(
+						new SequenceFile.Reader(conf, SequenceFile.Reader.file(part.getPath())));
+				if (cursor.advance()) {
+					queue.add(cursor);
+				} else {
+					cursor.reader.close();
+				}
+			}
+
+			try (OutputStream out = fs.create(new Path(indexPath), true)) {
+				IndexWriter writer = new IndexWriter(out);
+				while (!queue.isEmpty()) {
+					PartCursor cursor = queue.poll();
+					writer.add(cursor.key.get());  // parts are disjoint
+					if (cursor.advance()) {
+						queue.add(cursor);
+					} else {
+						cursor.reader.close();
+					}
+				}
+				writer.close();
+				return writer.written / 2;
+			}
+		} finally {
+			for (PartCursor cursor : queue) {
+				cursor.reader.close();
+			}
+		}
+	}
+
+	/**
+	 * Current key of one sorted part file during the k-way merge
+	 */
+	private static class PartCursor implements Comparable<PartCursor> {
+		final SequenceFile.Reader reader;
+		final LongWritable key = new LongWritable();
+		final NullWritable value = NullWritable.get();
+
+		PartCursor(SequenceFile.Reader reader) {
+			this.reader = reader;
+		}
+
+		boolean advance() throws IOException {
+			return reader.next(key, value);
+		}
+
+		public int compareTo(PartCursor o) {
+			return Long.compare(key.get(), o.key.get());
+		}
+	}
+
+	/**
+	 * All keys of this index (an overlay file read back by IncrementalTriangleDriver)
+	 */
+	public SortedLongSet toSet() {
+		SortedLongSet keys = new SortedLongSet();
+		for (int i = 0; i < size; i++) {
+			keys.add(edges.get(i));  // increasing, fills blocks completely
+		}
+		return keys;
+	}
+
+	/**
+	 * Write a set of directed keys (an overlay) in the file format above
+	 * @return number of keys written
+	 */
+	public static long write(OutputStream out, SortedLongSet keys) throws IOException {
+		IndexWriter writer = new IndexWriter(out);
+		SortedLongSet.Cursor cursor = new SortedLongSet.Cursor();
+		keys.seek(Long.MIN_VALUE, cursor);
+		while (cursor.hasNext()) {
+			writer.add(cursor.next());
+		}
+		writer.close();
+		return writer.written;
+	}
+
+	/**
+	 * Write a new index (compaction): this one without the removed keys, merged
+	 * with the added ones. One sequential pass over the index and both overlays.
+	 * @return number of undirected edges written
+	 */
+	public long writeUpdated(OutputStream out, SortedLongSet added, SortedLongSet removed) throws IOException {
+		IndexWriter writer = new IndexWriter(out);
+		SortedLongSet.Cursor add = new SortedLongSet.Cursor();
+		SortedLongSet.Cursor remove = new SortedLongSet.Cursor();
+		added.seek(Long.MIN_VALUE, add);
+		removed.seek(Long.MIN_VALUE, remove);
+		long nextAdd = add.hasNext() ? add.next() : Long.MAX_VALUE;
+		long nextRemove = remove.hasNext() ? remove.next() : Long.MAX_VALUE;
+		for (int i = 0; i < size; i++) {
+			long e = edges.get(i);
+			while (nextAdd < e) {
+				writer.add(nextAdd);
+				nextAdd = add.hasNext() ? add.next() : Long.MAX_VALUE;
+			}
+			while (nextRemove < e) {
+				nextRemove = remove.hasNext() ? remove.next() : Long.MAX_VALUE;
+			}
+			if (e == nextRemove) {
+				nextRemove = remove.hasNext() ? remove.next() : Long.MAX_VALUE;
+			} else {
+				writer.add(e);
+			}
+		}
+		while (nextAdd != Long.MAX_VALUE) {
+			writer.add(nextAdd);
+			nextAdd = add.hasNext() ? add.next() : Long.MAX_VALUE;
+		}
+		writer.close();
+		return writer.written / 2;
+	}
+
+	/**
+	 * Buffered writer of the file format above
+	 */
+	private static class IndexWriter {
+		final OutputStream out;
+		final ByteBuffer buffer = ByteBuffer.allocate(64 * 1024).order(ByteOrder.LITTLE_ENDIAN);
+		long written;
+
+		IndexWriter(OutputStream out) {
+			this.out = out;
+			buffer.putInt(MAGIC).putInt(VERSION);
+		}
+
+		void add(long edge) throws IOException {
+			if (!buffer.hasRemaining()) {
+				out.write(buffer.array(), 0, buffer.position());
+				buffer.clear();
+			}
+			buffer.putLong(edge);
+			written++;
+		}
+
+		void close() throws IOException {
+			out.write(buffer.array(), 0, buffer.position());
+			buffer.clear();
+		}
+	}
+}
@@ -0,0 +1,29 @@
+package trianglecount;
+
+import java.io.IOException;
+
+import org.apache.hadoop.io.IntWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.Mapper;
+
+/**
+ * TaggedEdgeMapper - Edge side of the secondary-sort triangle join
+ * 
+ * Purpose: Like EdgeMarkerSeqMapper, but the marker travels in the key tag
+ *          so it sorts before every wedge of the same (u, v).
+ * 
+ * Input:  ((u, v), "") - normalized edge (binary edge store or SequenceFile)
+ * Output: ((u, v, EDGE), -1) - edge marker
+ */
+public class TaggedEdgeMapper extends Mapper<IntPairWritable, Text, TaggedPairWritable, IntWritable> {
+	
+	private TaggedPairWritable ok = new TaggedPairWritable();
+	private IntWritable minusOne = new IntWritable(-1);
+	
+	@Override
+	protected void map(IntPairWritable key, Text value, Context context)
+			throws IOException, InterruptedException {
+		ok.set(key.getFirst(), key.getSecond(), TaggedPairWritable.EDGE);
+		context.write(ok, minusOne);
+	}
+}
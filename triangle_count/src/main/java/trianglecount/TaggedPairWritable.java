@@ -0,0 +1,131 @@
+package trianglecount;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import org.apache.hadoop.io.WritableComparable;
+import org.apache.hadoop.io.WritableComparator;
+
+/**
+ * TaggedPairWritable - (u, v) pair key with a tag for secondary sort
+ * 
+ * Purpose: Composite key of the secondary-sort triangle join (see TriangleJoinMode).
+ *          Sorted by (u, v, tag) but grouped and partitioned by (u, v) only, so
+ *          within one reduce group the edge marker (tag EDGE) always comes
+ *          before the wedges (tag WEDGE).
+ * 
+ * Extends IntPairWritable so the pair partitioners (IntPairIntPartitioner,
+ * IntPairRangePartitioner) partition it by (u, v) unchanged.
+ * 
+ * Serialized form: u, v as big-endian ints, then one tag byte (9 bytes)
+ */
+public class TaggedPairWritable extends IntPairWritable {
+	
+	public static final byte EDGE = 0;
+	public static final byte WEDGE = 1;
+	
+	byte tag;
+	
+	public void set(int u, int v, byte tag) {
+		set(u, v);
+		this.tag = tag;
+	}
+	
+	public byte getTag() {
+		return tag;
+	}
+	
+	@Override
+	public void readFields(DataInput in) throws IOException {
+		super.readFields(in);
+		tag = in.readByte();
+	}
+	
+	@Override
+	public void write(DataOutput out) throws IOException {
+		super.write(out);
+		out.writeByte(tag);
+	}
+	
+	@Override
+	public int compareTo(IntPairWritable o) {
+		int c = super.compareTo(o);
+		if (c != 0 || !(o instanceof TaggedPairWritable)) {
+			return c;
+		}
+		return Byte.compare(tag, ((TaggedPairWritable) o).tag);
+	}
+	
+	@Override
+	public boolean equals(Object o) {
+		return o instanceof TaggedPairWritable && super.equals(o) && tag == ((TaggedPairWritable) o).tag;
+	}
+	
+	@Override
+	public int hashCode() {
+		return super.hashCode() * 2 + tag;
+	}
+	
+	public String toString() {
+		return super.toString() + "\t" + tag;
+	}
+	
+	/**
+	 * Raw sort comparator: (u, v) as in IntPairWritable.Comparator, then tag
+	 */
+	public static class Comparator extends WritableComparator {
+		
+		public Comparator() {
+			super(TaggedPairWritable.class);
+		}
+		
+		@Override
+		public int compare(byte[] b1, int s1, int l1, byte[] b2, int s2, int l2) {
+			int c = comparePair(b1, s1, b2, s2);
+			if (c != 0) {
+				return c;
+			}
+			return Byte.compare(b1[s1 + 8], b2[s2 + 8]);
+		}
+	}
+	
+	/**
+	 * Raw grouping comparator: (u, v) only, the tag is ignored
+	 */
+	public static class GroupingComparator extends WritableComparator {
+		
+		public GroupingComparator() {
+			super(TaggedPairWritable.class);
+		}
+		
+		@Override
+		public int compare(byte[] b1, int s1, int l1, byte[] b2, int s2, int l2) {
+			return comparePair(b1, s1, b2, s2);
+		}
+		
+		@Override
+		@SuppressWarnings("rawtypes")
+		public int compare(WritableComparable a, WritableComparable b) {
+			IntPairWritable x = (IntPairWritable) a;
+			IntPairWritable y = (IntPairWritable) b;
+			if (x.u != y.u) {
+				return Integer.compare(x.u, y.u);
+			}
+			return Integer.compare(x.v, y.v);
+		}
+	}
+	
+	static int comparePair(byte[] b1, int s1, byte[] b2, int s2) {
+		int u1 = WritableComparator.readInt(b1, s1);
+		int u2 = WritableComparator.readInt(b2, s2);
+		if (u1 != u2) {
+			return Integer.compare(u1, u2);
+		}
+		return Integer.compare(WritableComparator.readInt(b1, s1 + 4), WritableComparator.readInt(b2, s2 + 4));
+	}
+	
+	static { // register raw comparator
+		WritableComparator.define(TaggedPairWritable.class, new Comparator());
+	}
+}
@@ -0,0 +1,24 @@
+package trianglecount;
+
+import java.io.IOException;
+
+import org.apache.hadoop.io.IntWritable;
+import org.apache.hadoop.mapreduce.Mapper;
+
+/**
+ * TaggedWedgeMapper - Wedge side of the secondary-sort triangle join
+ * 
+ * Input:  ((u, v), center) - wedge from SequenceFile
+ * Output: ((u, v, WEDGE), center) - sorts after the edge marker of (u, v)
+ */
+public class TaggedWedgeMapper extends Mapper<IntPairWritable, IntWritable, TaggedPairWritable, IntWritable> {
+	
+	private TaggedPairWritable ok = new TaggedPairWritable();
+	
+	@Override
+	protected void map(IntPairWritable key, IntWritable value, Context context)
+			throws IOException, InterruptedException {
+		ok.set(key.getFirst(), key.getSecond(), TaggedPairWritable.WEDGE);
+		context.write(ok, value);
+	}
+}
@@ -0,0 +1,107 @@
+package trianglecount;
+
+import java.io.IOException;
+import java.net.URI;
+
+import org.apache.hadoop.conf.Configured;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.Job;
+import org.apache.hadoop.mapreduce.Mapper;
+import org.apache.hadoop.mapreduce.lib.input.FileInputFormat;
+import org.apache.hadoop.mapreduce.lib.input.TextInputFormat;
+import org.apache.hadoop.mapreduce.lib.output.FileOutputFormat;
+import org.apache.hadoop.mapreduce.lib.output.TextOutputFormat;
+import org.apache.hadoop.util.Tool;
+import org.apache.hadoop.util.ToolRunner;
+
+/**
+ * TriangleIdTranslator - Translate a triangle listing of relabeled input back to original IDs
+ *
+ * Purpose: Drivers run on VertexRelabeler output report dense new IDs; this
+ *          map-only job rewrites every vertex of a "u	v	w" line through the
+ *          shipped new -> original VertexIdMapping. Columns keep their meaning
+ *          (closing edge, then center), so only the numbers change.
+ *          "triangles	n" lines of count-only output are copied unchanged.
+ *
+ * Output: <listing>.original_ids/part-m-*
+ *
+ * Usage: hadoop jar triangle_count.jar trianglecount.TriangleIdTranslator <relabeled> <listing>
+ */
+public class TriangleIdTranslator extends Configured implements Tool {
+
+	public static final String IDS_KEY = "relabel.ids.path";
+
+	public static void main(String[] args) throws Exception {
+		ToolRunner.run(new TriangleIdTranslator(), args);
+	}
+
+	/**
+	 * Mapper: "u	v	w" with new IDs -> same line with original IDs
+	 */
+	public static class TranslateMapper extends Mapper<LongWritable, Text, Text, NullWritable> {
+
+		private Text ok = new Text();
+		private StringBuilder line = new StringBuilder();
+
+		private VertexIdMapping ids;
+
+		@Override
+		protected void setup(Context context) throws IOException, InterruptedException {
+			ids = VertexIdMapping.load(context.getConfiguration(), context.getConfiguration().get(IDS_KEY));
+		}
+
+		@Override
+		protected void map(LongWritable key, Text value, Context context)
+				throws IOException, InterruptedException {
+			String[] fields = value.toString().split("\t");
+			if (fields.length != 3) {
+				context.write(value, NullWritable.get());  // "triangles	n" or anything else
+				return;
+			}
+			line.setLength(0);
+			for (int i = 0; i < fields.length; i++) {
+				int original = ids.get(Integer.parseInt(fields[i]));
+				if (original == VertexIdMapping.ABSENT) {
+					throw new IOException("Vertex outside the relabeling: " + fields[i]);
+				}
+				if (i > 0) line.append('\t');
+				line.append(original);
+			}
+			ok.set(line.toString());
+			context.write(ok, NullWritable.get());
+		}
+	}
+
+	public int run(String[] args) throws Exception {
+
+		String relabeledPath = args[0];
+		String listingPath = args[1];
+		String outputPath = listingPath + ".original_ids";
+		String idsPath = VertexRelabeler.idsPath(relabeledPath);
+
+		Job job = Job.getInstance(getConf());
+		job.setJobName("Relabel-TranslateTriangles");
+		job.setJarByClass(TriangleIdTranslator.class);
+
+		job.setMapperClass(TranslateMapper.class);
+		job.setNumReduceTasks(0);
+
+		job.setOutputKeyClass(Text.class);
+		job.setOutputValueClass(NullWritable.class);
+
+		job.setInputFormatClass(TextInputFormat.class);
+		job.setOutputFormatClass(TextOutputFormat.class);
+
+		job.getConfiguration().set(IDS_KEY, idsPath);
+		job.addCacheFile(new URI(idsPath));
+
+		FileInputFormat.addInputPath(job, new Path(listingPath));
+		FileOutputFormat.setOutputPath(job, new Path(outputPath));
+
+		JobMetrics.waitForCompletion(job);
+		return 0;
+	}
+}
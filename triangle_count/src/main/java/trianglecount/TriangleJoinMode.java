@@ -0,0 +1,108 @@
+package trianglecount;
+
+import java.io.IOException;
+import java.net.URI;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.IntWritable;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.InputFormat;
+import org.apache.hadoop.mapreduce.Job;
+import org.apache.hadoop.mapreduce.lib.input.MultipleInputs;
+import org.apache.hadoop.mapreduce.lib.input.SequenceFileInputFormat;
+import org.apache.hadoop.mapreduce.lib.output.TextOutputFormat;
+
+/**
+ * TriangleJoinMode - How wedges are closed against the edge set
+ * 
+ * Modes (set with -D triangle.join.mode=...):
+ * - reduce  (default): wedges are written out and joined with all edges in a
+ *                      separate triangle-finding job (TriangleReducer)
+ * - mapside: normalized edges are written once as a SortedEdgeSet, shipped
+ *            through the distributed cache, and WedgeJoinReducer checks each
+ *            closing edge exactly while generating wedges. The wedge output and
+ *            the whole triangle-finding job disappear.
+ * - secondary: reduce join with a composite key (TaggedPairWritable) and a
+ *              grouping comparator; the edge marker sorts first, so
+ *              StreamingTriangleReducer streams wedges without buffering.
+ *              Count-only mode keeps its own combiner-based join.
+ * 
+ * Usage: hadoop jar triangle_count.jar trianglecount.DegreeOptDriver -D triangle.join.mode=mapside <input>
+ */
+public class TriangleJoinMode {
+	
+	public static final String MODE_KEY = "triangle.join.mode";
+	public static final String REDUCE = "reduce";
+	public static final String MAPSIDE = "mapside";
+	public static final String SECONDARY = "secondary";
+	
+	public static String get(Configuration conf) {
+		return conf.get(MODE_KEY, REDUCE).toLowerCase();
+	}
+	
+	public static boolean isMapSide(Configuration conf) {
+		return MAPSIDE.equals(get(conf));
+	}
+	
+	/**
+	 * True if the triangle-finding job should use the secondary-sort join
+	 */
+	public static boolean isSecondarySort(Configuration conf) {
+		return SECONDARY.equals(get(conf)) && !TriangleOutputMode.isCountOnly(conf);
+	}
+	
+	/**
+	 * Configure a triangle-finding job as a secondary-sort join of the edges
+	 * (records ((u, v), "")) and the wedge SequenceFile. The partitioner set by
+	 * the driver must partition by (u, v) only.
+	 */
+	@SuppressWarnings("rawtypes")  // same parameter type as MultipleInputs.addInputPath
+	public static void configureSecondarySort(Job job, String edgesPath,
+			Class<? extends InputFormat> edgeInputFormat, String wedgePath) {
+		job.setMapOutputKeyClass(TaggedPairWritable.class);
+		job.setMapOutputValueClass(IntWritable.class);
+		job.setGroupingComparatorClass(TaggedPairWritable.GroupingComparator.class);
+		job.setReducerClass(StreamingTriangleReducer.class);
+		job.setOutputKeyClass(IntPairWritable.class);
+		job.setOutputValueClass(IntWritable.class);
+		
+		MultipleInputs.addInputPath(job, new Path(edgesPath), edgeInputFormat, TaggedEdgeMapper.class);
+		MultipleInputs.addInputPath(job, new Path(wedgePath), SequenceFileInputFormat.class, TaggedWedgeMapper.class);
+	}
+	
+	/**
+	 * Turn a wedge-generation job into a map-side join that writes confirmed triangles
+	 */
+	public static void configureMapSide(Job job, String edgeSetPath) throws Exception {
+		job.addCacheFile(new URI(edgeSetPath));
+		job.getConfiguration().set(SortedEdgeSet.PATH_KEY, edgeSetPath);
+		
+		job.setReducerClass(WedgeJoinReducer.class);
+		job.setOutputFormatClass(TextOutputFormat.class);
+		if (TriangleOutputMode.isCountOnly(job.getConfiguration())) {
+			job.setOutputKeyClass(Text.class);
+			job.setOutputValueClass(LongWritable.class);
+		} else {
+			job.setOutputKeyClass(IntPairWritable.class);
+			job.setOutputValueClass(IntWritable.class);
+		}
+	}
+	
+	/**
+	 * Write the edge set for a map-side join from NormalizeReducer output
+	 */
+	public static void writeEdgeSet(Configuration conf, String normalizedPath, String edgeSetPath) throws IOException {
+		long edges = SortedEdgeSet.writeFromNormalized(conf, normalizedPath, edgeSetPath);
+		System.out.println("Edge set: " + edges + " edges -> " + edgeSetPath);
+	}
+	
+	/**
+	 * Write the edge set for a map-side join from a relabeled binary edge store (see VertexRelabeler)
+	 */
+	public static void writeEdgeSetFromEdgeStore(Configuration conf, String edgesPath, String edgeSetPath) throws IOException {
+		long edges = SortedEdgeSet.writeFromEdgeStore(conf, edgesPath, edgeSetPath);
+		System.out.println("Edge set: " + edges + " edges -> " + edgeSetPath);
+	}
+}
@@ -0,0 +1,50 @@
+package trianglecount;
+
+import java.io.IOException;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.Job;
+
+/**
+ * TriangleOutputMode - Listing vs count-only output for the final triangle step
+ * 
+ * Modes (set with -D triangle.output.mode=...):
+ * - list  (default): TriangleReducer writes one ((u, v), c) line per triangle
+ * - count: WedgeTallyMapper -> TriangleTallyCombiner -> TriangleTallyReducer,
+ *          no triangle is materialized; each reducer writes one "triangles	n"
+ *          line and the global total is read back from PipelineCounter.TRIANGLES
+ * 
+ * Usage: hadoop jar triangle_count.jar trianglecount.DegreeOptDriver -D triangle.output.mode=count <input>
+ */
+public class TriangleOutputMode {
+	
+	public static final String MODE_KEY = "triangle.output.mode";
+	public static final String LIST = "list";
+	public static final String COUNT = "count";
+	
+	public static boolean isCountOnly(Configuration conf) {
+		return COUNT.equalsIgnoreCase(conf.get(MODE_KEY, LIST));
+	}
+	
+	/**
+	 * Configure the reduce side of a triangle-finding job for count-only mode.
+	 * The wedge input must be read with WedgeTallyMapper instead of WedgeMarkerMapper.
+	 */
+	public static void configureCountOnly(Job job) {
+		job.setCombinerClass(TriangleTallyCombiner.class);
+		job.setReducerClass(TriangleTallyReducer.class);
+		job.setOutputKeyClass(Text.class);
+		job.setOutputValueClass(LongWritable.class);
+	}
+	
+	/**
+	 * Read the global triangle count of a finished job and print it
+	 */
+	public static long reportTotal(Job job) throws IOException {
+		long triangles = job.getCounters().findCounter(PipelineCounter.TRIANGLES).getValue();
+		System.out.println("Triangles: " + triangles);
+		return triangles;
+	}
+}
@@ -18,6 +18,13 @@ import org.apache.hadoop.mapreduce.Reducer;
 public class TriangleReducer extends Reducer<IntPairWritable, IntWritable, IntPairWritable, IntWritable>{
 	
 	IntWritable ov = new IntWritable();
+	long triangles = 0;
+	GroupSkew.Recorder skew;
+	
+	@Override
+	protected void setup(Context context) {
+		skew = GroupSkew.recorder(context);
+	}
 	
 	@Override
 	// input  key: (3, 4), input value[-1, 5]
@@ -27,21 +34,32 @@ public class TriangleReducer extends Reducer<IntPairWritable, IntWritable, IntPa
 		
 		boolean edge_exists = false; 
 		ArrayList<Integer> nodes = new ArrayList<Integer>();
+		int markers = 0;
 
 		for(IntWritable v : values) {
 			if(v.get() == -1) {
 				edge_exists = true;
+				markers++;
 			}
 			else {
 				nodes.add(v.get());
 			}
 		}
 		
+		if (skew != null) skew.add(key, markers + nodes.size());
+		
 		if(edge_exists) {
 			for(int v : nodes) {
 				ov.set(v);
 				context.write(key, ov);
 			}
+			triangles += nodes.size();
 		}
 	}
+	
+	@Override
+	protected void cleanup(Context context) throws IOException, InterruptedException {
+		context.getCounter(PipelineCounter.TRIANGLES).increment(triangles);
+		if (skew != null) skew.close(context);
+	}
 }
@@ -0,0 +1,45 @@
+package trianglecount;
+
+import java.io.IOException;
+
+import org.apache.hadoop.io.IntWritable;
+import org.apache.hadoop.mapreduce.Reducer;
+
+/**
+ * TriangleTallyCombiner - Pre-aggregate wedge counts per closing edge (count-only mode)
+ * 
+ * Purpose: Collapse all wedge tallies of one (u, v) key into a single count
+ *          and all -1 edge markers into a single marker before the shuffle.
+ * 
+ * Input:  ((u, v), [-1, 1, 1, 3, ...]) - edge markers and wedge counts
+ * Output: ((u, v), -1) if any marker was seen, and ((u, v), sum) if sum > 0
+ */
+public class TriangleTallyCombiner extends Reducer<IntPairWritable, IntWritable, IntPairWritable, IntWritable> {
+	
+	private IntWritable marker = new IntWritable(-1);
+	private IntWritable sum = new IntWritable();
+	
+	@Override
+	protected void reduce(IntPairWritable key, Iterable<IntWritable> values, Context context)
+			throws IOException, InterruptedException {
+		
+		boolean edgeExists = false;
+		int wedges = 0;
+		
+		for (IntWritable v : values) {
+			if (v.get() == -1) {
+				edgeExists = true;
+			} else {
+				wedges += v.get();
+			}
+		}
+		
+		if (edgeExists) {
+			context.write(key, marker);
+		}
+		if (wedges > 0) {
+			sum.set(wedges);
+			context.write(key, sum);
+		}
+	}
+}
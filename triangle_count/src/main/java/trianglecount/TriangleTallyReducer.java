@@ -0,0 +1,59 @@
+package trianglecount;
+
+import java.io.IOException;
+
+import org.apache.hadoop.io.IntWritable;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.Reducer;
+
+/**
+ * TriangleTallyReducer - Count triangles without listing them (count-only mode)
+ * 
+ * Purpose: Same join as TriangleReducer, but only the number of closed wedges
+ *          is kept. Each task adds its total to PipelineCounter.TRIANGLES and
+ *          writes a single summary line.
+ * 
+ * Input:  ((u, v), [-1, n1, n2, ...]) - edge marker and wedge counts
+ * Output: ("triangles", total) - once per reduce task, in cleanup
+ */
+public class TriangleTallyReducer extends Reducer<IntPairWritable, IntWritable, Text, LongWritable> {
+	
+	private long triangles = 0;
+	private GroupSkew.Recorder skew;
+	
+	@Override
+	protected void setup(Context context) throws IOException, InterruptedException {
+		skew = GroupSkew.recorder(context);
+	}
+	
+	@Override
+	protected void reduce(IntPairWritable key, Iterable<IntWritable> values, Context context)
+			throws IOException, InterruptedException {
+		
+		boolean edgeExists = false;
+		long wedges = 0;
+		long n = 0;
+		
+		for (IntWritable v : values) {
+			n++;
+			if (v.get() == -1) {
+				edgeExists = true;
+			} else {
+				wedges += v.get();
+			}
+		}
+		if (skew != null) skew.add(key, n);
+		
+		if (edgeExists) {
+			triangles += wedges;
+		}
+	}
+	
+	@Override
+	protected void cleanup(Context context) throws IOException, InterruptedException {
+		context.getCounter(PipelineCounter.TRIANGLES).increment(triangles);
+		if (skew != null) skew.close(context);
+		context.write(new Text("triangles"), new LongWritable(triangles));
+	}
+}
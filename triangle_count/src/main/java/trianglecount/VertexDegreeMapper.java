@@ -0,0 +1,33 @@
+package trianglecount;
+
+import java.io.IOException;
+
+import org.apache.hadoop.io.IntWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.Mapper;
+
+/**
+ * VertexDegreeMapper - Credit each normalized edge to both endpoints
+ * 
+ * Input:  ((u, v), "") - normalized edge from SequenceFile (NormalizeReducer output)
+ * Output: (u, (1, 0)), (v, (1, 0)) - (degree, triangles) partial counts
+ */
+public class VertexDegreeMapper extends Mapper<IntPairWritable, Text, IntWritable, LongPairWritable> {
+	
+	private IntWritable ok = new IntWritable();
+	private LongPairWritable ov = new LongPairWritable();
+	
+	@Override
+	protected void setup(Context context) {
+		ov.set(1, 0);
+	}
+	
+	@Override
+	protected void map(IntPairWritable key, Text value, Context context)
+			throws IOException, InterruptedException {
+		ok.set(key.getFirst());
+		context.write(ok, ov);
+		ok.set(key.getSecond());
+		context.write(ok, ov);
+	}
+}
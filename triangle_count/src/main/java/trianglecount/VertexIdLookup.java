@@ -0,0 +1,130 @@
+package trianglecount;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+
+/**
+ * VertexIdLookup - Sorted original ID -> new ID pairs, memory-mapped by tasks
+ *
+ * Purpose: The original -> new direction of the VertexRelabeler mapping for
+ *          RelabelMapper. Original IDs are sparse and arbitrary (any int,
+ *          including negative), so instead of a table indexed by original ID
+ *          the file holds one pair per vertex with edges, sorted by original
+ *          ID, and get() is a binary search. Its size grows with the number
+ *          of vertices, not with the largest ID.
+ *
+ * File format (little-endian, same layout as SortedEdgeSet):
+ * - 8-byte header: magic, version
+ * - one long per vertex, (original << 32) | new, strictly increasing
+ *   (signed order of the high half = signed order of the original IDs)
+ */
+public class VertexIdLookup {
+
+	static final int MAGIC = 0x4B4C4956;  // "VILK"
+	static final int VERSION = 1;
+	static final int HEADER_BYTES = 8;
+
+	private final LongBuffer pairs;
+	private final int size;
+
+	private VertexIdLookup(LongBuffer pairs) {
+		this.pairs = pairs;
+		this.size = pairs.limit();
+	}
+
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * New ID of an original vertex ID, or VertexIdMapping.ABSENT if it has no edges
+	 */
+	public int get(int original) {
+		long key = CsrGraph.pack(original, 0);  // new IDs are >= 0
+		int lo = 0;
+		int hi = size;
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (pairs.get(mid) < key) {
+				lo = mid + 1;
+			} else {
+				hi = mid;
+			}
+		}
+		if (lo < size && CsrGraph.first(pairs.get(lo)) == original) {
+			return CsrGraph.second(pairs.get(lo));
+		}
+		return VertexIdMapping.ABSENT;
+	}
+
+	/**
+	 * Memory-map a lookup file from the local disk (read-only, off-heap)
+	 */
+	public static VertexIdLookup map(File file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			if (channel.size() > Integer.MAX_VALUE) {
+				throw new IOException("Vertex ID lookup larger than 2 GB cannot be mapped: " + file);
+			}
+			ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())
+					.order(ByteOrder.LITTLE_ENDIAN);
+			if (mapped.limit() < HEADER_BYTES || mapped.getInt(0) != MAGIC
+					|| (mapped.limit() - HEADER_BYTES) % 8 != 0) {
+				throw new IOException("Not a vertex ID lookup file: " + file);
+			}
+			mapped.position(HEADER_BYTES);
+			return new VertexIdLookup(mapped.slice().order(ByteOrder.LITTLE_ENDIAN).asLongBuffer());
+		}
+	}
+
+	/**
+	 * Load a shipped lookup file in a task (see CacheFiles.localFile)
+	 */
+	public static VertexIdLookup load(Configuration conf, String path) throws IOException {
+		if (path == null) {
+			throw new IOException("Vertex ID lookup path is not set");
+		}
+		return map(CacheFiles.localFile(conf, new Path(path)));
+	}
+
+	/**
+	 * Buffered writer of the file format above; pairs must come in increasing original ID order
+	 */
+	static class Writer {
+		private final OutputStream out;
+		private final ByteBuffer buffer = ByteBuffer.allocate(64 * 1024).order(ByteOrder.LITTLE_ENDIAN);
+		private boolean first = true;
+		private int last;
+
+		Writer(OutputStream out) {
+			this.out = out;
+			buffer.putInt(MAGIC).putInt(VERSION);
+		}
+
+		void add(int original, int newId) throws IOException {
+			if (!first && original <= last) {
+				throw new IOException("Vertex ID lookup needs increasing original IDs: " + original + " after " + last);
+			}
+			first = false;
+			last = original;
+			if (!buffer.hasRemaining()) {
+				out.write(buffer.array(), 0, buffer.position());
+				buffer.clear();
+			}
+			buffer.putLong(CsrGraph.pack(original, newId));
+		}
+
+		void close() throws IOException {
+			out.write(buffer.array(), 0, buffer.position());
+			buffer.clear();
+		}
+	}
+}
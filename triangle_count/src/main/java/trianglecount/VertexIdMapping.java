@@ -0,0 +1,98 @@
+package trianglecount;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+
+/**
+ * VertexIdMapping - Dense int -> int vertex ID table, memory-mapped by tasks
+ *
+ * Purpose: The ids file of VertexRelabeler: new ID 0..n-1 -> original ID,
+ *          for translating results back. It is dense over the new IDs only;
+ *          the original -> new direction is a VertexIdLookup, since original
+ *          IDs can be sparse.
+ *
+ * File format (little-endian, same layout as DegreeTable):
+ * - 8-byte header: magic, version
+ * - one int per index 0..size-1
+ */
+public class VertexIdMapping {
+
+	static final int MAGIC = 0x504D4956;  // "VIMP"
+	static final int VERSION = 1;
+	static final int HEADER_BYTES = 8;
+
+	public static final int ABSENT = -1;
+
+	private final IntBuffer ids;
+	private final int size;
+
+	private VertexIdMapping(IntBuffer ids) {
+		this.ids = ids;
+		this.size = ids.limit();
+	}
+
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Mapped ID of vertex, or ABSENT if it is outside the table
+	 */
+	public int get(int vertex) {
+		return vertex >= 0 && vertex < size ? ids.get(vertex) : ABSENT;
+	}
+
+	/**
+	 * Memory-map a mapping file from the local disk (read-only, off-heap)
+	 */
+	public static VertexIdMapping map(File file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			if (channel.size() > Integer.MAX_VALUE) {
+				throw new IOException("Vertex ID mapping larger than 2 GB cannot be mapped: " + file);
+			}
+			ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())
+					.order(ByteOrder.LITTLE_ENDIAN);
+			if (mapped.limit() < HEADER_BYTES || mapped.getInt(0) != MAGIC
+					|| (mapped.limit() - HEADER_BYTES) % 4 != 0) {
+				throw new IOException("Not a vertex ID mapping file: " + file);
+			}
+			mapped.position(HEADER_BYTES);
+			return new VertexIdMapping(mapped.slice().order(ByteOrder.LITTLE_ENDIAN).asIntBuffer());
+		}
+	}
+
+	/**
+	 * Load a shipped mapping file in a task (see CacheFiles.localFile)
+	 */
+	public static VertexIdMapping load(Configuration conf, String path) throws IOException {
+		if (path == null) {
+			throw new IOException("Vertex ID mapping path is not set");
+		}
+		return map(CacheFiles.localFile(conf, new Path(path)));
+	}
+
+	/**
+	 * Write ids[0..n-1] in the file format above
+	 */
+	static void write(OutputStream out, int[] ids, int n) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(64 * 1024).order(ByteOrder.LITTLE_ENDIAN);
+		buffer.putInt(MAGIC).putInt(VERSION);
+		for (int i = 0; i < n; i++) {
+			if (!buffer.hasRemaining()) {
+				out.write(buffer.array(), 0, buffer.position());
+				buffer.clear();
+			}
+			buffer.putInt(ids[i]);
+		}
+		out.write(buffer.array(), 0, buffer.position());
+	}
+}
@@ -0,0 +1,258 @@
+package trianglecount;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.conf.Configured;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.IntWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.Job;
+import org.apache.hadoop.mapreduce.Reducer;
+import org.apache.hadoop.mapreduce.TaskCounter;
+import org.apache.hadoop.mapreduce.lib.input.FileInputFormat;
+import org.apache.hadoop.mapreduce.lib.input.SequenceFileInputFormat;
+import org.apache.hadoop.mapreduce.lib.output.FileOutputFormat;
+import org.apache.hadoop.mapreduce.lib.output.SequenceFileOutputFormat;
+import org.apache.hadoop.util.Tool;
+import org.apache.hadoop.util.ToolRunner;
+
+/**
+ * VertexRelabeler - Replace vertex IDs by dense IDs 0..n-1 in increasing-degree order
+ *
+ * Purpose: Preprocessing stage for the triangle drivers. New IDs are ranks by
+ *          (degree, original ID), so the ReorientReducer rule (low -> high
+ *          degree, smaller ID on ties) becomes "smaller new ID first": the
+ *          relabeled edge list, stored with u < v, is already oriented.
+ *          DegreeOptDriver and BloomFilterDriver detect relabeled input
+ *          (see isRelabeled) and skip Steps 1-3.
+ *
+ * Original IDs may be sparse and arbitrary (any int, including negative):
+ * nothing is indexed by original ID. Dense tables exist for the new IDs only.
+ *
+ * Algorithm: 3 jobs + two streaming driver passes
+ * - Ingest and Step 1 as in DegreeOptDriver (EdgeIngest, NormalizeSeqMapper -> NormalizeReducer)
+ * - Step 2: (vertex, degree) counts keyed by original ID (DegreeTable.EndpointMapper
+ *           -> DegreeSumReducer), every part sorted by vertex
+ * - Driver: the parts are k-way merged in vertex order twice (DegreeTable.SortedCounts).
+ *           Pass 1 counts vertices per degree; the prefix sums give the first
+ *           rank of every degree. Pass 2 assigns rank = next rank of its degree,
+ *           a counting sort by degree that keeps ID order on ties, so ranks are
+ *           (degree, original ID) order. It writes the lookup in vertex order
+ *           and fills the ids array by rank.
+ *           Memory: one int per degree value and one per vertex with edges (ids).
+ * - Step 3: RelabelMapper -> identity reducer, edges sorted by new IDs
+ *
+ * Output: <input>.relabeled
+ * - edges/part-r-*: binary edge store (BinaryEdgeOutputFormat), a < b, sorted per part
+ * - ids:            new ID -> original ID (VertexIdMapping, dense over 0..n-1)
+ * - lookup:         original ID -> new ID (VertexIdLookup, sorted pairs, binary search)
+ * - _RELABELED:     "vertices	n" and "edges	m" lines, marks a complete relabeling
+ * Run a driver on <input>.relabeled itself; translate its triangle listing back
+ * with TriangleIdTranslator.
+ *
+ * Usage: hadoop jar triangle_count.jar trianglecount.VertexRelabeler <input>
+ */
+public class VertexRelabeler extends Configured implements Tool {
+
+	public static final String LOOKUP_KEY = "relabel.lookup.path";
+
+	static final String MARKER = "_RELABELED";
+
+	public static void main(String[] args) throws Exception {
+		ToolRunner.run(new VertexRelabeler(), args);
+	}
+
+	/**
+	 * True if path is the output directory of a complete VertexRelabeler run
+	 */
+	public static boolean isRelabeled(Configuration conf, String path) throws IOException {
+		Path marker = new Path(path, MARKER);
+		return marker.getFileSystem(conf).exists(marker);
+	}
+
+	/** Relabeled binary edge store inside a relabeled directory */
+	public static String edgesPath(String relabeledPath) {
+		return new Path(relabeledPath, "edges").toString();
+	}
+
+	/** New ID -> original ID mapping inside a relabeled directory */
+	public static String idsPath(String relabeledPath) {
+		return new Path(relabeledPath, "ids").toString();
+	}
+
+	public int run(String[] args) throws Exception {
+
+		String inputPath = args[0];
+		String outputPath = inputPath + ".relabeled";
+		String workPath = inputPath + ".relabel_work";              // removed at the end
+		String edgesPath = workPath + "/edges";                     // Binary edge store
+		String normalizedPath = workPath + "/normalized";           // Step 1 output
+		String countsPath = workPath + "/degrees";                  // Step 2 output
+		String lookupPath = outputPath + "/lookup";
+
+		EdgeIngest.ingest(getConf(), inputPath, edgesPath);
+		runStep1_Normalize(edgesPath, normalizedPath);
+		runStep2_CountDegrees(normalizedPath, countsPath);
+
+		FileSystem fs = new Path(outputPath).getFileSystem(getConf());
+		int vertices = writeMappings(getConf(), countsPath, idsPath(outputPath), lookupPath);
+		long edges = runStep3_Relabel(normalizedPath, edgesPath(outputPath), lookupPath);
+
+		try (BufferedWriter out = new BufferedWriter(new OutputStreamWriter(
+				fs.create(new Path(outputPath, MARKER)), StandardCharsets.UTF_8))) {
+			out.write("vertices\t" + vertices); out.newLine();
+			out.write("edges\t" + edges); out.newLine();
+		}
+		fs.delete(new Path(workPath), true);
+
+		System.out.println("Relabeled: " + vertices + " vertices, " + edges + " edges -> " + outputPath);
+		return 0;
+	}
+
+	/**
+	 * Step 1: Normalize edges from the binary edge store (NormalizeSeqMapper -> NormalizeReducer)
+	 */
+	private void runStep1_Normalize(String inputPath, String outputPath) throws Exception {
+
+		Job job = Job.getInstance(getConf());
+		job.setJobName("Relabel-Step1-Normalize");
+		job.setJarByClass(VertexRelabeler.class);
+
+		job.setMapperClass(NormalizeSeqMapper.class);
+		job.setReducerClass(NormalizeReducer.class);
+
+		job.setMapOutputKeyClass(IntPairWritable.class);
+		job.setMapOutputValueClass(IntWritable.class);
+
+		job.setPartitionerClass(IntPairIntPartitioner.class);
+
+		job.setOutputKeyClass(IntPairWritable.class);
+		job.setOutputValueClass(Text.class);
+
+		job.setInputFormatClass(BinaryEdgeInputFormat.class);
+		job.setOutputFormatClass(SequenceFileOutputFormat.class);
+
+		FileInputFormat.addInputPath(job, new Path(inputPath));
+		FileOutputFormat.setOutputPath(job, new Path(outputPath));
+
+		JobMetrics.waitForCompletion(job);
+	}
+
+	/**
+	 * Step 2: Degree of every vertex with edges, keyed by original ID
+	 * (DegreeTable.EndpointMapper -> DegreeSumReducer, no dense table)
+	 */
+	private void runStep2_CountDegrees(String inputPath, String outputPath) throws Exception {
+
+		Job job = Job.getInstance(getConf());
+		job.setJobName("Relabel-Step2-CountDegrees");
+		job.setJarByClass(VertexRelabeler.class);
+
+		job.setMapperClass(DegreeTable.EndpointMapper.class);
+		job.setCombinerClass(DegreeTable.DegreeSumReducer.class);
+		job.setReducerClass(DegreeTable.DegreeSumReducer.class);
+
+		job.setMapOutputKeyClass(IntWritable.class);
+		job.setMapOutputValueClass(IntWritable.class);
+		job.setOutputKeyClass(IntWritable.class);
+		job.setOutputValueClass(IntWritable.class);
+
+		job.setInputFormatClass(SequenceFileInputFormat.class);
+		job.setOutputFormatClass(SequenceFileOutputFormat.class);
+
+		FileInputFormat.addInputPath(job, new Path(inputPath));
+		FileOutputFormat.setOutputPath(job, new Path(outputPath));
+
+		JobMetrics.waitForCompletion(job);
+	}
+
+	/**
+	 * Rank the vertices with edges by (degree, original ID) and write both
+	 * mappings, streaming the sorted Step 2 parts twice (see Algorithm)
+	 * @return number of relabeled vertices
+	 */
+	static int writeMappings(Configuration conf, String countsPath, String idsPath, String lookupPath)
+			throws IOException {
+		int[] firstRank = new int[16];  // per degree: vertices, then first rank
+		long n = 0;
+		try (DegreeTable.SortedCounts counts = new DegreeTable.SortedCounts(conf, countsPath)) {
+			while (counts.next()) {
+				int degree = counts.degree();
+				if (degree >= firstRank.length) {
+					firstRank = Arrays.copyOf(firstRank, Math.max(degree + 1, firstRank.length * 2));
+				}
+				firstRank[degree]++;
+				n++;
+			}
+		}
+		if (n > Integer.MAX_VALUE) {
+			throw new IOException("Too many vertices for int IDs: " + n);
+		}
+		int rank = 0;
+		for (int d = 0; d < firstRank.length; d++) {
+			int vertices = firstRank[d];
+			firstRank[d] = rank;
+			rank += vertices;
+		}
+
+		int[] ids = new int[(int) n];
+		FileSystem fs = new Path(lookupPath).getFileSystem(conf);
+		try (DegreeTable.SortedCounts counts = new DegreeTable.SortedCounts(conf, countsPath);
+				OutputStream out = fs.create(new Path(lookupPath), true)) {
+			VertexIdLookup.Writer lookup = new VertexIdLookup.Writer(out);
+			while (counts.next()) {
+				int newId = firstRank[counts.degree()]++;
+				ids[newId] = counts.vertex();
+				lookup.add(counts.vertex(), newId);
+			}
+			lookup.close();
+		}
+		try (OutputStream out = fs.create(new Path(idsPath), true)) {
+			VertexIdMapping.write(out, ids, ids.length);
+		}
+		return ids.length;
+	}
+
+	/**
+	 * Step 3: Rewrite normalized edges with new IDs (RelabelMapper -> identity reducer)
+	 * @return number of edges written
+	 */
+	private long runStep3_Relabel(String inputPath, String outputPath, String lookupPath) throws Exception {
+
+		Job job = Job.getInstance(getConf());
+		job.setJobName("Relabel-Step3-RewriteEdges");
+		job.setJarByClass(VertexRelabeler.class);
+
+		job.setMapperClass(RelabelMapper.class);
+		job.setReducerClass(Reducer.class);
+
+		job.setMapOutputKeyClass(IntPairWritable.class);
+		job.setMapOutputValueClass(Text.class);
+
+		job.setPartitionerClass(IntPairIntPartitioner.class);
+
+		job.setOutputKeyClass(IntPairWritable.class);
+		job.setOutputValueClass(Text.class);
+
+		job.setInputFormatClass(SequenceFileInputFormat.class);
+		job.setOutputFormatClass(BinaryEdgeOutputFormat.class);
+
+		job.getConfiguration().set(LOOKUP_KEY, lookupPath);
+		job.addCacheFile(new URI(lookupPath));
+
+		FileInputFormat.addInputPath(job, new Path(inputPath));
+		FileOutputFormat.setOutputPath(job, new Path(outputPath));
+
+		JobMetrics.waitForCompletion(job);
+
+		return job.getCounters().findCounter(TaskCounter.REDUCE_OUTPUT_RECORDS).getValue();
+	}
+}
@@ -0,0 +1,81 @@
+package trianglecount;
+
+import org.apache.hadoop.conf.Configured;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.IntWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.Job;
+import org.apache.hadoop.mapreduce.lib.input.MultipleInputs;
+import org.apache.hadoop.mapreduce.lib.input.SequenceFileInputFormat;
+import org.apache.hadoop.mapreduce.lib.input.TextInputFormat;
+import org.apache.hadoop.mapreduce.lib.output.FileOutputFormat;
+import org.apache.hadoop.mapreduce.lib.output.SequenceFileOutputFormat;
+import org.apache.hadoop.mapreduce.lib.output.TextOutputFormat;
+import org.apache.hadoop.util.Tool;
+import org.apache.hadoop.util.ToolRunner;
+
+/**
+ * VertexStatsDriver - Per-vertex triangle counts and local clustering coefficients
+ * 
+ * Runs after DegreeOptDriver / BloomFilterDriver / BaselineDriver on their
+ * outputs, in one job; no triangle is listed again:
+ * - VertexTriangleMapper:  triangle listing -> (x, (0, 1)) for each of its 3 vertices
+ * - VertexDegreeMapper:    normalized edges -> (x, (1, 0)) for both endpoints
+ * - LongPairSumCombiner:   sums (degree, triangles) map-side
+ * - VertexStatsReducer:    degree, triangles, coefficient = 2T / (d (d - 1))
+ * Degrees are counted from the normalized edges in the same job, so every
+ * vertex is written, including those in no triangle.
+ * 
+ * Output: <input>.vertex_stats
+ * - text (default): "vertex	degree	triangles	coefficient"
+ * - -D vertex.stats.format=binary: SequenceFile of (IntWritable vertex,
+ *   LongPairWritable (degree, triangles)); see VertexStatsReducer.coefficient
+ * In-memory equivalent: LocalTriangleCounter -D local.vertex.stats=true
+ * 
+ * Usage: hadoop jar triangle_count.jar trianglecount.VertexStatsDriver <input> [triangles]
+ *        (triangles defaults to <input>.out_degree; needs <input>.normalized)
+ */
+public class VertexStatsDriver extends Configured implements Tool {
+	
+	public static final String FORMAT_KEY = "vertex.stats.format";
+	
+	public static void main(String[] args) throws Exception {
+		ToolRunner.run(new VertexStatsDriver(), args);
+	}
+	
+	public int run(String[] args) throws Exception {
+		
+		String inputPath = args[0];
+		String trianglePath = args.length > 1 ? args[1] : inputPath + ".out_degree";
+		String normalizedPath = inputPath + ".normalized";
+		String outputPath = inputPath + ".vertex_stats";
+		boolean binary = "binary".equalsIgnoreCase(getConf().get(FORMAT_KEY, "text"));
+		
+		Job job = Job.getInstance(getConf());
+		job.setJobName("VertexStats-Step1-CountPerVertex");
+		job.setJarByClass(VertexStatsDriver.class);
+		
+		job.setCombinerClass(LongPairSumCombiner.class);
+		
+		job.setMapOutputKeyClass(IntWritable.class);
+		job.setMapOutputValueClass(LongPairWritable.class);
+		
+		job.setOutputKeyClass(IntWritable.class);
+		if (binary) {
+			job.setReducerClass(LongPairSumCombiner.class);
+			job.setOutputValueClass(LongPairWritable.class);
+			job.setOutputFormatClass(SequenceFileOutputFormat.class);
+		} else {
+			job.setReducerClass(VertexStatsReducer.class);
+			job.setOutputValueClass(Text.class);
+			job.setOutputFormatClass(TextOutputFormat.class);
+		}
+		
+		MultipleInputs.addInputPath(job, new Path(trianglePath), TextInputFormat.class, VertexTriangleMapper.class);
+		MultipleInputs.addInputPath(job, new Path(normalizedPath), SequenceFileInputFormat.class, VertexDegreeMapper.class);
+		FileOutputFormat.setOutputPath(job, new Path(outputPath));
+		
+		JobMetrics.waitForCompletion(job);
+		return 0;
+	}
+}
@@ -0,0 +1,44 @@
+package trianglecount;
+
+import java.io.IOException;
+
+import org.apache.hadoop.io.IntWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.Reducer;
+
+/**
+ * VertexStatsReducer - Degree, triangle count and local clustering coefficient per vertex
+ * 
+ * Coefficient: 2 * triangles / (degree * (degree - 1)), 0 for degree < 2
+ * 
+ * Input:  (x, [(d1, t1), (d2, t2), ...]) - partial (degree, triangles) counts
+ * Output: (x, "degree	triangles	coefficient")
+ */
+public class VertexStatsReducer extends Reducer<IntWritable, LongPairWritable, IntWritable, Text> {
+	
+	private Text ov = new Text();
+	
+	@Override
+	protected void reduce(IntWritable key, Iterable<LongPairWritable> values, Context context)
+			throws IOException, InterruptedException {
+		long degree = 0;
+		long triangles = 0;
+		for (LongPairWritable v : values) {
+			degree += v.getFirst();
+			triangles += v.getSecond();
+		}
+		ov.set(format(degree, triangles));
+		context.write(key, ov);
+	}
+	
+	/**
+	 * "degree	triangles	coefficient" (shared with LocalTriangleCounter)
+	 */
+	static String format(long degree, long triangles) {
+		return degree + "\t" + triangles + "\t" + (float) coefficient(degree, triangles);
+	}
+	
+	public static double coefficient(long degree, long triangles) {
+		return degree < 2 ? 0 : 2.0 * triangles / ((double) degree * (degree - 1));
+	}
+}
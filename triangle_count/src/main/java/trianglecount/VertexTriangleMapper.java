@@ -0,0 +1,39 @@
+package trianglecount;
+
+import java.io.IOException;
+
+import org.apache.hadoop.io.IntWritable;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.Mapper;
+
+/**
+ * VertexTriangleMapper - Credit each listed triangle to its three vertices
+ * 
+ * Input:  "u	v	c" - triangle line written by TriangleReducer (or LocalTriangleCounter)
+ * Output: (u, (0, 1)), (v, (0, 1)), (c, (0, 1)) - (degree, triangles) partial counts
+ */
+public class VertexTriangleMapper extends Mapper<LongWritable, Text, IntWritable, LongPairWritable> {
+	
+	private IntWritable ok = new IntWritable();
+	private LongPairWritable ov = new LongPairWritable();
+	private EdgeLineParser parser = new EdgeLineParser();
+	
+	@Override
+	protected void setup(Context context) {
+		ov.set(0, 1);
+	}
+	
+	@Override
+	protected void map(LongWritable key, Text value, Context context)
+			throws IOException, InterruptedException {
+		if (!parser.parseTriangle(value, context)) return;  // blank, comment or malformed line
+		
+		ok.set(parser.getFirst());
+		context.write(ok, ov);
+		ok.set(parser.getSecond());
+		context.write(ok, ov);
+		ok.set(parser.getThird());
+		context.write(ok, ov);
+	}
+}
@@ -0,0 +1,77 @@
+package trianglecount;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.apache.hadoop.io.IntWritable;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.Reducer;
+
+/**
+ * WedgeAdjacencyReducer - Wedge step over neighbor blocks (see AdjacencyShuffle)
+ * 
+ * Purpose: Merges the blocks of a center and generates all neighbor pairs, like
+ *          WedgeReducer. Closing edges are checked with ClosingEdgeCheck, so the
+ *          same reducer serves the Bloom filter (WedgeBloomReducer) and the
+ *          map-side join (WedgeJoinReducer) configurations.
+ * 
+ * Input:  (center, [[n1, n2], [n3], ...]) - neighbor blocks of the center
+ * Output: ((ni, nj), center) - wedge (ni < nj); a confirmed triangle if an edge set is
+ *         configured (count-only mode then: one ("triangles", total) line per task)
+ */
+public class WedgeAdjacencyReducer extends Reducer<IntWritable, AdjacencyWritable, Object, Object> {
+	
+	IntPairWritable ok = new IntPairWritable();
+	
+	private ClosingEdgeCheck closingEdge;
+	private boolean countOnly;
+	private long triangles = 0;
+	private GroupSkew.Recorder skew;
+	private int[] neighbors = new int[64];
+	
+	@Override
+	protected void setup(Context context) throws IOException, InterruptedException {
+		closingEdge = ClosingEdgeCheck.load(context.getConfiguration());
+		skew = GroupSkew.recorder(context);
+		countOnly = closingEdge.isExact() && TriangleOutputMode.isCountOnly(context.getConfiguration());
+	}
+	
+	@Override
+	protected void reduce(IntWritable key, Iterable<AdjacencyWritable> values, Context context)
+			throws IOException, InterruptedException {
+		int n = 0;
+		for (AdjacencyWritable block : values) {
+			neighbors = block.copyTo(neighbors, n);
+			n += block.size();
+		}
+		Arrays.sort(neighbors, 0, n);
+		if (skew != null) skew.add(key, n);
+		
+		for (int i = 0; i < n; i++) {
+			for (int j = i + 1; j < n; j++) {
+				int u = neighbors[i];
+				int w = neighbors[j];
+				if (!closingEdge.accept(u, w)) continue;
+				
+				triangles++;
+				if (!countOnly) {
+					ok.set(u, w);
+					context.write(ok, key);
+				}
+			}
+		}
+	}
+	
+	@Override
+	protected void cleanup(Context context) throws IOException, InterruptedException {
+		closingEdge.addCounters(context);
+		if (skew != null) skew.close(context);
+		if (closingEdge.isExact()) {
+			context.getCounter(PipelineCounter.TRIANGLES).increment(triangles);
+		}
+		if (countOnly) {
+			context.write(new Text("triangles"), new LongWritable(triangles));
+		}
+	}
+}
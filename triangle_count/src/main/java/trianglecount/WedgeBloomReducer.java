@@ -5,14 +5,9 @@ import java.net.URI;
 import java.util.ArrayList;
 import java.util.List;
 
-import org.apache.hadoop.fs.FSDataInputStream;
-import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.io.IntWritable;
 import org.apache.hadoop.mapreduce.Reducer;
-import org.apache.hadoop.util.bloom.BloomFilter;
-import org.apache.hadoop.util.bloom.Key;
-import org.apache.hadoop.util.hash.Hash;
 
 /**
  * WedgeBloomReducer - Generate wedges with Bloom Filter pre-filtering
@@ -33,23 +28,20 @@ public class WedgeBloomReducer extends Reducer<IntWritable, IntWritable, IntPair
 	IntPairWritable ok = new IntPairWritable();
 	IntWritable ov = new IntWritable();
 	
-	private BloomFilter bloomFilter;
+	private BlockedBloomFilter bloomFilter;
+	private long wedges = 0;
+	private long pruned = 0;
+	private GroupSkew.Recorder skew;
 	
 	@Override
 	protected void setup(Context context) throws IOException, InterruptedException {
-		// Load Bloom Filter from Distributed Cache
-		bloomFilter = new BloomFilter(BloomFilterBuilder.VECTOR_SIZE, 
-				BloomFilterBuilder.NB_HASH, Hash.MURMUR_HASH);
-		
+		// Memory-map Bloom Filter from Distributed Cache (off-heap, no deserialization)
 		URI[] cacheFiles = context.getCacheFiles();
-		if (cacheFiles != null && cacheFiles.length > 0) {
-			FileSystem fs = FileSystem.get(context.getConfiguration());
-			Path bloomPath = new Path(cacheFiles[0]);
-			
-			try (FSDataInputStream in = fs.open(bloomPath)) {
-				bloomFilter.readFields(in);
-			}
+		if (cacheFiles == null || cacheFiles.length == 0) {
+			throw new IOException("Bloom filter missing from distributed cache");
 		}
+		bloomFilter = BlockedBloomFilter.load(context.getConfiguration(), new Path(cacheFiles[0]));
+		skew = GroupSkew.recorder(context);
 	}
 	
 	/**
@@ -57,14 +49,7 @@ public class WedgeBloomReducer extends Reducer<IntWritable, IntWritable, IntPair
 	 * @return true if edge might exist (need to verify), false if definitely not
 	 */
 	private boolean mightEdgeExist(int u, int v) {
-		// Normalize: smaller node first
-		if (u > v) {
-			int temp = u;
-			u = v;
-			v = temp;
-		}
-		String edgeKey = u + "," + v;
-		return bloomFilter.membershipTest(new Key(edgeKey.getBytes()));
+		return bloomFilter.mightContain(u, v);  // normalizes (u, v) itself
 	}
 	
 	@Override
@@ -81,6 +66,9 @@ public class WedgeBloomReducer extends Reducer<IntWritable, IntWritable, IntPair
 		ov.set(center);
 		
 		// Generate wedges for all pairs
+		int n = neighbors.size();
+		if (skew != null) skew.add(key, n);
+		wedges += (long) n * (n - 1) / 2;
 		for (int i = 0; i < neighbors.size(); i++) {
 			for (int j = i + 1; j < neighbors.size(); j++) {
 				int u = neighbors.get(i);
@@ -89,6 +77,7 @@ public class WedgeBloomReducer extends Reducer<IntWritable, IntWritable, IntPair
 				// ★ KEY: Check Bloom Filter before emitting wedge
 				// If edge (u, w) definitely doesn't exist, skip this wedge
 				if (!mightEdgeExist(u, w)) {
+					pruned++;
 					continue;  // No triangle possible, skip
 				}
 				
@@ -102,4 +91,11 @@ public class WedgeBloomReducer extends Reducer<IntWritable, IntWritable, IntPair
 			}
 		}
 	}
+	
+	@Override
+	protected void cleanup(Context context) throws IOException, InterruptedException {
+		context.getCounter(PipelineCounter.WEDGES).increment(wedges);
+		context.getCounter(PipelineCounter.WEDGES_PRUNED_BY_BLOOM).increment(pruned);
+		if (skew != null) skew.close(context);
+	}
 }
@@ -31,6 +31,8 @@ import java.io.IOException;
  * - Step 1: Normalize edges (same as baseline)
  * - Step 2: Calculate degree and sum C(d,2) for each vertex
  * 
+ * Run report: <input>.metrics.json (see PipelineReport)
+ * 
  * Usage: hadoop jar triangle_count.jar trianglecount.WedgeCountDriver <input>
  */
 public class WedgeCountDriver extends Configured implements Tool {
@@ -42,6 +44,7 @@ public class WedgeCountDriver extends Configured implements Tool {
     public int run(String[] args) throws Exception {
         
         String inputPath = args[0];
+        PipelineReport report = PipelineReport.begin(getConf(), "WedgeCount", inputPath);
         String normalizedPath = inputPath + ".normalized_wc";
         String outputPath = inputPath + ".wedge_count";
         
@@ -55,6 +58,7 @@ public class WedgeCountDriver extends Configured implements Tool {
         runStep1_Normalize(inputPath, normalizedPath);
         runStep2_CountWedges(normalizedPath, outputPath);
         
+        report.write();
         return 0;
     }
     
@@ -84,7 +88,7 @@ public class WedgeCountDriver extends Configured implements Tool {
         FileInputFormat.addInputPath(job, new Path(inputPath));
         FileOutputFormat.setOutputPath(job, new Path(outputPath));
         
-        job.waitForCompletion(true);
+        JobMetrics.waitForCompletion(job);
         
         long edgeCount = job.getCounters().findCounter("org.apache.hadoop.mapreduce.TaskCounter", "REDUCE_OUTPUT_RECORDS").getValue();
         System.out.println("[Step 1] Normalized edges: " + edgeCount);
@@ -121,7 +125,7 @@ public class WedgeCountDriver extends Configured implements Tool {
         FileInputFormat.addInputPath(job, new Path(inputPath));
         FileOutputFormat.setOutputPath(job, new Path(outputPath));
         
-        job.waitForCompletion(true);
+        JobMetrics.waitForCompletion(job);
     }
     
     /**
@@ -131,40 +135,20 @@ public class WedgeCountDriver extends Configured implements Tool {
         
         private IntWritable outKey = new IntWritable();
         private LongWritable one = new LongWritable(1);
+        private EdgeLineParser parser = new EdgeLineParser();
         
         @Override
         protected void map(LongWritable key, Text value, Context context) 
                 throws IOException, InterruptedException {
             
-            String line = value.toString().trim();
-            if (line.isEmpty()) return;
+            if (!parser.parse(value, context)) return;  // blank, comment or malformed line
             
-            // Handle both "u v" and "(u, v)" formats
-            String[] parts;
-            if (line.startsWith("(")) {
-                // Format: (u, v)
-                line = line.replaceAll("[()]", "").trim();
-                parts = line.split("[,\\s]+");
-            } else {
-                // Format: u v or u\tv
-                parts = line.split("[\\s,]+");
-            }
+            // Emit (u, 1) and (v, 1)
+            outKey.set(parser.getFirst());
+            context.write(outKey, one);
             
-            if (parts.length >= 2) {
-                try {
-                    int u = Integer.parseInt(parts[0].trim());
-                    int v = Integer.parseInt(parts[1].trim());
-                    
-                    // Emit (u, 1) and (v, 1)
-                    outKey.set(u);
-                    context.write(outKey, one);
-                    
-                    outKey.set(v);
-                    context.write(outKey, one);
-                } catch (NumberFormatException e) {
-                    // Skip invalid lines
-                }
-            }
+            outKey.set(parser.getSecond());
+            context.write(outKey, one);
         }
     }
     
@@ -1,7 +1,6 @@
 package trianglecount;
 
 import java.io.IOException;
-import java.util.StringTokenizer;
 
 import org.apache.hadoop.io.IntWritable;
 import org.apache.hadoop.io.Text;
@@ -19,6 +18,7 @@ public class WedgeMapper extends Mapper<Object, Text, IntWritable, IntWritable>
 	
 	IntWritable ok = new IntWritable();
 	IntWritable ov = new IntWritable();
+	EdgeLineParser parser = new EdgeLineParser();
 	
 	@Override
 	// input value: 1	77
@@ -26,10 +26,10 @@ public class WedgeMapper extends Mapper<Object, Text, IntWritable, IntWritable>
 	protected void map(Object key, Text value, Mapper<Object, Text, IntWritable, IntWritable>.Context context)
 			throws IOException, InterruptedException {
 		
-		StringTokenizer st = new StringTokenizer(value.toString());
+		if (!parser.parse(value, context)) return; // blank, comment or malformed line
 		
-		int u = Integer.parseInt(st.nextToken()); // degree 작은 애
-		int v = Integer.parseInt(st.nextToken()); // degree 큰 애
+		int u = parser.getFirst(); // degree 작은 애
+		int v = parser.getSecond(); // degree 큰 애
 		
 		ok.set(u);
 		ov.set(v);
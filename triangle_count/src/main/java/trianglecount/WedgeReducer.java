@@ -17,6 +17,13 @@ import org.apache.hadoop.mapreduce.Reducer;
  */
 public class WedgeReducer extends Reducer<IntWritable, IntWritable, IntPairWritable, IntWritable>{
 	IntPairWritable ok = new IntPairWritable();
+	long wedges = 0;
+	GroupSkew.Recorder skew;
+	
+	@Override
+	protected void setup(Context context) {
+		skew = GroupSkew.recorder(context);
+	}
 	
 	@Override
 	// input key: 1, input value: [77, 4, 156 ..]
@@ -31,16 +38,31 @@ public class WedgeReducer extends Reducer<IntWritable, IntWritable, IntPairWrita
 //			System.out.println("reducer1 input: "+Integer.toString(key.get())+ ", "+ Integer.toString(v.get()));
 			neighbors.add(v.get());
 		}
+		if (skew != null) skew.add(key, neighbors.size());
 		
 		for(int u : neighbors) {
 			for(int v : neighbors) {
-				if (u < v) {
+				if (u < v && keepWedge(u, v, key.get())) {
 					ok.set(u, v);
 //					System.out.println("reducer1 output: "+ok.toString()+ ", "+ Integer.toString(key.get()));
 					context.write(ok, key);
+					wedges++;
 				}
 			}
 		}
 		
 	}
+	
+	/**
+	 * Whether to write the wedge (u, v) at center: always here, a sample in SampledWedgeReducer
+	 */
+	protected boolean keepWedge(int u, int v, int center) {
+		return true;
+	}
+	
+	@Override
+	protected void cleanup(Context context) throws IOException, InterruptedException {
+		context.getCounter(PipelineCounter.WEDGES).increment(wedges);
+		if (skew != null) skew.close(context);
+	}
 }
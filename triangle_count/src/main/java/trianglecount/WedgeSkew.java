@@ -0,0 +1,208 @@
+package trianglecount;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.IntWritable;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.InputFormat;
+import org.apache.hadoop.mapreduce.Job;
+import org.apache.hadoop.mapreduce.Mapper;
+import org.apache.hadoop.mapreduce.Reducer;
+import org.apache.hadoop.mapreduce.lib.input.FileInputFormat;
+import org.apache.hadoop.mapreduce.lib.input.SequenceFileInputFormat;
+import org.apache.hadoop.mapreduce.lib.output.FileOutputFormat;
+import org.apache.hadoop.mapreduce.lib.output.TextOutputFormat;
+
+/**
+ * WedgeSkew - Hub splitting for wedge generation
+ * 
+ * Problem: WedgeReducer runs an O(d^2) pair loop for each center in a single
+ *          reduce call, so one hub pins one reducer long after the others finish.
+ * 
+ * Algorithm (enabled with -D wedge.skew.threshold=T, T > 0):
+ * - Step A: Count out-degrees of the wedge input with a combiner and keep the
+ *           heavy centers (out-degree > T) in a small side file
+ * - Step B: SaltedWedgeMapper splits a heavy center's neighbors into B blocks
+ *           (B = ceil(d / wedge.skew.block.size), by hash of the neighbor) and sends
+ *           every neighbor to each of the B block pairs it belongs to.
+ *           SaltedWedgeReducer generates the pairs of one block pair only.
+ *           Key = (center, salt), spread by SaltedWedgePartitioner.
+ * Per-reduce-call work is bounded by (2 * block size)^2 instead of d^2.
+ * 
+ * Salt encoding: 0 for light centers, otherwise (B << 20) | (i << 10) | j with i <= j < B
+ */
+public class WedgeSkew {
+	
+	public static final String THRESHOLD_KEY = "wedge.skew.threshold";
+	public static final String BLOCK_SIZE_KEY = "wedge.skew.block.size";
+	static final String HEAVY_PATH_KEY = "wedge.skew.heavy.path";
+	
+	static final int MAX_BLOCKS = 1023;  // 10 bits per block index in the salt
+	
+	public static int threshold(Configuration conf) {
+		return conf.getInt(THRESHOLD_KEY, 0);
+	}
+	
+	public static boolean isEnabled(Configuration conf) {
+		return threshold(conf) > 0;
+	}
+	
+	/**
+	 * Number of blocks for a center with the given out-degree
+	 */
+	static int numBlocks(int outDegree, int blockSize) {
+		int blocks = (outDegree + blockSize - 1) / blockSize;
+		return Math.max(1, Math.min(blocks, MAX_BLOCKS));
+	}
+	
+	static int block(int neighbor, int numBlocks) {
+		int h = neighbor * 0x9E3779B9;
+		return ((h ^ (h >>> 16)) & Integer.MAX_VALUE) % numBlocks;
+	}
+	
+	static int salt(int numBlocks, int i, int j) {
+		return (numBlocks << 20) | (i << 10) | j;
+	}
+	
+	static int saltBlocks(int salt) {
+		return salt >>> 20;
+	}
+	
+	static int saltFirst(int salt) {
+		return (salt >>> 10) & 0x3FF;
+	}
+	
+	static int saltSecond(int salt) {
+		return salt & 0x3FF;
+	}
+	
+	/**
+	 * Mapper: (u, v) edge of the wedge input -> (u, 1)
+	 */
+	public static class OutDegreeMapper extends Mapper<IntPairWritable, Text, IntWritable, LongWritable> {
+		
+		private IntWritable outKey = new IntWritable();
+		private LongWritable one = new LongWritable(1);
+		
+		@Override
+		protected void map(IntPairWritable key, Text value, Context context)
+				throws IOException, InterruptedException {
+			outKey.set(key.getFirst());
+			context.write(outKey, one);
+		}
+	}
+	
+	/**
+	 * Reducer: Keep centers whose out-degree is above the threshold
+	 */
+	public static class HeavyCenterReducer extends Reducer<IntWritable, LongWritable, IntWritable, LongWritable> {
+		
+		private LongWritable result = new LongWritable();
+		private long threshold;
+		
+		@Override
+		protected void setup(Context context) {
+			threshold = threshold(context.getConfiguration());
+		}
+		
+		@Override
+		protected void reduce(IntWritable key, Iterable<LongWritable> values, Context context)
+				throws IOException, InterruptedException {
+			long degree = 0;
+			for (LongWritable val : values) {
+				degree += val.get();
+			}
+			if (degree > threshold) {
+				result.set(degree);
+				context.write(key, result);
+			}
+		}
+	}
+	
+	/**
+	 * Step A: find heavy centers of a wedge input (SequenceFile of ((u, v), ""))
+	 */
+	public static void findHeavyCenters(Configuration conf, String inputPath, String heavyPath) throws Exception {
+		findHeavyCenters(conf, inputPath, SequenceFileInputFormat.class, heavyPath);
+	}
+	
+	/**
+	 * Step A over any (IntPairWritable, Text) edge input, e.g. a BinaryEdgeInputFormat store
+	 */
+	@SuppressWarnings("rawtypes")  // same parameter type as Job.setInputFormatClass
+	public static void findHeavyCenters(Configuration conf, String inputPath,
+			Class<? extends InputFormat> inputFormat, String heavyPath) throws Exception {
+		Job job = Job.getInstance(conf);
+		job.setJobName("WedgeSkew-FindHeavyCenters");
+		job.setJarByClass(WedgeSkew.class);
+		
+		job.setMapperClass(OutDegreeMapper.class);
+		job.setCombinerClass(WedgeCountDriver.DegreeSumCombiner.class);
+		job.setReducerClass(HeavyCenterReducer.class);
+		job.setNumReduceTasks(1);  // output is tiny: one line per heavy center
+		
+		job.setMapOutputKeyClass(IntWritable.class);
+		job.setMapOutputValueClass(LongWritable.class);
+		job.setOutputKeyClass(IntWritable.class);
+		job.setOutputValueClass(LongWritable.class);
+		
+		job.setInputFormatClass(inputFormat);
+		job.setOutputFormatClass(TextOutputFormat.class);
+		
+		FileInputFormat.addInputPath(job, new Path(inputPath));
+		FileOutputFormat.setOutputPath(job, new Path(heavyPath));
+		
+		JobMetrics.waitForCompletion(job);
+	}
+	
+	/**
+	 * Step B: switch a wedge job (WedgeSeqMapper input) to salted hub splitting.
+	 * Replaces mapper, reducer and partitioner; output classes stay as configured.
+	 */
+	public static void configure(Job job, String heavyPath) throws Exception {
+		String heavyFile = heavyPath + "/part-r-00000";
+		job.addCacheFile(new URI(heavyFile));
+		job.getConfiguration().set(HEAVY_PATH_KEY, heavyFile);
+		
+		job.setMapperClass(SaltedWedgeMapper.class);
+		job.setReducerClass(SaltedWedgeReducer.class);
+		job.setPartitionerClass(SaltedWedgePartitioner.class);
+		job.setMapOutputKeyClass(IntPairWritable.class);
+		job.setMapOutputValueClass(IntWritable.class);
+	}
+	
+	/**
+	 * Load heavy centers as vertex -> number of blocks
+	 */
+	static Map<Integer, Integer> loadHeavyCenters(Configuration conf) throws IOException {
+		int blockSize = conf.getInt(BLOCK_SIZE_KEY, threshold(conf));
+		Map<Integer, Integer> blocks = new HashMap<>();
+		
+		Path path = new Path(conf.get(HEAVY_PATH_KEY));
+		FileSystem fs = FileSystem.getLocal(conf);
+		Path local = new Path(CacheFiles.localFile(conf, path).getAbsolutePath());
+		for (FileStatus status : CsrGraph.listInputFiles(fs, local)) {
+			try (BufferedReader reader = new BufferedReader(
+					new InputStreamReader(fs.open(status.getPath()), StandardCharsets.UTF_8))) {
+				String line;
+				while ((line = reader.readLine()) != null) {
+					String[] parts = line.split("\t");
+					int outDegree = (int) Long.parseLong(parts[1]);
+					blocks.put(Integer.parseInt(parts[0]), numBlocks(outDegree, blockSize));
+				}
+			}
+		}
+		return blocks;
+	}
+}
@@ -0,0 +1,26 @@
+package trianglecount;
+
+import java.io.IOException;
+
+import org.apache.hadoop.io.IntWritable;
+import org.apache.hadoop.mapreduce.Mapper;
+
+/**
+ * WedgeTallyMapper - Wedges as counts for count-only mode
+ * 
+ * Purpose: Like WedgeMarkerMapper, but drops the wedge center and emits 1,
+ *          so TriangleTallyCombiner can sum wedges per closing edge map-side.
+ * 
+ * Input:  ((u, v), center) - wedge from SequenceFile
+ * Output: ((u, v), 1) - one wedge waiting for closing edge (u, v)
+ */
+public class WedgeTallyMapper extends Mapper<IntPairWritable, IntWritable, IntPairWritable, IntWritable> {
+	
+	private IntWritable one = new IntWritable(1);
+	
+	@Override
+	protected void map(IntPairWritable key, IntWritable value, Context context)
+			throws IOException, InterruptedException {
+		context.write(key, one);
+	}
+}
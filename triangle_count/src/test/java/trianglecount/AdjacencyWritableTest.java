@@ -0,0 +1,87 @@
+package trianglecount;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.apache.hadoop.io.DataInputBuffer;
+import org.apache.hadoop.io.DataOutputBuffer;
+import org.junit.Test;
+
+public class AdjacencyWritableTest {
+
+	private static byte[] serialize(int... neighbors) throws IOException {
+		AdjacencyWritable adjacency = new AdjacencyWritable();
+		adjacency.set(neighbors, 0, neighbors.length);
+		DataOutputBuffer out = new DataOutputBuffer();
+		adjacency.write(out);
+		return Arrays.copyOf(out.getData(), out.getLength());
+	}
+
+	private static int[] roundTrip(int... neighbors) throws IOException {
+		byte[] bytes = serialize(neighbors);
+		DataInputBuffer in = new DataInputBuffer();
+		in.reset(bytes, bytes.length);
+		AdjacencyWritable read = new AdjacencyWritable();
+		read.readFields(in);
+		assertEquals(bytes.length, in.getPosition());
+		return read.copyTo(new int[0], 0);
+	}
+
+	@Test
+	public void roundTripsNegativeAndLargeGaps() throws Exception {
+		int[][] lists = {
+			{},
+			{ 0 },
+			{ 1, 2, 3, 1000, 1000000 },
+			{ 5, 3, 1, -1, -1000000 },                    // unsorted: negative gaps
+			{ Integer.MIN_VALUE, Integer.MAX_VALUE },      // gap overflows int
+			{ Integer.MAX_VALUE, Integer.MIN_VALUE, 0, -1, Integer.MAX_VALUE },
+			{ -7, 0, 7, 7, Integer.MAX_VALUE - 1 },
+		};
+		for (int[] list : lists) {
+			assertArrayEquals(Arrays.toString(list), list, roundTrip(list));
+		}
+
+		Random random = new Random(7);
+		for (int t = 0; t < 1000; t++) {
+			int[] list = new int[random.nextInt(50)];
+			for (int i = 0; i < list.length; i++) {
+				list[i] = random.nextInt();
+			}
+			assertArrayEquals(list, roundTrip(list));
+		}
+	}
+
+	@Test
+	public void sortedSmallGapsTakeOneByteEach() throws Exception {
+		int[] list = new int[100];
+		for (int i = 0; i < list.length; i++) {
+			list[i] = 1000 + i * 3;
+		}
+		// count (1 byte), first gap 1000 (2 bytes), 99 gaps of 3 (1 byte each)
+		assertEquals(1 + 2 + 99, serialize(list).length);
+	}
+
+	@Test
+	public void rawComparatorMatchesCompareTo() throws Exception {
+		int[][] lists = { {}, { -1 }, { 0 }, { 0, 1 }, { 0, 2 }, { 1 }, { Integer.MIN_VALUE },
+				{ Integer.MAX_VALUE }, { 3, -5 }, { 3, Integer.MAX_VALUE } };
+		AdjacencyWritable.Comparator raw = new AdjacencyWritable.Comparator();
+		for (int[] a : lists) {
+			for (int[] b : lists) {
+				AdjacencyWritable x = new AdjacencyWritable();
+				AdjacencyWritable y = new AdjacencyWritable();
+				x.set(a, 0, a.length);
+				y.set(b, 0, b.length);
+				byte[] bx = serialize(a);
+				byte[] by = serialize(b);
+				assertEquals(Arrays.toString(a) + " vs " + Arrays.toString(b),
+						Integer.signum(x.compareTo(y)), Integer.signum(raw.compare(bx, 0, bx.length, by, 0, by.length)));
+			}
+		}
+	}
+}
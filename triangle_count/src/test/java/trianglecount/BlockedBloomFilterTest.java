@@ -0,0 +1,107 @@
+package trianglecount;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class BlockedBloomFilterTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private static final int EDGES = 100000;
+
+	/** n random edges on 10^6 vertices, fixed by the seed */
+	private static int[][] edges(long seed, int n) {
+		Random random = new Random(seed);
+		int[][] edges = new int[n][];
+		for (int i = 0; i < n; i++) {
+			edges[i] = new int[] { random.nextInt(1000000), random.nextInt(1000000) };
+		}
+		return edges;
+	}
+
+	private static BlockedBloomFilter filled(int[][] edges) {
+		BlockedBloomFilter filter = new BlockedBloomFilter(10L * edges.length, 7);
+		for (int[] e : edges) {
+			filter.add(e[0], e[1]);
+		}
+		return filter;
+	}
+
+	@Test
+	public void noFalseNegatives() {
+		int[][] edges = edges(1, EDGES);
+		BlockedBloomFilter filter = filled(edges);
+		for (int[] e : edges) {
+			assertTrue(filter.mightContain(e[0], e[1]));
+			assertTrue(filter.mightContain(e[1], e[0]));  // undirected
+		}
+
+		// 10 bits per edge, k = 7: about 1 % in theory, a little more for blocked filters
+		int falsePositives = 0;
+		for (int[] e : edges(2, EDGES)) {
+			if (filter.mightContain(e[0], e[1])) falsePositives++;
+		}
+		assertTrue("false positive rate " + (double) falsePositives / EDGES, falsePositives < EDGES / 50);
+	}
+
+	@Test
+	public void writeAndMapRoundTrip() throws Exception {
+		int[][] edges = edges(1, EDGES);
+		BlockedBloomFilter filter = filled(edges);
+		File file = folder.newFile("edges.bloom");
+		try (OutputStream out = new FileOutputStream(file)) {
+			filter.write(out);
+		}
+		assertEquals(BlockedBloomFilter.HEADER_BYTES + filter.getNumBits() / 8, file.length());
+
+		BlockedBloomFilter mapped = BlockedBloomFilter.map(file);
+		assertEquals(filter.getNumBits(), mapped.getNumBits());
+		assertEquals(filter.getNumHashes(), mapped.getNumHashes());
+		for (int[] e : edges) {
+			assertTrue(mapped.mightContain(e[0], e[1]));
+		}
+		for (int[] e : edges(2, EDGES)) {
+			assertEquals(filter.mightContain(e[0], e[1]), mapped.mightContain(e[0], e[1]));
+		}
+	}
+
+	@Test
+	public void orOfHalvesEqualsWholeFilter() {
+		int[][] edges = edges(1, EDGES);
+		BlockedBloomFilter whole = filled(edges);
+		BlockedBloomFilter first = new BlockedBloomFilter(10L * EDGES, 7);
+		BlockedBloomFilter second = new BlockedBloomFilter(10L * EDGES, 7);
+		for (int i = 0; i < EDGES; i++) {
+			(i % 2 == 0 ? first : second).add(edges[i][0], edges[i][1]);
+		}
+		first.or(second);
+		for (int[] e : edges(2, EDGES)) {
+			assertEquals(whole.mightContain(e[0], e[1]), first.mightContain(e[0], e[1]));
+		}
+	}
+
+	@Test
+	public void mapRejectsOtherFiles() throws Exception {
+		File file = folder.newFile("edges.txt");
+		Files.write(file.toPath(), "0 1\n1 2\n".getBytes(StandardCharsets.UTF_8));
+		try {
+			BlockedBloomFilter.map(file);
+			fail("mapped a text file");
+		} catch (IOException expected) {
+		}
+	}
+}
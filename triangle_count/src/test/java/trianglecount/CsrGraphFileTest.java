@@ -0,0 +1,77 @@
+package trianglecount;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class CsrGraphFileTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	// K4 on 0..3 (4 triangles), a pendant 3 - 7, a duplicate and a self-loop
+	private static final String EDGES = "0 1\n0 2\n0 3\n1 2\n1 3\n2 3\n3 7\n1 0\n5 5\n";
+
+	@Test
+	public void writeAndLoadRoundTrip() throws Exception {
+		Configuration conf = new Configuration();
+		FileSystem fs = FileSystem.getLocal(conf);
+		File edges = folder.newFile("edges.txt");
+		Files.write(edges.toPath(), EDGES.getBytes(StandardCharsets.UTF_8));
+		CsrGraph graph = CsrGraph.load(fs, new Path(edges.getAbsolutePath()));
+
+		File file = new File(folder.getRoot(), "graph.csr");
+		try (OutputStream out = new FileOutputStream(file)) {
+			CsrGraphFile.write(graph, out);
+		}
+		CsrGraphFile mapped = CsrGraphFile.load(conf, new Path(file.getAbsolutePath()));
+
+		assertNull(mapped.validate());
+		assertEquals(graph.numVertices(), mapped.numVertices());
+		assertEquals(7, mapped.numEdges());
+		assertEquals(graph.numEdges(), mapped.numEdges());
+		CsrGraphFile.NeighborCursor cursor = new CsrGraphFile.NeighborCursor();
+		for (int u = 0; u < graph.numVertices(); u++) {
+			assertEquals(graph.degree(u), mapped.degree(u));
+			assertEquals(graph.outDegree(u), mapped.outDegree(u));
+			mapped.neighbors(u, cursor);
+			for (int i = graph.offsets[u]; i < graph.offsets[u + 1]; i++) {
+				assertTrue(cursor.hasNext());
+				assertEquals(graph.targets[i], cursor.next());
+			}
+			assertFalse(cursor.hasNext());
+		}
+		assertEquals(4, mapped.countTriangles());
+		assertEquals(graph.countTriangles(), mapped.countTriangles());
+	}
+
+	@Test
+	public void isGraphFileOnlyForGraphFiles() throws Exception {
+		FileSystem fs = FileSystem.getLocal(new Configuration());
+		File edges = folder.newFile("edges.txt");
+		Files.write(edges.toPath(), EDGES.getBytes(StandardCharsets.UTF_8));
+		File file = new File(folder.getRoot(), "graph.csr");
+		try (OutputStream out = new FileOutputStream(file)) {
+			CsrGraphFile.write(CsrGraph.load(fs, new Path(edges.getAbsolutePath())), out);
+		}
+
+		assertTrue(CsrGraphFile.isGraphFile(fs, new Path(file.getAbsolutePath())));
+		assertFalse(CsrGraphFile.isGraphFile(fs, new Path(edges.getAbsolutePath())));
+		assertFalse(CsrGraphFile.isGraphFile(fs, new Path(folder.getRoot().getAbsolutePath())));
+		assertFalse(CsrGraphFile.isGraphFile(fs, new Path(folder.getRoot().getAbsolutePath(), "missing")));
+	}
+}
@@ -0,0 +1,90 @@
+package trianglecount;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+
+import org.apache.hadoop.io.Text;
+import org.junit.Test;
+
+public class EdgeLineParserTest {
+
+	private final EdgeLineParser parser = new EdgeLineParser();
+
+	private void assertEdge(String line, int u, int v) {
+		assertTrue(line, parser.parse(new Text(line)));
+		assertFalse(line, parser.wasMalformed());
+		assertEquals(line, u, parser.getFirst());
+		assertEquals(line, v, parser.getSecond());
+	}
+
+	private void assertSkipped(String line) {
+		assertFalse(line, parser.parse(new Text(line)));
+		assertFalse(line, parser.wasMalformed());
+	}
+
+	private void assertMalformed(String line) {
+		assertFalse(line, parser.parse(new Text(line)));
+		assertTrue(line, parser.wasMalformed());
+	}
+
+	@Test
+	public void separatorsAndWhitespace() {
+		assertEdge("1 2", 1, 2);
+		assertEdge("1\t2", 1, 2);
+		assertEdge("\t 3 \t 4\t", 3, 4);
+		assertEdge("5\t6\r", 5, 6);
+		assertEdge("7,8", 7, 8);
+		assertEdge("7 , 8", 7, 8);
+		assertEdge("(9, 10)", 9, 10);
+		assertEdge("11 12 1.5 extra", 11, 12);  // extra columns ignored
+		assertEdge("-3 +4", -3, 4);
+		assertEdge("2147483647 -2147483648", Integer.MAX_VALUE, Integer.MIN_VALUE);
+	}
+
+	@Test
+	public void blankAndCommentLinesAreSkipped() {
+		assertSkipped("");
+		assertSkipped(" \t\r");
+		assertSkipped("# FromNodeId\tToNodeId");
+		assertSkipped("  # indented comment 1 2");
+		assertSkipped("% matrix market header");
+	}
+
+	@Test
+	public void malformedLines() {
+		assertMalformed("1");
+		assertMalformed("1 ");
+		assertMalformed("1,");
+		assertMalformed("a b");
+		assertMalformed("1 b");
+		assertMalformed("1a 2");
+		assertMalformed("1 2a");
+		assertMalformed("12");
+		assertMalformed("- 1");
+		assertMalformed("2147483648 1");   // int overflow
+		assertMalformed("1 -2147483649");
+		assertMalformed("1 99999999999999999999");
+	}
+
+	@Test
+	public void stateDoesNotLeakBetweenLines() {
+		assertMalformed("1 x");
+		assertEdge("1 2", 1, 2);
+		assertSkipped("# comment");
+		assertMalformed("3");
+	}
+
+	@Test
+	public void parsesARangeOfABuffer() {
+		byte[] bytes = "+ 4\t5 | 6 7".getBytes(StandardCharsets.UTF_8);
+		assertTrue(parser.parse(bytes, 1, 5));
+		assertEquals(4, parser.getFirst());
+		assertEquals(5, parser.getSecond());
+		assertTrue(parser.parse(bytes, 8, bytes.length));
+		assertEquals(6, parser.getFirst());
+		assertEquals(7, parser.getSecond());
+	}
+}
@@ -0,0 +1,117 @@
+package trianglecount;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.SequenceFile;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.util.ToolRunner;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class IncrementalTriangleDriverTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	// K4 on 0..3 (4 triangles) and a pendant 3 - 7, as NormalizeReducer writes them
+	private static final int[][] EDGES = { { 0, 1 }, { 0, 2 }, { 0, 3 }, { 1, 2 }, { 1, 3 }, { 2, 3 }, { 3, 7 } };
+
+	@Test
+	public void insertThenDeleteWithOverlay() throws Exception {
+		insertThenDelete("10");
+	}
+
+	@Test
+	public void insertThenDeleteWithCompaction() throws Exception {
+		insertThenDelete("0");
+	}
+
+	@Test
+	public void insertAndDeleteInOneDelta() throws Exception {
+		String input = writeGraph();
+		Map<String, Long> result = run(input, null, "10", "+ 7 0\n+ 7 1\n- 7 0\n- 7 1\n+ 3 7\n- 5 6\n# comment\n");
+		assertEquals(4, (long) result.get("triangles"));
+		assertEquals(3, (long) result.get("created"));
+		assertEquals(3, (long) result.get("destroyed"));
+		assertEquals(2, (long) result.get("ignored"));
+	}
+
+	/**
+	 * Insert 7 - 0 and 7 - 1 (3 new triangles), then delete both in the next delta
+	 */
+	private void insertThenDelete(String compactFraction) throws Exception {
+		String input = writeGraph();
+
+		Map<String, Long> inserted = run(input, null, compactFraction, "+ 7 0\n+ 1 7\n");
+		assertEquals(7, (long) inserted.get("triangles"));
+		assertEquals(3, (long) inserted.get("created"));
+		assertEquals(2, (long) inserted.get("inserted"));
+		File first = new File(folder.getRoot(), "delta1.txt.out_incremental");
+		assertEquals(compactFraction.equals("0"), new File(first, IncrementalTriangleDriver.COMPACTED_FILE).exists());
+		assertEquals(!compactFraction.equals("0"), new File(first, IncrementalTriangleDriver.ADDED_FILE).exists());
+
+		Map<String, Long> deleted = run(input, first.getAbsolutePath(), compactFraction, "- 1 7\n- 0 7\n");
+		assertEquals(4, (long) deleted.get("triangles"));
+		assertEquals(7, (long) deleted.get("previous"));
+		assertEquals(3, (long) deleted.get("destroyed"));
+		assertEquals(2, (long) deleted.get("deleted"));
+		assertEquals(0, (long) deleted.get("ignored"));
+	}
+
+	/**
+	 * Normalized edges and a previous count of 4 next to <input>
+	 */
+	private String writeGraph() throws Exception {
+		String input = new File(folder.getRoot(), "graph.txt").getAbsolutePath();
+		IntPairWritable key = new IntPairWritable();
+		try (SequenceFile.Writer writer = SequenceFile.createWriter(new Configuration(),
+				SequenceFile.Writer.file(new Path(input + ".normalized", "part-r-00000")),
+				SequenceFile.Writer.keyClass(IntPairWritable.class),
+				SequenceFile.Writer.valueClass(Text.class))) {
+			for (int[] e : EDGES) {
+				key.set(e[0], e[1]);
+				writer.append(key, new Text());
+			}
+		}
+		File previous = new File(input + ".out_degree");
+		assertTrue(previous.mkdir());
+		Files.write(new File(previous, "part-r-00000").toPath(), "triangles\t4\n".getBytes(StandardCharsets.UTF_8));
+		return input;
+	}
+
+	private int deltas;
+
+	/**
+	 * Run one delta and read back its part-r-00000 lines
+	 */
+	private Map<String, Long> run(String input, String previous, String compactFraction, String delta) throws Exception {
+		File deltaFile = new File(folder.getRoot(), "delta" + (++deltas) + ".txt");
+		Files.write(deltaFile.toPath(), delta.getBytes(StandardCharsets.UTF_8));
+
+		Configuration conf = new Configuration();
+		conf.set(IncrementalTriangleDriver.COMPACT_KEY, compactFraction);
+		if (previous != null) {
+			conf.set(IncrementalTriangleDriver.PREVIOUS_KEY, previous);
+		}
+		assertEquals(0, ToolRunner.run(conf, new IncrementalTriangleDriver(),
+				new String[] { input, deltaFile.getAbsolutePath() }));
+
+		File output = new File(deltaFile.getPath() + ".out_incremental");
+		Map<String, Long> result = new HashMap<>();
+		for (String line : Files.readAllLines(new File(output, "part-r-00000").toPath(), StandardCharsets.UTF_8)) {
+			String[] f = line.split("\t");
+			result.put(f[0], Long.parseLong(f[1]));
+		}
+		return result;
+	}
+}
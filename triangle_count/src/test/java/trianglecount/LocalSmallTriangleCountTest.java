@@ -0,0 +1,15 @@
+package trianglecount;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.util.ToolRunner;
+
+public class LocalSmallTriangleCountTest {
+	public static void main(String[] args) throws Exception {
+		
+		Configuration conf = new Configuration();
+		
+		String[] params = {"src/test/resources/email-Eu-core.txt"};
+		
+		ToolRunner.run(conf, new LocalTriangleCounter(), params);
+	}
+}
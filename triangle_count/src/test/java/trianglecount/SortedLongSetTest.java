@@ -0,0 +1,58 @@
+package trianglecount;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+public class SortedLongSetTest {
+
+	@Test
+	public void matchesTreeSetAcrossBlockSplitsAndRemovals() {
+		Random random = new Random(42);
+		SortedLongSet set = new SortedLongSet();
+		TreeSet<Long> expected = new TreeSet<>();
+		for (int i = 0; i < 200000; i++) {
+			long key = random.nextInt(20 * SortedLongSet.BLOCK);
+			if (random.nextInt(3) == 0) {
+				assertEquals(expected.remove(key), set.remove(key));
+			} else {
+				assertEquals(expected.add(key), set.add(key));
+			}
+		}
+		assertEquals(expected.size(), set.size());
+
+		SortedLongSet.Cursor cursor = new SortedLongSet.Cursor();
+		for (long from : new long[] { Long.MIN_VALUE, 0, 777, 5 * SortedLongSet.BLOCK + 1, Long.MAX_VALUE }) {
+			set.seek(from, cursor);
+			for (long key : expected.tailSet(from)) {
+				assertEquals(key, cursor.peek());
+				assertEquals(key, cursor.next());
+			}
+			assertFalse(cursor.hasNext());
+		}
+	}
+
+	@Test
+	public void increasingKeysFillBlocks() {
+		SortedLongSet set = new SortedLongSet();
+		for (long key = 0; key < 10 * SortedLongSet.BLOCK; key++) {
+			set.add(key << 32);
+		}
+		for (long key = 0; key < 10 * SortedLongSet.BLOCK; key++) {
+			assertTrue(set.contains(key << 32));
+			assertFalse(set.contains((key << 32) + 1));
+		}
+		for (long key = 0; key < 10 * SortedLongSet.BLOCK; key++) {
+			set.remove(key << 32);
+		}
+		assertEquals(0, set.size());
+		SortedLongSet.Cursor cursor = new SortedLongSet.Cursor();
+		set.seek(0, cursor);
+		assertFalse(cursor.hasNext());
+	}
+}
@@ -0,0 +1,119 @@
+package trianglecount;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class StreamingTriangleEstimatorTest {
+
+	/** m distinct undirected edges on n vertices in random stream order */
+	private static int[][] randomGraph(int n, int m, long seed) {
+		Random random = new Random(seed);
+		Set<Long> seen = new HashSet<>();
+		List<int[]> edges = new ArrayList<>();
+		while (edges.size() < m) {
+			int u = random.nextInt(n);
+			int v = random.nextInt(n);
+			if (u != v && seen.add(BlockedBloomFilter.edgeKey(u, v))) {
+				edges.add(new int[] { u, v });
+			}
+		}
+		return edges.toArray(new int[0][]);
+	}
+
+	/** Exact triangles per vertex; the total is under key -1 */
+	private static Map<Integer, Long> exactCounts(int[][] edges) {
+		Set<Long> edgeSet = new HashSet<>();
+		Map<Integer, Set<Integer>> adjacency = new HashMap<>();
+		for (int[] e : edges) {
+			edgeSet.add(BlockedBloomFilter.edgeKey(e[0], e[1]));
+			adjacency.computeIfAbsent(e[0], k -> new HashSet<>()).add(e[1]);
+			adjacency.computeIfAbsent(e[1], k -> new HashSet<>()).add(e[0]);
+		}
+		Map<Integer, Long> counts = new HashMap<>();
+		for (int[] e : edges) {
+			for (int w : adjacency.get(e[0])) {
+				// each triangle once: from its edge with the two smallest vertices
+				if (w > e[0] && w > e[1] && edgeSet.contains(BlockedBloomFilter.edgeKey(w, e[1]))) {
+					counts.merge(-1, 1L, Long::sum);
+					counts.merge(e[0], 1L, Long::sum);
+					counts.merge(e[1], 1L, Long::sum);
+					counts.merge(w, 1L, Long::sum);
+				}
+			}
+		}
+		return counts;
+	}
+
+	private static StreamingTriangleEstimator run(int[][] edges, int reservoir, long seed, boolean perVertex) {
+		StreamingTriangleEstimator estimator = new StreamingTriangleEstimator(reservoir, seed, perVertex);
+		for (int[] e : edges) {
+			estimator.add(e[0], e[1]);
+		}
+		return estimator;
+	}
+
+	@Test
+	public void exactWhenReservoirHoldsAllEdges() throws Exception {
+		int[][] edges = randomGraph(200, 2000, 1);
+		Map<Integer, Long> exact = exactCounts(edges);
+		assertTrue(exact.get(-1) > 50);
+
+		for (int reservoir : new int[] { edges.length, 2 * edges.length }) {
+			StreamingTriangleEstimator estimator = run(edges, reservoir, 7, true);
+			assertEquals(edges.length, estimator.getSampleSize());
+			assertEquals((double) exact.get(-1), estimator.getGlobalEstimate(), 0);
+
+			Map<Integer, Double> local = new HashMap<>();
+			estimator.forEachLocalEstimate(local::put);
+			for (int v = 0; v < 200; v++) {
+				assertEquals((double) exact.getOrDefault(v, 0L), local.getOrDefault(v, 0.0), 0);
+			}
+		}
+	}
+
+	@Test
+	public void unbiasedOnASmallGraph() {
+		int[][] edges = randomGraph(40, 400, 2);
+		long exact = exactCounts(edges).get(-1);
+		int reservoir = 100;  // a quarter of the edges
+
+		int runs = 2000;
+		double sum = 0;
+		double sumSquares = 0;
+		boolean sampled = false;
+		for (long seed = 1; seed <= runs; seed++) {
+			double estimate = run(edges, reservoir, seed, false).getGlobalEstimate();
+			sum += estimate;
+			sumSquares += estimate * estimate;
+			sampled |= estimate != exact;
+		}
+		double mean = sum / runs;
+		double standardError = Math.sqrt((sumSquares / runs - mean * mean) / runs);
+		assertTrue("single runs are estimates", sampled);
+		assertEquals("mean of " + runs + " runs, standard error " + standardError,
+				exact, mean, 4 * standardError);
+	}
+
+	@Test
+	public void ignoresSelfLoopsAndSampledRepeats() {
+		StreamingTriangleEstimator estimator = new StreamingTriangleEstimator(10, 1, false);
+		assertTrue(estimator.add(0, 1));
+		assertFalse(estimator.add(1, 0));
+		assertFalse(estimator.add(2, 2));
+		assertTrue(estimator.add(1, 2));
+		assertTrue(estimator.add(2, 0));
+		assertEquals(3, estimator.getEdgesSeen());
+		assertEquals(1.0, estimator.getGlobalEstimate(), 0);
+	}
+}
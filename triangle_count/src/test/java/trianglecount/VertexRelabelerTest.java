@@ -0,0 +1,81 @@
+package trianglecount;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.util.ToolRunner;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class VertexRelabelerTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	// K4 on sparse IDs -7, 5, 2147483000, MAX_VALUE and a pendant 5 - MIN_VALUE
+	private static final String EDGES = "-7 5\n-7 2147483000\n-7 2147483647\n5 2147483000\n"
+			+ "5 2147483647\n2147483000 2147483647\n5 -2147483648\n5 -7\n";
+
+	// ranks by (degree, original ID): MIN_VALUE (1), -7 (3), 2147483000 (3), MAX_VALUE (3), 5 (4)
+	private static final int[] IDS = { Integer.MIN_VALUE, -7, 2147483000, Integer.MAX_VALUE, 5 };
+
+	@Test
+	public void relabelsSparseAndNegativeIds() throws Exception {
+		File input = folder.newFile("edges.txt");
+		Files.write(input.toPath(), EDGES.getBytes(StandardCharsets.UTF_8));
+		assertEquals(0, ToolRunner.run(new Configuration(), new VertexRelabeler(),
+				new String[] { input.getAbsolutePath() }));
+
+		File relabeled = new File(input.getPath() + ".relabeled");
+		assertEquals(Arrays.asList("vertices\t5", "edges\t7"),
+				Files.readAllLines(new File(relabeled, VertexRelabeler.MARKER).toPath(), StandardCharsets.UTF_8));
+
+		VertexIdMapping ids = VertexIdMapping.map(new File(relabeled, "ids"));
+		VertexIdLookup lookup = VertexIdLookup.map(new File(relabeled, "lookup"));
+		assertEquals(IDS.length, ids.size());
+		assertEquals(IDS.length, lookup.size());
+		for (int newId = 0; newId < IDS.length; newId++) {
+			assertEquals(IDS[newId], ids.get(newId));
+			assertEquals(newId, lookup.get(IDS[newId]));
+		}
+		assertEquals(VertexIdMapping.ABSENT, lookup.get(0));
+		assertEquals(VertexIdMapping.ABSENT, lookup.get(2147483646));
+
+		// K4 on new IDs 1..4 and the pendant 0 - 4, smaller new ID first
+		List<long[]> edges = new ArrayList<>();
+		for (File part : new File(relabeled, "edges").listFiles((dir, name) -> name.startsWith("part-"))) {
+			long last = Long.MIN_VALUE;
+			try (DataInputStream in = new DataInputStream(new FileInputStream(part))) {
+				while (true) {
+					int a;
+					try {
+						a = in.readInt();
+					} catch (EOFException end) {
+						break;
+					}
+					int b = in.readInt();
+					assertTrue(a < b);
+					assertTrue("sorted per part", CsrGraph.pack(a, b) > last);
+					last = CsrGraph.pack(a, b);
+					edges.add(new long[] { a, b });
+				}
+			}
+		}
+		edges.sort((x, y) -> Long.compare(CsrGraph.pack((int) x[0], (int) x[1]), CsrGraph.pack((int) y[0], (int) y[1])));
+		long[][] expected = { { 0, 4 }, { 1, 2 }, { 1, 3 }, { 1, 4 }, { 2, 3 }, { 2, 4 }, { 3, 4 } };
+		assertArrayEquals(expected, edges.toArray(new long[0][]));
+	}
+}
@@ -0,0 +1,31 @@
+package trianglecount;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * BenchmarkMain - JMH entry point that always reports ops/s and bytes allocated per op
+ *
+ * Accepts the usual JMH command line (benchmark regex, -p param=value, -f, -wi,
+ * -i, -rf json, ...) and adds throughput mode in ops/s plus the GC profiler,
+ * whose gc.alloc.rate.norm line is the allocation in bytes per op.
+ *
+ * Usage: java -jar target/benchmarks.jar [Benchmark regex] [-p distribution=POWER_LAW]
+ */
+public class BenchmarkMain {
+
+	public static void main(String[] args) throws Exception {
+		CommandLineOptions cmd = new CommandLineOptions(args);
+		new Runner(new OptionsBuilder()
+				.parent(cmd)
+				.mode(Mode.Throughput)
+				.timeUnit(TimeUnit.SECONDS)
+				.addProfiler(GCProfiler.class)
+				.build()).run();
+	}
+}
@@ -0,0 +1,83 @@
+package trianglecount;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * BloomProbeBenchmark - Closing-edge probe of WedgeBloomReducer.mightEdgeExist
+ *
+ * mightEdgeExist is private and only delegates to BlockedBloomFilter.mightContain(u, v),
+ * so the filter is probed directly. It is sized like BloomFilterBuilder does
+ * (numEdges, bloom.filter.fpr 0.01) and filled with the benchmark graph.
+ * One op = one probe; half of the probes hit stored edges (in either
+ * endpoint order), half are random pairs.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BloomProbeBenchmark {
+
+	static final int BATCH = 1024;
+
+	@Param({ "UNIFORM", "POWER_LAW" })
+	DegreeDistribution distribution;
+
+	@Param({ "32" })
+	int meanDegree;
+
+	@Param({ "1000000" })
+	int numEdges;
+
+	BlockedBloomFilter filter;
+	int[] probeU = new int[BATCH];
+	int[] probeV = new int[BATCH];
+
+	@Setup
+	public void setup() {
+		int numVertices = Math.max(2, 2 * numEdges / meanDegree);
+		long[] edges = distribution.edges(numVertices, meanDegree, numEdges, 42);
+		long numBits = BloomFilterBuilder.optimalNumBits(numEdges, 0.01);
+		filter = new BlockedBloomFilter(numBits, BloomFilterBuilder.optimalNumHashes(numEdges, numBits));
+		for (long e : edges) {
+			filter.add((int) (e >>> 32), (int) e);
+		}
+
+		SplittableRandom random = new SplittableRandom(43);
+		for (int i = 0; i < BATCH; i++) {
+			if ((i & 1) == 0) {
+				long e = edges[random.nextInt(numEdges)];
+				probeU[i] = (int) e;
+				probeV[i] = (int) (e >>> 32);
+			} else {
+				probeU[i] = random.nextInt(numVertices);
+				probeV[i] = random.nextInt(numVertices);
+			}
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH)
+	public int mightEdgeExist() {
+		int hits = 0;
+		for (int i = 0; i < BATCH; i++) {
+			if (filter.mightContain(probeU[i], probeV[i])) hits++;
+		}
+		return hits;
+	}
+}
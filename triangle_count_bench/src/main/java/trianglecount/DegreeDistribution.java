@@ -0,0 +1,83 @@
+package trianglecount;
+
+import java.util.SplittableRandom;
+
+/**
+ * DegreeDistribution - Vertex degree models for benchmark inputs
+ *
+ * - UNIFORM:   degrees uniform in [1, 2 * mean - 1] (no hubs)
+ * - POWER_LAW: Pareto tail with exponent 2.1, capped at maxDegree,
+ *              a few hubs and many low-degree vertices as in the SNAP graphs
+ */
+public enum DegreeDistribution {
+
+	UNIFORM {
+		int sample(SplittableRandom random, int mean, int maxDegree) {
+			return Math.min(maxDegree, 1 + random.nextInt(2 * mean - 1));
+		}
+	},
+
+	POWER_LAW {
+		int sample(SplittableRandom random, int mean, int maxDegree) {
+			// P(d >= x) = (x / xmin)^-(alpha - 1); xmin so that the untruncated mean is `mean`
+			double alpha = 2.1;
+			double xmin = mean * (alpha - 2) / (alpha - 1);
+			double d = xmin * Math.pow(1 - random.nextDouble(), -1 / (alpha - 1));
+			return (int) Math.max(1, Math.min(maxDegree, Math.round(d)));
+		}
+	};
+
+	abstract int sample(SplittableRandom random, int mean, int maxDegree);
+
+	/**
+	 * Degrees of n vertices
+	 */
+	public int[] degrees(int n, int mean, int maxDegree, long seed) {
+		SplittableRandom random = new SplittableRandom(seed);
+		int[] degrees = new int[n];
+		for (int i = 0; i < n; i++) {
+			degrees[i] = sample(random, mean, maxDegree);
+		}
+		return degrees;
+	}
+
+	/**
+	 * numEdges edges (u != v) whose endpoints are drawn with probability
+	 * proportional to degree (Chung-Lu), packed as (u << 32) | v, unordered
+	 */
+	public long[] edges(int numVertices, int mean, int numEdges, long seed) {
+		int[] degrees = degrees(numVertices, mean, numVertices - 1, seed);
+		long[] cumulative = new long[numVertices];
+		long total = 0;
+		for (int v = 0; v < numVertices; v++) {
+			total += degrees[v];
+			cumulative[v] = total;
+		}
+
+		SplittableRandom random = new SplittableRandom(seed + 1);
+		long[] edges = new long[numEdges];
+		for (int i = 0; i < numEdges; ) {
+			int u = endpoint(cumulative, random.nextLong(total));
+			int v = endpoint(cumulative, random.nextLong(total));
+			if (u != v) {
+				edges[i++] = ((long) u << 32) | (v & 0xFFFFFFFFL);
+			}
+		}
+		return edges;
+	}
+
+	/** Vertex owning position r of the concatenated degree ranges */
+	private static int endpoint(long[] cumulative, long r) {
+		int lo = 0;
+		int hi = cumulative.length - 1;
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (cumulative[mid] <= r) {
+				lo = mid + 1;
+			} else {
+				hi = mid;
+			}
+		}
+		return lo;
+	}
+}
@@ -0,0 +1,91 @@
+package trianglecount;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.Mapper;
+import org.apache.hadoop.mapreduce.Reducer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * EmptyMapperBenchmark - Harness baseline for the Mapper/Reducer benchmarks
+ *
+ * Same feeds and contexts (TaskContexts) as NormalizeMapperBenchmark and
+ * WedgeReducerBenchmark, with a mapper/reducer that does nothing per record:
+ * - map:         one op = one record through Mapper.run, nothing written
+ * - reduceGroup: one op = one single-value group through Reducer.run, nothing written
+ * Subtract these from the real benchmarks' time and gc.alloc.rate.norm to get
+ * the cost of the code under test.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmptyMapperBenchmark {
+
+	static final int BATCH = 1024;
+
+	static class EmptyMapper extends Mapper<LongWritable, Text, IntPairWritable, Text> {
+		@Override
+		protected void map(LongWritable key, Text value, Context context) {
+		}
+	}
+
+	static class EmptyReducer extends Reducer<LongWritable, Text, IntPairWritable, Text> {
+		@Override
+		protected void reduce(LongWritable key, Iterable<Text> values, Context context) {
+		}
+	}
+
+	LongWritable[] offsets = new LongWritable[BATCH];
+	Text[] lines = new Text[BATCH];
+	Iterable<Text> group;
+
+	EmptyMapper mapper = new EmptyMapper();
+	EmptyReducer reducer = new EmptyReducer();
+	TaskContexts.MapFeed<LongWritable, Text> mapFeed;
+	TaskContexts.ReduceFeed<LongWritable, Text> reduceFeed = new TaskContexts.ReduceFeed<>();
+	Mapper<LongWritable, Text, IntPairWritable, Text>.Context mapContext;
+	Reducer<LongWritable, Text, IntPairWritable, Text>.Context reduceContext;
+
+	@Setup
+	public void setup() {
+		for (int i = 0; i < BATCH; i++) {
+			offsets[i] = new LongWritable(i);
+			lines[i] = new Text(i + "\t" + (i + 1));
+		}
+		group = Collections.singletonList(lines[0]);
+		mapFeed = new TaskContexts.MapFeed<>(offsets, lines);
+		mapContext = TaskContexts.mapContext(new Configuration(false), mapFeed);
+		reduceContext = TaskContexts.reduceContext(new Configuration(false), reduceFeed);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH)
+	public void map(Blackhole bh) throws Exception {
+		mapFeed.set(0, BATCH, bh);
+		mapper.run(mapContext);
+	}
+
+	@Benchmark
+	public void reduceGroup(Blackhole bh) throws Exception {
+		reduceFeed.set(offsets[0], group, bh);
+		reducer.run(reduceContext);
+	}
+}
@@ -0,0 +1,108 @@
+package trianglecount;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hadoop.io.DataInputBuffer;
+import org.apache.hadoop.io.DataOutputBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * IntPairWritableBenchmark - Per-record cost of the pair key used by every shuffle
+ *
+ * One op = one pair: write, readFields, compareTo (object) and the raw
+ * byte comparator used by the sort.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IntPairWritableBenchmark {
+
+	static final int BATCH = 1024;
+
+	@Param({ "UNIFORM", "POWER_LAW" })
+	DegreeDistribution distribution;
+
+	@Param({ "32" })
+	int meanDegree;
+
+	IntPairWritable[] pairs;
+	byte[] serialized;
+	int serializedLength;
+
+	DataOutputBuffer out = new DataOutputBuffer(BATCH * 8);
+	DataInputBuffer in = new DataInputBuffer();
+	IntPairWritable reuse = new IntPairWritable();
+	IntPairWritable.Comparator raw = new IntPairWritable.Comparator();
+
+	@Setup
+	public void setup() throws IOException {
+		long[] edges = distribution.edges(1 << 16, meanDegree, BATCH, 42);
+		pairs = new IntPairWritable[BATCH];
+		out.reset();
+		for (int i = 0; i < BATCH; i++) {
+			int u = (int) (edges[i] >>> 32);
+			int v = (int) edges[i];
+			pairs[i] = new IntPairWritable();
+			pairs[i].set(Math.min(u, v), Math.max(u, v));
+			pairs[i].write(out);
+		}
+		serialized = out.getData().clone();
+		serializedLength = out.getLength();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH)
+	public int write() throws IOException {
+		out.reset();
+		for (IntPairWritable p : pairs) {
+			p.write(out);
+		}
+		return out.getLength();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH)
+	public void readFields(Blackhole bh) throws IOException {
+		in.reset(serialized, serializedLength);
+		for (int i = 0; i < BATCH; i++) {
+			reuse.readFields(in);
+			bh.consume(reuse.getFirst());
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH)
+	public int compareTo() {
+		int acc = 0;
+		for (int i = 1; i < BATCH; i++) {
+			acc += pairs[i - 1].compareTo(pairs[i]);
+		}
+		return acc;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH)
+	public int rawCompare() {
+		int acc = 0;
+		for (int i = 1; i < BATCH; i++) {
+			acc += raw.compare(serialized, (i - 1) * 8, 8, serialized, i * 8, 8);
+		}
+		return acc;
+	}
+}
@@ -0,0 +1,87 @@
+package trianglecount;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.IntWritable;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.Mapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * NormalizeMapperBenchmark - Text edge parsing in Step 1
+ *
+ * One op = one "u	v" line:
+ * - map:   NormalizeMapper through Mapper.run, output to a Blackhole
+ *          (edge and self-loop tallies go to counters in cleanup)
+ * - parse: EdgeLineParser alone, the lower bound for the mapper
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NormalizeMapperBenchmark {
+
+	static final int BATCH = 1024;
+
+	@Param({ "UNIFORM", "POWER_LAW" })
+	DegreeDistribution distribution;
+
+	@Param({ "32" })
+	int meanDegree;
+
+	LongWritable[] offsets = new LongWritable[BATCH];
+	Text[] lines = new Text[BATCH];
+
+	NormalizeMapper mapper = new NormalizeMapper();
+	EdgeLineParser parser = new EdgeLineParser();
+	TaskContexts.MapFeed<Object, Text> feed;
+	Mapper<Object, Text, IntPairWritable, IntWritable>.Context context;
+
+	@Setup
+	public void setup() {
+		long[] edges = distribution.edges(1 << 20, meanDegree, BATCH, 42);
+		long offset = 0;
+		for (int i = 0; i < BATCH; i++) {
+			lines[i] = new Text((edges[i] >>> 32) + "\t" + (int) edges[i]);
+			offsets[i] = new LongWritable(offset);
+			offset += lines[i].getLength() + 1;
+		}
+		feed = new TaskContexts.MapFeed<>(offsets, lines);
+		context = TaskContexts.mapContext(new Configuration(false), feed);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH)
+	public void map(Blackhole bh) throws Exception {
+		feed.set(0, BATCH, bh);
+		mapper.run(context);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH)
+	public int parse() {
+		int acc = 0;
+		for (Text line : lines) {
+			if (parser.parse(line)) {
+				acc += parser.getFirst() ^ parser.getSecond();
+			}
+		}
+		return acc;
+	}
+}
@@ -0,0 +1,81 @@
+package trianglecount;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hadoop.io.IntWritable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * PartitionerBenchmark - getPartition of the two pair-key partitioners
+ *
+ * One op = one key: IntPairIntPartitioner (Steps 1 and 5) and
+ * IntPairIntPairPartitioner (Step 3), hash mode.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PartitionerBenchmark {
+
+	static final int BATCH = 1024;
+
+	@Param({ "UNIFORM", "POWER_LAW" })
+	DegreeDistribution distribution;
+
+	@Param({ "32" })
+	int meanDegree;
+
+	@Param({ "64" })
+	int numReduceTasks;
+
+	IntPairWritable[] keys = new IntPairWritable[BATCH];
+	IntWritable intValue = new IntWritable(-1);
+	IntPairWritable pairValue = new IntPairWritable();
+
+	IntPairIntPartitioner intPartitioner = new IntPairIntPartitioner();
+	IntPairIntPairPartitioner pairPartitioner = new IntPairIntPairPartitioner();
+
+	@Setup
+	public void setup() {
+		long[] edges = distribution.edges(1 << 20, meanDegree, BATCH, 42);
+		for (int i = 0; i < BATCH; i++) {
+			int u = (int) (edges[i] >>> 32);
+			int v = (int) edges[i];
+			keys[i] = new IntPairWritable();
+			keys[i].set(Math.min(u, v), Math.max(u, v));
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH)
+	public int intPairInt() {
+		int acc = 0;
+		for (IntPairWritable key : keys) {
+			acc += intPartitioner.getPartition(key, intValue, numReduceTasks);
+		}
+		return acc;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH)
+	public int intPairIntPair() {
+		int acc = 0;
+		for (IntPairWritable key : keys) {
+			acc += pairPartitioner.getPartition(key, pairValue, numReduceTasks);
+		}
+		return acc;
+	}
+}
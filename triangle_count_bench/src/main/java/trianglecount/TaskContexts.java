@@ -0,0 +1,254 @@
+package trianglecount;
+
+import java.io.IOException;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.DataInputBuffer;
+import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.mapred.RawKeyValueIterator;
+import org.apache.hadoop.mapreduce.Counter;
+import org.apache.hadoop.mapreduce.InputSplit;
+import org.apache.hadoop.mapreduce.MapContext;
+import org.apache.hadoop.mapreduce.Mapper;
+import org.apache.hadoop.mapreduce.RecordReader;
+import org.apache.hadoop.mapreduce.RecordWriter;
+import org.apache.hadoop.mapreduce.Reducer;
+import org.apache.hadoop.mapreduce.StatusReporter;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+import org.apache.hadoop.mapreduce.TaskAttemptID;
+import org.apache.hadoop.mapreduce.counters.GenericCounter;
+import org.apache.hadoop.mapreduce.lib.map.WrappedMapper;
+import org.apache.hadoop.mapreduce.lib.reduce.WrappedReducer;
+import org.apache.hadoop.mapreduce.task.MapContextImpl;
+import org.apache.hadoop.mapreduce.task.ReduceContextImpl;
+import org.apache.hadoop.util.Progress;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * TaskContexts - Minimal in-process Mapper/Reducer contexts for benchmarks
+ *
+ * Purpose: Run the real map()/reduce() methods through Mapper.run and
+ *          Reducer.run without a job: records come from a feed, every
+ *          context.write goes to a JMH Blackhole, counters are discarded.
+ *          The contexts are Hadoop's own MapContextImpl (with a RecordReader
+ *          over the feed) and a ReduceContextImpl subclass that takes its
+ *          groups from the feed, wrapped by WrappedMapper/WrappedReducer as
+ *          in a real task. No reflection or boxing happens per record, so
+ *          gc.alloc.rate.norm is the code under test plus the small, fixed
+ *          harness cost that EmptyMapperBenchmark measures.
+ */
+public class TaskContexts {
+
+	/**
+	 * Where the records of one run come from; output goes to sink
+	 */
+	static class Feed {
+		Blackhole sink;
+	}
+
+	/**
+	 * One reduce group per Reducer.run call
+	 */
+	public static class ReduceFeed<K, V> extends Feed {
+		K key;
+		Iterable<V> values;
+		boolean pending;
+
+		public void set(K key, Iterable<V> values, Blackhole sink) {
+			this.key = key;
+			this.values = values;
+			this.pending = true;
+			this.sink = sink;
+		}
+	}
+
+	/**
+	 * Records [from, to) of two parallel arrays per Mapper.run call
+	 */
+	public static class MapFeed<K, V> extends Feed {
+		K[] keys;
+		V[] values;
+		int pos;
+		int end;
+
+		public MapFeed(K[] keys, V[] values) {
+			this.keys = keys;
+			this.values = values;
+		}
+
+		public void set(int from, int to, Blackhole sink) {
+			this.pos = from - 1;
+			this.end = to;
+			this.sink = sink;
+		}
+	}
+
+	public static <KI, VI, KO, VO> Reducer<KI, VI, KO, VO>.Context reduceContext(
+			Configuration conf, ReduceFeed<KI, VI> feed) {
+		try {
+			return new WrappedReducer<KI, VI, KO, VO>().getReducerContext(new FeedReduceContext<KI, VI, KO, VO>(
+					conf, feed, new SinkWriter<KO, VO>(feed), new SinkReporter()));
+		} catch (IOException | InterruptedException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	public static <KI, VI, KO, VO> Mapper<KI, VI, KO, VO>.Context mapContext(
+			Configuration conf, MapFeed<KI, VI> feed) {
+		MapContext<KI, VI, KO, VO> context = new MapContextImpl<KI, VI, KO, VO>(conf, new TaskAttemptID(),
+				new FeedReader<KI, VI>(feed), new SinkWriter<KO, VO>(feed), null, new SinkReporter(), null);
+		return new WrappedMapper<KI, VI, KO, VO>().getMapContext(context);
+	}
+
+	/**
+	 * ReduceContextImpl whose groups come from a ReduceFeed instead of a
+	 * serialized, sorted input. The constructor still wants key/value classes
+	 * with a serialization; they are never used, since the overridden methods
+	 * bypass deserialization.
+	 */
+	static class FeedReduceContext<KI, VI, KO, VO> extends ReduceContextImpl<KI, VI, KO, VO> {
+		private final ReduceFeed<KI, VI> feed;
+
+		@SuppressWarnings("unchecked")
+		FeedReduceContext(Configuration conf, ReduceFeed<KI, VI> feed, RecordWriter<KO, VO> output,
+				StatusReporter reporter) throws IOException, InterruptedException {
+			super(conf, new TaskAttemptID(), EMPTY_INPUT, reporter.getCounter("", "input keys"),
+					reporter.getCounter("", "input values"), output, null, reporter, null,
+					(Class<KI>) (Class<?>) NullWritable.class, (Class<VI>) (Class<?>) NullWritable.class);
+			this.feed = feed;
+		}
+
+		@Override
+		public boolean nextKey() {
+			boolean next = feed.pending;
+			feed.pending = false;
+			return next;
+		}
+
+		@Override
+		public boolean nextKeyValue() {
+			return false;
+		}
+
+		@Override
+		public KI getCurrentKey() {
+			return feed.key;
+		}
+
+		@Override
+		public Iterable<VI> getValues() {
+			return feed.values;
+		}
+	}
+
+	private static final RawKeyValueIterator EMPTY_INPUT = new RawKeyValueIterator() {
+		public DataInputBuffer getKey() {
+			return null;
+		}
+
+		public DataInputBuffer getValue() {
+			return null;
+		}
+
+		public boolean next() {
+			return false;
+		}
+
+		public void close() {
+		}
+
+		public Progress getProgress() {
+			return null;
+		}
+	};
+
+	/**
+	 * RecordReader over a MapFeed's current range
+	 */
+	static class FeedReader<K, V> extends RecordReader<K, V> {
+		private final MapFeed<K, V> feed;
+
+		FeedReader(MapFeed<K, V> feed) {
+			this.feed = feed;
+		}
+
+		@Override
+		public void initialize(InputSplit split, TaskAttemptContext context) {
+		}
+
+		@Override
+		public boolean nextKeyValue() {
+			return ++feed.pos < feed.end;
+		}
+
+		@Override
+		public K getCurrentKey() {
+			return feed.keys[feed.pos];
+		}
+
+		@Override
+		public V getCurrentValue() {
+			return feed.values[feed.pos];
+		}
+
+		@Override
+		public float getProgress() {
+			return 0;
+		}
+
+		@Override
+		public void close() {
+		}
+	}
+
+	/**
+	 * RecordWriter into the feed's current Blackhole
+	 */
+	static class SinkWriter<K, V> extends RecordWriter<K, V> {
+		private final Feed feed;
+
+		SinkWriter(Feed feed) {
+			this.feed = feed;
+		}
+
+		@Override
+		public void write(K key, V value) {
+			feed.sink.consume(key);
+			feed.sink.consume(value);
+		}
+
+		@Override
+		public void close(TaskAttemptContext context) {
+		}
+	}
+
+	/**
+	 * Reporter with one shared counter: increments are plain field updates
+	 */
+	static class SinkReporter extends StatusReporter {
+		private final Counter counter = new GenericCounter();
+
+		@Override
+		public Counter getCounter(Enum<?> name) {
+			return counter;
+		}
+
+		@Override
+		public Counter getCounter(String group, String name) {
+			return counter;
+		}
+
+		@Override
+		public void progress() {
+		}
+
+		@Override
+		public float getProgress() {
+			return 0;
+		}
+
+		@Override
+		public void setStatus(String status) {
+		}
+	}
+}
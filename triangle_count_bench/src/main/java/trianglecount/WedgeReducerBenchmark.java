@@ -0,0 +1,82 @@
+package trianglecount;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.IntWritable;
+import org.apache.hadoop.mapreduce.Reducer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * WedgeReducerBenchmark - WedgeReducer's neighbor buffering and pair loop
+ *
+ * One op = one reduce group (center with its neighbor list) through
+ * Reducer.run; the groups cycle through GROUPS neighbor lists whose sizes
+ * follow the degree distribution, capped at maxDegree. Output wedges go
+ * to a Blackhole.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WedgeReducerBenchmark {
+
+	static final int GROUPS = 256;
+
+	@Param({ "UNIFORM", "POWER_LAW" })
+	DegreeDistribution distribution;
+
+	@Param({ "32" })
+	int meanDegree;
+
+	@Param({ "1024" })
+	int maxDegree;
+
+	IntWritable[] centers;
+	List<List<IntWritable>> neighbors;
+	int next;
+
+	WedgeReducer reducer = new WedgeReducer();
+	TaskContexts.ReduceFeed<IntWritable, IntWritable> feed = new TaskContexts.ReduceFeed<>();
+	Reducer<IntWritable, IntWritable, IntPairWritable, IntWritable>.Context context;
+
+	@Setup
+	public void setup() {
+		int[] degrees = distribution.degrees(GROUPS, meanDegree, maxDegree, 42);
+		SplittableRandom random = new SplittableRandom(43);
+		centers = new IntWritable[GROUPS];
+		neighbors = new ArrayList<>();
+		for (int g = 0; g < GROUPS; g++) {
+			centers[g] = new IntWritable(g);
+			List<IntWritable> list = new ArrayList<>();
+			for (int j = 0; j < degrees[g]; j++) {
+				list.add(new IntWritable(random.nextInt(1 << 20)));
+			}
+			neighbors.add(list);
+		}
+		context = TaskContexts.reduceContext(new Configuration(false), feed);
+	}
+
+	@Benchmark
+	public void reduceGroup(Blackhole bh) throws Exception {
+		int g = next++ & (GROUPS - 1);
+		feed.set(centers[g], neighbors.get(g), bh);
+		reducer.run(context);
+	}
+}